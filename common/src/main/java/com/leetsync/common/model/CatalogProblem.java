@@ -0,0 +1,36 @@
+package com.leetsync.common.model;
+
+import java.util.List;
+
+/**
+ * The problem fields the shared catalog formats read. Each module keeps its own Problem model
+ * (they are DynamoDB beans owned by that service) and implements this view over it.
+ */
+public interface CatalogProblem {
+
+    Long getQuestionId();
+
+    Integer getFrontendQuestionId();
+
+    String getTitleSlug();
+
+    Long getTotalAccepted();
+
+    Long getTotalSubmitted();
+
+    /**
+     * @return 1 (Easy), 2 (Medium), 3 (Hard), or null when unknown
+     */
+    Integer getDifficultyLevel();
+
+    Double getAcRate();
+
+    List<? extends Tag> getTopicTags();
+
+    interface Tag {
+
+        String getName();
+
+        String getSlug();
+    }
+}
@@ -0,0 +1,22 @@
+package com.leetsync.common.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Blob storage for problem catalog snapshots: S3 in the cloud, a local directory in tests and local runs
+ */
+public interface CatalogSnapshotStore {
+
+    void put(String key, byte[] content) throws IOException;
+
+    /**
+     * @return the object's bytes, or null when the key does not exist
+     */
+    byte[] get(String key) throws IOException;
+
+    /**
+     * Streams the object to target, replacing any existing file
+     */
+    void download(String key, Path target) throws IOException;
+}
@@ -0,0 +1,81 @@
+package com.leetsync.common.service;
+
+import java.time.Duration;
+
+/**
+ * Stops calling LeetCode after repeated consecutive failures. Once openDuration has
+ * passed a single trial request is let through; its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private long openCount;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1, got " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                openCount++;
+            }
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * Frees the half-open trial slot when the trial ended without an outcome (interrupted, or failed
+     * locally before a response), so the next request can probe instead of being rejected forever
+     */
+    public synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Number of times the circuit has tripped open
+     */
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+}
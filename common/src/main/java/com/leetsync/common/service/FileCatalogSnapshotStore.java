@@ -0,0 +1,39 @@
+package com.leetsync.common.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stand-in for S3 that keeps each key as a file under a root directory
+ */
+public class FileCatalogSnapshotStore implements CatalogSnapshotStore {
+
+    private final Path root;
+
+    public FileCatalogSnapshotStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void put(String key, byte[] content) throws IOException {
+        Path target = root.resolve(key);
+        Files.createDirectories(target.getParent());
+        // Write then rename so readers never see a half-written object
+        Path partial = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        Files.write(partial, content);
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        Path source = root.resolve(key);
+        return Files.exists(source) ? Files.readAllBytes(source) : null;
+    }
+
+    @Override
+    public void download(String key, Path target) throws IOException {
+        Files.copy(root.resolve(key), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
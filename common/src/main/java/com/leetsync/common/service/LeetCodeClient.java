@@ -0,0 +1,399 @@
+package com.leetsync.common.service;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Long-lived LeetCode transport: one pooled HttpClient (HTTP/2 with keep-alive)
+ * shared by every request for the lifetime of the Lambda container.
+ * Counts requests and TLS handshakes so connection reuse can be measured.
+ * Every request passes an AIMD rate limiter and a circuit breaker; throttled (429/503),
+ * 5xx and I/O failures are retried with jittered exponential backoff. A Retry-After longer
+ * than MAX_RETRY_AFTER is not waited out: the throttled response is returned so the caller
+ * can defer the work to a later run.
+ */
+public class LeetCodeClient {
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DEFAULT_MAX_ATTEMPTS = 4;
+    private static final Duration DEFAULT_BASE_BACKOFF = Duration.ofMillis(200);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
+    static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final long createdAtNanos = System.nanoTime();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong tlsHandshakeCount = new AtomicLong();
+    private final AtomicLong throttleCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public LeetCodeClient() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    public LeetCodeClient(Duration connectTimeout, Duration requestTimeout) {
+        this(connectTimeout, requestTimeout,
+                new RateLimiter(10, 0.5, 40),
+                new CircuitBreaker(10, Duration.ofSeconds(30)),
+                DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF);
+    }
+
+    public LeetCodeClient(Duration connectTimeout, Duration requestTimeout, RateLimiter rateLimiter,
+                          CircuitBreaker circuitBreaker, int maxAttempts, Duration baseBackoff) {
+        this.requestTimeout = requestTimeout;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .sslContext(countingSslContext(tlsHandshakeCount))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public HttpRequest.Builder newRequest(URI uri) {
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(requestTimeout);
+    }
+
+    public HttpResponse<String> postJson(URI uri, String body) throws IOException, InterruptedException {
+        return postJson(uri, body, HttpResponse.BodyHandlers.ofString());
+    }
+
+    public <T> HttpResponse<T> postJson(URI uri, String body, HttpResponse.BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+        return postJson(uri, body, bodyHandler, bytes -> { });
+    }
+
+    /**
+     * Like postJson, also reporting this request's body bytes (retries included) to onBytes,
+     * so a caller can attribute traffic to its own run rather than diffing the shared counter
+     */
+    public <T> HttpResponse<T> postJson(URI uri, String body, HttpResponse.BodyHandler<T> bodyHandler,
+                                        LongConsumer onBytes) throws IOException, InterruptedException {
+        HttpRequest request = newRequest(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(request, bodyHandler, onBytes);
+    }
+
+    /**
+     * Sends through the rate limiter and circuit breaker, retrying throttles, 5xx and I/O errors.
+     * Once retries are exhausted the last response is returned (or the last I/O error thrown).
+     * A throttled response whose Retry-After exceeds MAX_RETRY_AFTER is returned without retrying.
+     */
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+        return send(request, bodyHandler, bytes -> { });
+    }
+
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+                                    LongConsumer onBytes) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                rejectedCount.incrementAndGet();
+                throw new IOException("LeetCode circuit breaker is open; rejected " + request.uri());
+            }
+
+            HttpResponse<T> response;
+            try {
+                rateLimiter.acquire();
+                requestCount.incrementAndGet();
+                response = httpClient.send(request,
+                        info -> new CountingSubscriber<>(bodyHandler.apply(info), bytesReceived, onBytes));
+            } catch (IOException e) {
+                circuitBreaker.onFailure();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backoff(attempt, null);
+                continue;
+            } catch (InterruptedException | RuntimeException e) {
+                circuitBreaker.releaseTrial();
+                throw e;
+            }
+
+            int status = response.statusCode();
+            boolean throttled = status == 429 || status == 503;
+            if (!throttled && status < 500) {
+                circuitBreaker.onSuccess();
+                rateLimiter.onSuccess();
+                return response;
+            }
+
+            circuitBreaker.onFailure();
+            Duration retryAfter = null;
+            if (throttled) {
+                throttleCount.incrementAndGet();
+                retryAfter = parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null));
+                if (retryAfter != null && retryAfter.compareTo(MAX_RETRY_AFTER) > 0) {
+                    // Too long to block a Lambda invocation on; pause other callers for at most the cap
+                    rateLimiter.onThrottle(MAX_RETRY_AFTER);
+                    return response;
+                }
+                rateLimiter.onThrottle(retryAfter);
+            }
+            if (attempt >= maxAttempts) {
+                return response;
+            }
+            discard(response);
+            backoff(attempt, retryAfter);
+        }
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Response body bytes received as delivered by the transport, before parsing
+     */
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public long getThrottleCount() {
+        return throttleCount.get();
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Requests refused locally because the circuit breaker was open
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public double getRequestRatePerSecond() {
+        double seconds = (System.nanoTime() - createdAtNanos) / 1_000_000_000.0;
+        return seconds <= 0 ? 0.0 : requestCount.get() / seconds;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Number of TLS connections opened; every one of them paid a full or resumed handshake
+     */
+    public long getTlsHandshakeCount() {
+        return tlsHandshakeCount.get();
+    }
+
+    /**
+     * Fraction of requests served on an already-open connection (HTTPS only)
+     */
+    public double getConnectionReuseRatio() {
+        long requests = requestCount.get();
+        if (requests == 0) {
+            return 0.0;
+        }
+        return Math.max(0.0, 1.0 - (double) tlsHandshakeCount.get() / requests);
+    }
+
+    public String metricsSummary() {
+        return String.format("LeetCode transport: %d requests (%.2f req/s), %d bytes received, %d throttled, %d retries, " +
+                        "%d rejected, rate limit %.2f req/s, circuit %s, %d TLS handshakes, %.1f%% connection reuse",
+                getRequestCount(), getRequestRatePerSecond(), getBytesReceived(), getThrottleCount(), getRetryCount(),
+                getRejectedCount(),
+                rateLimiter.getCurrentRate(), circuitBreaker.getState(),
+                getTlsHandshakeCount(), getConnectionReuseRatio() * 100);
+    }
+
+    // Full jitter: sleep a random time up to the exponential cap, but never less than Retry-After
+    private void backoff(int attempt, Duration retryAfter) throws InterruptedException {
+        retryCount.incrementAndGet();
+        long capMillis = Math.min(MAX_BACKOFF.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 1, 20));
+        long delayMillis = ThreadLocalRandom.current().nextLong(capMillis + 1);
+        if (retryAfter != null) {
+            delayMillis = Math.max(delayMillis, retryAfter.toMillis());
+        }
+        TimeUnit.MILLISECONDS.sleep(delayMillis);
+    }
+
+    private static void discard(HttpResponse<?> response) throws IOException {
+        if (response.body() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to release response body", e);
+            }
+        }
+    }
+
+    /**
+     * Retry-After is either delay-seconds or an HTTP date
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // Fall through to the HTTP-date form
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Counts body bytes as they arrive, without buffering or changing the delegate's result type
+     */
+    private static final class CountingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final AtomicLong counter;
+        private final LongConsumer listener;
+
+        private CountingSubscriber(HttpResponse.BodySubscriber<T> delegate, AtomicLong counter, LongConsumer listener) {
+            this.delegate = delegate;
+            this.counter = counter;
+            this.listener = listener;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            long bytes = 0;
+            for (ByteBuffer buffer : item) {
+                bytes += buffer.remaining();
+            }
+            counter.addAndGet(bytes);
+            listener.accept(bytes);
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+
+    /**
+     * Wraps the default SSLContext so each SSLEngine the HttpClient creates
+     * (one per new connection) is counted as a handshake.
+     */
+    private static SSLContext countingSslContext(AtomicLong counter) {
+        SSLContext base;
+        try {
+            base = SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No default SSLContext available", e);
+        }
+
+        SSLContextSpi spi = new SSLContextSpi() {
+            @Override
+            protected void engineInit(javax.net.ssl.KeyManager[] km, javax.net.ssl.TrustManager[] tm, SecureRandom sr) throws KeyManagementException {
+                // Already initialised by the platform default
+            }
+
+            @Override
+            protected SSLSocketFactory engineGetSocketFactory() {
+                return base.getSocketFactory();
+            }
+
+            @Override
+            protected SSLServerSocketFactory engineGetServerSocketFactory() {
+                return base.getServerSocketFactory();
+            }
+
+            @Override
+            protected SSLEngine engineCreateSSLEngine() {
+                counter.incrementAndGet();
+                return base.createSSLEngine();
+            }
+
+            @Override
+            protected SSLEngine engineCreateSSLEngine(String host, int port) {
+                counter.incrementAndGet();
+                return base.createSSLEngine(host, port);
+            }
+
+            @Override
+            protected SSLSessionContext engineGetServerSessionContext() {
+                return base.getServerSessionContext();
+            }
+
+            @Override
+            protected SSLSessionContext engineGetClientSessionContext() {
+                return base.getClientSessionContext();
+            }
+
+            @Override
+            protected SSLParameters engineGetDefaultSSLParameters() {
+                return base.getDefaultSSLParameters();
+            }
+
+            @Override
+            protected SSLParameters engineGetSupportedSSLParameters() {
+                return base.getSupportedSSLParameters();
+            }
+        };
+        return new SSLContext(spi, base.getProvider(), base.getProtocol()) {};
+    }
+}
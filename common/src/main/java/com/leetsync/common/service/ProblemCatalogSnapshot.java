@@ -0,0 +1,367 @@
+package com.leetsync.common.service;
+
+import com.leetsync.common.model.CatalogProblem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mappable snapshot of the problem catalog.
+ *
+ * <p>Layout (big-endian): a fixed header, the tag dictionary as (name, slug) string pairs, then one column per field.
+ * Problems are sorted by the unsigned UTF-8 bytes of their slug, so a problem's id is its row index and slug lookups
+ * binary-search the slug column. Each problem's tags are ids into the dictionary.
+ *
+ * <pre>
+ * int magic, int formatVersion, long catalogVersion, int problemCount, int tagCount
+ * tagCount x (short len, utf8 name, short len, utf8 slug)
+ * int[n+1] slugOffsets, byte[] slugBytes
+ * long[n] questionId, int[n] frontendQuestionId, byte[n] difficultyLevel,
+ * long[n] totalAccepted, long[n] totalSubmitted, double[n] acRate,
+ * int[n+1] tagOffsets, short[] tagIds
+ * </pre>
+ *
+ * Missing numbers are stored as -1 (NaN for acRate, 0 for difficulty). The problem scan writes snapshots and the
+ * ETL reads them; both go through this class, so a format change is one edit plus a new FORMAT_VERSION.
+ */
+public final class ProblemCatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemCatalogSnapshot.class);
+
+    private static final int MAGIC = 0x4C535043; // "LSPC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+
+    public static final String KEY_PREFIX = "problem-catalog/";
+    // Small object holding the catalog version of the newest snapshot
+    public static final String LATEST_KEY = KEY_PREFIX + "LATEST";
+
+    private final ByteBuffer buffer;
+    private final long version;
+    private final int size;
+    private final String[] tagNames;
+    private final String[] tagSlugs;
+    private final int slugOffsetsAt;
+    private final int slugBytesAt;
+    private final int questionIdAt;
+    private final int frontendIdAt;
+    private final int difficultyAt;
+    private final int totalAcceptedAt;
+    private final int totalSubmittedAt;
+    private final int acRateAt;
+    private final int tagOffsetsAt;
+    private final int tagIdsAt;
+
+    private ProblemCatalogSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a problem catalog snapshot");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot format version " + formatVersion);
+        }
+        this.version = buffer.getLong(8);
+        this.size = buffer.getInt(16);
+        int tagCount = buffer.getInt(20);
+
+        // The dictionary is tiny; decode it once so tag lookups return shared String instances
+        this.tagNames = new String[tagCount];
+        this.tagSlugs = new String[tagCount];
+        int position = HEADER_BYTES;
+        for (int i = 0; i < tagCount; i++) {
+            int nameLength = Short.toUnsignedInt(buffer.getShort(position));
+            tagNames[i] = readString(position + 2, nameLength);
+            position += 2 + nameLength;
+            int slugLength = Short.toUnsignedInt(buffer.getShort(position));
+            tagSlugs[i] = readString(position + 2, slugLength);
+            position += 2 + slugLength;
+        }
+
+        this.slugOffsetsAt = position;
+        this.slugBytesAt = slugOffsetsAt + 4 * (size + 1);
+        this.questionIdAt = slugBytesAt + buffer.getInt(slugOffsetsAt + 4 * size);
+        this.frontendIdAt = questionIdAt + 8 * size;
+        this.difficultyAt = frontendIdAt + 4 * size;
+        this.totalAcceptedAt = difficultyAt + size;
+        this.totalSubmittedAt = totalAcceptedAt + 8 * size;
+        this.acRateAt = totalSubmittedAt + 8 * size;
+        this.tagOffsetsAt = acRateAt + 8 * size;
+        this.tagIdsAt = tagOffsetsAt + 4 * (size + 1);
+    }
+
+    /**
+     * Memory-maps a snapshot file; lookups read straight from the mapping
+     */
+    public static ProblemCatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ProblemCatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static ProblemCatalogSnapshot wrap(byte[] content) {
+        return new ProblemCatalogSnapshot(ByteBuffer.wrap(content));
+    }
+
+    /**
+     * Fetches the newest published snapshot into cacheDir (unless that version is already there) and maps it.
+     *
+     * @return the snapshot, or null when none has been published yet
+     */
+    public static ProblemCatalogSnapshot load(CatalogSnapshotStore store, Path cacheDir) throws IOException {
+        byte[] latest = store.get(LATEST_KEY);
+        if (latest == null) {
+            return null;
+        }
+        long version = Long.parseLong(new String(latest, StandardCharsets.UTF_8).trim());
+        Path file = cacheDir.resolve("problem-catalog-v" + version + ".bin");
+        if (!Files.exists(file)) {
+            Files.createDirectories(cacheDir);
+            Path partial = Files.createTempFile(cacheDir, "problem-catalog-", ".part");
+            try {
+                store.download(keyFor(version), partial);
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+        ProblemCatalogSnapshot snapshot = open(file);
+        log.info("Loaded problem catalog snapshot v{} with {} problems and {} tags",
+                snapshot.getVersion(), snapshot.size(), snapshot.getTagCount());
+        return snapshot;
+    }
+
+    /**
+     * Uploads the snapshot under its versioned key, then points LATEST at it
+     */
+    public static void publish(CatalogSnapshotStore store, byte[] content) throws IOException {
+        long version = wrap(content).getVersion();
+        store.put(keyFor(version), content);
+        store.put(LATEST_KEY, Long.toString(version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String keyFor(long version) {
+        return KEY_PREFIX + "v" + version + ".bin";
+    }
+
+    public static byte[] encode(Collection<? extends CatalogProblem> problems, long version) {
+        List<CatalogProblem> rows = new ArrayList<>();
+        for (CatalogProblem problem : problems) {
+            if (problem.getTitleSlug() != null) {
+                rows.add(problem);
+            }
+        }
+        List<byte[]> slugs = new ArrayList<>(rows.size());
+        rows.sort(Comparator.comparing(p -> p.getTitleSlug().getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned));
+        for (CatalogProblem problem : rows) {
+            slugs.add(problem.getTitleSlug().getBytes(StandardCharsets.UTF_8));
+        }
+
+        Map<String, Integer> tagIds = new LinkedHashMap<>();
+        List<byte[]> tagEntries = new ArrayList<>();
+        int tagRefs = 0;
+        for (CatalogProblem problem : rows) {
+            if (problem.getTopicTags() == null) {
+                continue;
+            }
+            for (CatalogProblem.Tag tag : problem.getTopicTags()) {
+                String key = tag.getSlug() != null ? tag.getSlug() : tag.getName();
+                if (key == null) {
+                    continue;
+                }
+                tagRefs++;
+                if (!tagIds.containsKey(key)) {
+                    tagIds.put(key, tagIds.size());
+                    tagEntries.add(nullToEmpty(tag.getName()).getBytes(StandardCharsets.UTF_8));
+                    tagEntries.add(nullToEmpty(tag.getSlug()).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (tagIds.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many distinct tags for a snapshot: " + tagIds.size());
+        }
+
+        int n = rows.size();
+        int slugBytes = slugs.stream().mapToInt(s -> s.length).sum();
+        int dictionaryBytes = tagEntries.stream().mapToInt(s -> 2 + s.length).sum();
+        int capacity = HEADER_BYTES + dictionaryBytes + 4 * (n + 1) + slugBytes
+                + n * (8 + 4 + 1 + 8 + 8 + 8) + 4 * (n + 1) + 2 * tagRefs;
+        ByteBuffer out = ByteBuffer.allocate(capacity);
+
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(version).putInt(n).putInt(tagIds.size());
+        for (byte[] entry : tagEntries) {
+            out.putShort((short) entry.length).put(entry);
+        }
+        int offset = 0;
+        for (byte[] slug : slugs) {
+            out.putInt(offset);
+            offset += slug.length;
+        }
+        out.putInt(offset);
+        slugs.forEach(out::put);
+        rows.forEach(p -> out.putLong(orMinusOne(p.getQuestionId())));
+        rows.forEach(p -> out.putInt(p.getFrontendQuestionId() == null ? -1 : p.getFrontendQuestionId()));
+        rows.forEach(p -> out.put((byte) (p.getDifficultyLevel() == null ? 0 : p.getDifficultyLevel())));
+        rows.forEach(p -> out.putLong(orMinusOne(p.getTotalAccepted())));
+        rows.forEach(p -> out.putLong(orMinusOne(p.getTotalSubmitted())));
+        rows.forEach(p -> out.putDouble(p.getAcRate() == null ? Double.NaN : p.getAcRate()));
+
+        List<Integer> ids = new ArrayList<>(tagRefs);
+        for (CatalogProblem problem : rows) {
+            out.putInt(ids.size());
+            if (problem.getTopicTags() != null) {
+                for (CatalogProblem.Tag tag : problem.getTopicTags()) {
+                    String key = tag.getSlug() != null ? tag.getSlug() : tag.getName();
+                    if (key != null) {
+                        ids.add(tagIds.get(key));
+                    }
+                }
+            }
+        }
+        out.putInt(ids.size());
+        ids.forEach(id -> out.putShort(id.shortValue()));
+        return out.array();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getTagCount() {
+        return tagNames.length;
+    }
+
+    /**
+     * @return the problem id for the slug, or -1 when the snapshot does not contain it
+     */
+    public int indexOf(String titleSlug) {
+        byte[] key = titleSlug.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareSlug(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String titleSlug) {
+        return indexOf(titleSlug) >= 0;
+    }
+
+    public String getTitleSlug(int id) {
+        int start = buffer.getInt(slugOffsetsAt + 4 * id);
+        int end = buffer.getInt(slugOffsetsAt + 4 * (id + 1));
+        return readString(slugBytesAt + start, end - start);
+    }
+
+    public long getQuestionId(int id) {
+        return buffer.getLong(questionIdAt + 8 * id);
+    }
+
+    public int getFrontendQuestionId(int id) {
+        return buffer.getInt(frontendIdAt + 4 * id);
+    }
+
+    /**
+     * @return 1 (Easy), 2 (Medium), 3 (Hard), or 0 when unknown
+     */
+    public int getDifficultyLevel(int id) {
+        return buffer.get(difficultyAt + id);
+    }
+
+    public long getTotalAccepted(int id) {
+        return buffer.getLong(totalAcceptedAt + 8 * id);
+    }
+
+    public long getTotalSubmitted(int id) {
+        return buffer.getLong(totalSubmittedAt + 8 * id);
+    }
+
+    /**
+     * @return acceptance rate in percent, or NaN when unknown
+     */
+    public double getAcRate(int id) {
+        return buffer.getDouble(acRateAt + 8 * id);
+    }
+
+    public int getTagCount(int id) {
+        return buffer.getInt(tagOffsetsAt + 4 * (id + 1)) - buffer.getInt(tagOffsetsAt + 4 * id);
+    }
+
+    /**
+     * @return dictionary id of the problem's k-th tag
+     */
+    public int getTagId(int id, int k) {
+        return buffer.getShort(tagIdsAt + 2 * (buffer.getInt(tagOffsetsAt + 4 * id) + k));
+    }
+
+    public String getTagName(int tagId) {
+        return tagNames[tagId];
+    }
+
+    public String getTagSlug(int tagId) {
+        return tagSlugs[tagId];
+    }
+
+    public String[] getTagNames(int id) {
+        String[] names = new String[getTagCount(id)];
+        for (int k = 0; k < names.length; k++) {
+            names[k] = tagNames[getTagId(id, k)];
+        }
+        return names;
+    }
+
+    private int compareSlug(int id, byte[] key) {
+        int start = slugBytesAt + buffer.getInt(slugOffsetsAt + 4 * id);
+        int length = buffer.getInt(slugOffsetsAt + 4 * (id + 1)) - buffer.getInt(slugOffsetsAt + 4 * id);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.toUnsignedInt(buffer.get(start + i)) - Byte.toUnsignedInt(key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long orMinusOne(Long value) {
+        return value == null ? -1 : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
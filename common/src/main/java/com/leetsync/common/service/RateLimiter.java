@@ -0,0 +1,93 @@
+package com.leetsync.common.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket whose refill rate adapts with AIMD: every successful response adds
+ * a fixed step, every throttle (429/503) halves the rate and honours Retry-After
+ * by pausing all callers. Shared by every thread using one LeetCodeClient.
+ */
+public class RateLimiter {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double increaseStep;
+    private final double decreaseFactor;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    public RateLimiter(double initialRate, double minRate, double maxRate) {
+        this(initialRate, minRate, maxRate, 0.5, 0.5);
+    }
+
+    public RateLimiter(double initialRate, double minRate, double maxRate, double increaseStep, double decreaseFactor) {
+        if (minRate <= 0 || minRate > maxRate || initialRate < minRate || initialRate > maxRate) {
+            throw new IllegalArgumentException("Rates must satisfy 0 < min <= initial <= max");
+        }
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.increaseStep = increaseStep;
+        this.decreaseFactor = decreaseFactor;
+        this.rate = initialRate;
+        this.tokens = capacity();
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a request may be sent
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = reserve()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + increaseStep);
+    }
+
+    /**
+     * Multiplicative decrease; retryAfter (nullable) pauses every caller until it elapses
+     */
+    public synchronized void onThrottle(Duration retryAfter) {
+        refill(System.nanoTime());
+        rate = Math.max(minRate, rate * decreaseFactor);
+        tokens = Math.min(tokens, capacity());
+        if (retryAfter != null && !retryAfter.isNegative()) {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + retryAfter.toNanos());
+        }
+    }
+
+    public synchronized double getCurrentRate() {
+        return rate;
+    }
+
+    // Takes a token and returns 0, or returns how long to wait before trying again
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        if (now < pausedUntilNanos) {
+            return pausedUntilNanos - now;
+        }
+        refill(now);
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+        return Math.max(1, (long) ((1.0 - tokens) / rate * 1_000_000_000L));
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity(), tokens + (now - lastRefillNanos) / 1_000_000_000.0 * rate);
+        lastRefillNanos = now;
+    }
+
+    // Allow bursts of up to one second's worth of requests
+    private double capacity() {
+        return Math.max(1.0, rate);
+    }
+}
@@ -0,0 +1,58 @@
+package com.leetsync.common.service;
+
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class S3CatalogSnapshotStore implements CatalogSnapshotStore {
+
+    private final S3Client s3Client;
+    private final String bucketName;
+
+    public S3CatalogSnapshotStore(S3Client s3Client, String bucketName) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType("application/octet-stream")
+                .build();
+        s3Client.putObject(putRequest, RequestBody.fromBytes(content));
+    }
+
+    @Override
+    public byte[] get(String key) {
+        try {
+            ResponseBytes<GetObjectResponse> object = s3Client.getObject(request(key), ResponseTransformer.toBytes());
+            return object.asByteArray();
+        } catch (NoSuchKeyException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void download(String key, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        s3Client.getObject(request(key), ResponseTransformer.toFile(target));
+    }
+
+    private GetObjectRequest request(String key) {
+        return GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.leetsync.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps the newest published snapshot (problem catalog, tag index) for a warm process.
+ * The loader is re-run at most every refresh interval, so files from later scans are picked up
+ * without a restart; a failed or empty load keeps serving the copy already held.
+ */
+public class SnapshotRefresher<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRefresher.class);
+
+    /**
+     * Loads the latest published snapshot, e.g. {@code ProblemCatalogSnapshot.load(store, cacheDir)}
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * @return the latest snapshot, or null when none has been published
+         */
+        T load() throws IOException;
+    }
+
+    private final String name;
+    private final Loader<T> loader;
+    private final long refreshIntervalNanos;
+    private volatile T snapshot;
+    private volatile long checkedAtNanos;
+    private volatile boolean checked;
+
+    /**
+     * @param name used in logs only
+     */
+    public SnapshotRefresher(String name, Loader<T> loader, Duration refreshInterval) {
+        this.name = name;
+        this.loader = loader;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * @return the newest snapshot seen, or null when none has been published or loaded yet
+     */
+    public T current() {
+        if (checked && System.nanoTime() - checkedAtNanos < refreshIntervalNanos) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (checked && System.nanoTime() - checkedAtNanos < refreshIntervalNanos) {
+                return snapshot;
+            }
+            try {
+                T latest = loader.load();
+                if (latest != null) {
+                    snapshot = latest;
+                }
+            } catch (Exception e) {
+                // Keep serving the copy we have; try again after the next interval
+                log.warn("Failed to refresh {}, keeping the current copy: {}", name, e.getMessage());
+            }
+            checkedAtNanos = System.nanoTime();
+            checked = true;
+            return snapshot;
+        }
+    }
+}
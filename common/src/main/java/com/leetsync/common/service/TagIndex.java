@@ -0,0 +1,362 @@
+package com.leetsync.common.service;
+
+import com.leetsync.common.model.CatalogProblem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Inverted index from topic tag slug to the sorted questionIds carrying that tag, partitioned by difficulty.
+ * questionIds are LeetCode's own and stable across scans, unlike catalog snapshot row ids.
+ *
+ * <p>Layout (big-endian):
+ * <pre>
+ * int magic, int formatVersion, long version, int problemCount, int tagCount
+ * int[n] questionIds (ascending), int[n+1] slugOffsets, byte[] slugBytes      -- problem directory
+ * tagCount x (short len, utf8 slug, short len, utf8 name)                     -- sorted by slug
+ * int[tagCount * 3 + 1] postingOffsets, int[] postings                        -- Easy, Medium, Hard per tag
+ * </pre>
+ *
+ * The problem scan writes the index and the API serves it; both use this class.
+ */
+public final class TagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TagIndex.class);
+
+    private static final int MAGIC = 0x4C535449; // "LSTI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+    public static final int DIFFICULTY_LEVELS = 3;
+
+    public static final String KEY_PREFIX = "tag-index/";
+    public static final String LATEST_KEY = KEY_PREFIX + "LATEST";
+
+    private final ByteBuffer buffer;
+    private final long version;
+    private final int problemCount;
+    private final String[] tagSlugs;
+    private final String[] tagNames;
+    private final Map<String, Integer> tagIds;
+    private final int questionIdsAt;
+    private final int slugOffsetsAt;
+    private final int slugBytesAt;
+    private final int postingOffsetsAt;
+    private final int postingsAt;
+
+    private TagIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a tag index");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported tag index format version " + formatVersion);
+        }
+        this.version = buffer.getLong(8);
+        this.problemCount = buffer.getInt(16);
+        int tagCount = buffer.getInt(20);
+
+        this.questionIdsAt = HEADER_BYTES;
+        this.slugOffsetsAt = questionIdsAt + 4 * problemCount;
+        this.slugBytesAt = slugOffsetsAt + 4 * (problemCount + 1);
+        int position = slugBytesAt + buffer.getInt(slugOffsetsAt + 4 * problemCount);
+
+        this.tagSlugs = new String[tagCount];
+        this.tagNames = new String[tagCount];
+        this.tagIds = new HashMap<>(tagCount * 2);
+        for (int i = 0; i < tagCount; i++) {
+            int slugLength = Short.toUnsignedInt(buffer.getShort(position));
+            tagSlugs[i] = readString(position + 2, slugLength);
+            position += 2 + slugLength;
+            int nameLength = Short.toUnsignedInt(buffer.getShort(position));
+            tagNames[i] = readString(position + 2, nameLength);
+            position += 2 + nameLength;
+            tagIds.put(tagSlugs[i], i);
+        }
+        this.postingOffsetsAt = position;
+        this.postingsAt = postingOffsetsAt + 4 * (tagCount * DIFFICULTY_LEVELS + 1);
+    }
+
+    public static TagIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TagIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static TagIndex wrap(byte[] content) {
+        return new TagIndex(ByteBuffer.wrap(content));
+    }
+
+    /**
+     * Fetches the newest published index into cacheDir (unless that version is already there) and maps it.
+     *
+     * @return the index, or null when none has been published yet
+     */
+    public static TagIndex load(CatalogSnapshotStore store, Path cacheDir) throws IOException {
+        byte[] latest = store.get(LATEST_KEY);
+        if (latest == null) {
+            return null;
+        }
+        long version = Long.parseLong(new String(latest, StandardCharsets.UTF_8).trim());
+        Path file = cacheDir.resolve("tag-index-v" + version + ".bin");
+        if (!Files.exists(file)) {
+            Files.createDirectories(cacheDir);
+            Path partial = Files.createTempFile(cacheDir, "tag-index-", ".part");
+            try {
+                store.download(keyFor(version), partial);
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+        TagIndex index = open(file);
+        log.info("Loaded tag index v{} covering {} problems and {} tags",
+                index.getVersion(), index.getProblemCount(), index.getTagCount());
+        return index;
+    }
+
+    /**
+     * Uploads the index under its versioned key, then points LATEST at it
+     */
+    public static void publish(CatalogSnapshotStore store, byte[] content) throws IOException {
+        long version = wrap(content).getVersion();
+        store.put(keyFor(version), content);
+        store.put(LATEST_KEY, Long.toString(version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String keyFor(long version) {
+        return KEY_PREFIX + "v" + version + ".bin";
+    }
+
+    /**
+     * Builds the index from the full catalog. Problems without a questionId or slug are left out; tags are keyed
+     * by slug, falling back to the name for tags stored without one.
+     */
+    public static byte[] encode(Collection<? extends CatalogProblem> catalog, long version) {
+        TreeMap<Integer, String> directory = new TreeMap<>();
+        TreeMap<String, String> names = new TreeMap<>();
+        Map<String, List<TreeSet<Integer>>> postings = new HashMap<>();
+        for (CatalogProblem problem : catalog) {
+            if (problem.getQuestionId() == null || problem.getTitleSlug() == null) {
+                continue;
+            }
+            int questionId = Math.toIntExact(problem.getQuestionId());
+            directory.put(questionId, problem.getTitleSlug());
+            Integer level = problem.getDifficultyLevel();
+            if (problem.getTopicTags() == null || level == null || level < 1 || level > DIFFICULTY_LEVELS) {
+                continue;
+            }
+            for (CatalogProblem.Tag tag : problem.getTopicTags()) {
+                String slug = tag.getSlug() != null ? tag.getSlug() : tag.getName();
+                if (slug == null) {
+                    continue;
+                }
+                names.putIfAbsent(slug, tag.getName() == null ? slug : tag.getName());
+                postings.computeIfAbsent(slug, s -> {
+                    List<TreeSet<Integer>> byLevel = new ArrayList<>(DIFFICULTY_LEVELS);
+                    for (int d = 0; d < DIFFICULTY_LEVELS; d++) {
+                        byLevel.add(new TreeSet<>());
+                    }
+                    return byLevel;
+                }).get(level - 1).add(questionId);
+            }
+        }
+
+        int n = directory.size();
+        List<byte[]> slugs = new ArrayList<>(n);
+        directory.values().forEach(slug -> slugs.add(slug.getBytes(StandardCharsets.UTF_8)));
+        List<byte[]> tagEntries = new ArrayList<>(names.size() * 2);
+        names.forEach((slug, name) -> {
+            tagEntries.add(slug.getBytes(StandardCharsets.UTF_8));
+            tagEntries.add(name.getBytes(StandardCharsets.UTF_8));
+        });
+        int postingCount = postings.values().stream()
+                .flatMap(List::stream)
+                .mapToInt(Set::size)
+                .sum();
+
+        int capacity = HEADER_BYTES + 4 * n + 4 * (n + 1) + slugs.stream().mapToInt(s -> s.length).sum()
+                + tagEntries.stream().mapToInt(s -> 2 + s.length).sum()
+                + 4 * (names.size() * DIFFICULTY_LEVELS + 1) + 4 * postingCount;
+        ByteBuffer out = ByteBuffer.allocate(capacity);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(version).putInt(n).putInt(names.size());
+        directory.keySet().forEach(out::putInt);
+        int offset = 0;
+        for (byte[] slug : slugs) {
+            out.putInt(offset);
+            offset += slug.length;
+        }
+        out.putInt(offset);
+        slugs.forEach(out::put);
+        for (byte[] entry : tagEntries) {
+            out.putShort((short) entry.length).put(entry);
+        }
+        int postingOffset = 0;
+        for (String slug : names.keySet()) {
+            for (TreeSet<Integer> ids : postings.get(slug)) {
+                out.putInt(postingOffset);
+                postingOffset += ids.size();
+            }
+        }
+        out.putInt(postingOffset);
+        for (String slug : names.keySet()) {
+            for (TreeSet<Integer> ids : postings.get(slug)) {
+                ids.forEach(out::putInt);
+            }
+        }
+        return out.array();
+    }
+
+    /**
+     * Tags whose postings differ from previous in any difficulty, including tags added or dropped since
+     */
+    public Set<String> changedTags(TagIndex previous) {
+        Set<String> changed = new TreeSet<>();
+        for (String slug : tagSlugs) {
+            if (previous == null || !previous.hasTag(slug)) {
+                changed.add(slug);
+                continue;
+            }
+            for (int level = 1; level <= DIFFICULTY_LEVELS; level++) {
+                if (!Arrays.equals(getProblemIds(slug, level), previous.getProblemIds(slug, level))) {
+                    changed.add(slug);
+                    break;
+                }
+            }
+        }
+        if (previous != null) {
+            for (String slug : previous.tagSlugs) {
+                if (!hasTag(slug)) {
+                    changed.add(slug);
+                }
+            }
+        }
+        return changed;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getProblemCount() {
+        return problemCount;
+    }
+
+    public int getTagCount() {
+        return tagSlugs.length;
+    }
+
+    public List<String> getTagSlugs() {
+        return List.of(tagSlugs);
+    }
+
+    public boolean hasTag(String tagSlug) {
+        return tagIds.containsKey(tagSlug);
+    }
+
+    public String getTagName(String tagSlug) {
+        Integer tagId = tagIds.get(tagSlug);
+        return tagId == null ? null : tagNames[tagId];
+    }
+
+    /**
+     * @param difficultyLevel 1 (Easy), 2 (Medium) or 3 (Hard)
+     * @return ascending questionIds, empty for an unknown tag
+     */
+    public int[] getProblemIds(String tagSlug, int difficultyLevel) {
+        Integer tagId = tagIds.get(tagSlug);
+        if (tagId == null || difficultyLevel < 1 || difficultyLevel > DIFFICULTY_LEVELS) {
+            return new int[0];
+        }
+        int slot = tagId * DIFFICULTY_LEVELS + difficultyLevel - 1;
+        int start = buffer.getInt(postingOffsetsAt + 4 * slot);
+        int end = buffer.getInt(postingOffsetsAt + 4 * (slot + 1));
+        int[] ids = new int[end - start];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getInt(postingsAt + 4 * (start + i));
+        }
+        return ids;
+    }
+
+    /**
+     * All difficulties merged, ascending
+     */
+    public int[] getProblemIds(String tagSlug) {
+        int[] merged = new int[0];
+        for (int level = 1; level <= DIFFICULTY_LEVELS; level++) {
+            merged = merge(merged, getProblemIds(tagSlug, level));
+        }
+        return merged;
+    }
+
+    public int getProblemCount(String tagSlug, int difficultyLevel) {
+        Integer tagId = tagIds.get(tagSlug);
+        if (tagId == null || difficultyLevel < 1 || difficultyLevel > DIFFICULTY_LEVELS) {
+            return 0;
+        }
+        int slot = tagId * DIFFICULTY_LEVELS + difficultyLevel - 1;
+        return buffer.getInt(postingOffsetsAt + 4 * (slot + 1)) - buffer.getInt(postingOffsetsAt + 4 * slot);
+    }
+
+    /**
+     * @return the problem's slug, or null when the questionId is not in the index
+     */
+    public String getTitleSlug(int questionId) {
+        int low = 0;
+        int high = problemCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = buffer.getInt(questionIdsAt + 4 * mid);
+            if (midId < questionId) {
+                low = mid + 1;
+            } else if (midId > questionId) {
+                high = mid - 1;
+            } else {
+                int start = buffer.getInt(slugOffsetsAt + 4 * mid);
+                int end = buffer.getInt(slugOffsetsAt + 4 * (mid + 1));
+                return readString(slugBytesAt + start, end - start);
+            }
+        }
+        return null;
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        int[] merged = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            merged[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        while (i < a.length) {
+            merged[k++] = a[i++];
+        }
+        while (j < b.length) {
+            merged[k++] = b[j++];
+        }
+        return merged;
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
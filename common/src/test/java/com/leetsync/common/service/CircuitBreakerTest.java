@@ -0,0 +1,61 @@
+package com.leetsync.common.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterThresholdAndLetsOneTrialThroughAfterCooldown() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMillis(20));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(30);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(), "only one trial request while half-open");
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getOpenCount());
+    }
+
+    @Test
+    void failedTrialReopensImmediately() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(10));
+        breaker.onFailure();
+        Thread.sleep(20);
+
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(2, breaker.getOpenCount());
+    }
+
+    @Test
+    void releasedTrialLetsTheNextRequestProbe() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(10));
+        breaker.onFailure();
+        Thread.sleep(20);
+
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        breaker.releaseTrial();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
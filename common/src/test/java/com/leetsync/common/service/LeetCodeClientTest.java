@@ -0,0 +1,180 @@
+package com.leetsync.common.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeetCodeClientTest {
+
+    private static final String RESPONSE = """
+            {"data":{"recentAcSubmissionList":[
+              {"title":"Two Sum","titleSlug":"two-sum","timestamp":"1720000000","runtime":"0 ms","memory":"19.1 MB"}
+            ]}}
+            """;
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    // Status codes to answer with before falling back to 200
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private volatile String retryAfter = "0";
+
+    @BeforeEach
+    void startMockGraphQlServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql/", exchange -> {
+            // Each distinct client port is a distinct TCP connection
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getRequestBody().readAllBytes();
+            Integer failure = failures.poll();
+            if (failure != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+                exchange.sendResponseHeaders(failure, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void sharedClient_reusesOneConnectionAcrossRequests() throws Exception {
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        for (int i = 0; i < 5; i++) {
+            HttpResponse<String> response = client.postJson(graphqlUri(), "{\"user\":\"user" + i + "\"}");
+            assertEquals(RESPONSE, response.body());
+        }
+
+        assertEquals(5, client.getRequestCount());
+        assertEquals(5L * RESPONSE.getBytes(StandardCharsets.UTF_8).length, client.getBytesReceived());
+        assertEquals(1, clientPorts.size(), "expected a single pooled connection, saw " + clientPorts);
+        // Plain HTTP against the mock server never negotiates TLS
+        assertEquals(0, client.getTlsHandshakeCount());
+    }
+
+    @Test
+    void postJson_reportsEachRequestsBytesToItsOwnListener() throws Exception {
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        AtomicLong first = new AtomicLong();
+        AtomicLong second = new AtomicLong();
+
+        client.postJson(graphqlUri(), "{}", HttpResponse.BodyHandlers.ofString(), first::addAndGet);
+        client.postJson(graphqlUri(), "{}", HttpResponse.BodyHandlers.ofString(), second::addAndGet);
+        client.postJson(graphqlUri(), "{}", HttpResponse.BodyHandlers.ofString(), second::addAndGet);
+
+        long bodyBytes = RESPONSE.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(bodyBytes, first.get());
+        assertEquals(2 * bodyBytes, second.get());
+        assertEquals(3 * bodyBytes, client.getBytesReceived());
+    }
+
+    @Test
+    void send_retriesThrottledResponsesAndBacksOffTheRate() throws Exception {
+        RateLimiter limiter = new RateLimiter(8, 1, 8);
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                limiter, new CircuitBreaker(10, Duration.ofSeconds(30)), 4, Duration.ofMillis(1));
+        failures.add(429);
+        failures.add(503);
+
+        assertEquals(200, client.postJson(graphqlUri(), "{}").statusCode());
+
+        assertEquals(3, client.getRequestCount());
+        assertEquals(2, client.getThrottleCount());
+        assertEquals(2, client.getRetryCount());
+        // Two halvings from 8, then one additive step on the final success
+        assertEquals(2.5, limiter.getCurrentRate(), 1e-9);
+    }
+
+    @Test
+    void send_returnsThrottleImmediatelyWhenRetryAfterExceedsTheCap() throws Exception {
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                new RateLimiter(8, 1, 8), new CircuitBreaker(10, Duration.ofSeconds(30)), 4, Duration.ofMillis(1));
+        retryAfter = "3600";
+        failures.add(429);
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.postJson(graphqlUri(), "{}");
+
+        assertEquals(429, response.statusCode());
+        assertEquals(1, client.getRequestCount());
+        assertEquals(1, client.getThrottleCount());
+        assertEquals(0, client.getRetryCount());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    void send_opensCircuitAfterRepeatedFailures() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                new RateLimiter(50, 1, 50), breaker, 2, Duration.ofMillis(1));
+        failures.add(500);
+        failures.add(500);
+
+        // Retries exhausted: the last failed response is handed back
+        assertEquals(500, client.postJson(graphqlUri(), "{}").statusCode());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        IOException error = assertThrows(IOException.class, () -> client.postJson(graphqlUri(), "{}"));
+        assertTrue(error.getMessage().contains("circuit breaker is open"), error.getMessage());
+        assertEquals(2, client.getRequestCount());
+        assertEquals(1, client.getRejectedCount());
+    }
+
+    @Test
+    void send_releasesTheHalfOpenTrialWhenInterrupted() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(10));
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                new RateLimiter(50, 1, 50), breaker, 2, Duration.ofMillis(1));
+        breaker.onFailure();
+        Thread.sleep(20);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedException.class, () -> client.postJson(graphqlUri(), "{}"));
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(200, client.postJson(graphqlUri(), "{}").statusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void parseRetryAfter_acceptsSecondsAndHttpDates() {
+        assertEquals(Duration.ofSeconds(7), LeetCodeClient.parseRetryAfter("7"));
+        assertEquals(Duration.ZERO, LeetCodeClient.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertNull(LeetCodeClient.parseRetryAfter("soon"));
+        assertNull(LeetCodeClient.parseRetryAfter(null));
+    }
+
+    private URI graphqlUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/graphql/");
+    }
+}
@@ -0,0 +1,118 @@
+package com.leetsync.common.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemCatalogSnapshotTest {
+
+    // Written by the problem-lambda encoder at FORMAT_VERSION 1 from goldenCatalog(); readers must keep accepting it
+    private static final String GOLDEN_FILE = "/problem-catalog-v1.bin";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void encode_roundTripsEveryColumnAndSharesTags() {
+        TestProblem twoSum = new TestProblem(1L, 1, "two-sum", 1000L, 2000L, 1, "Array", "array", "Hash Table", "hash-table");
+        TestProblem lru = new TestProblem(146L, 146, "lru-cache", 300L, 700L, 2, "Hash Table", "hash-table");
+        TestProblem bare = new TestProblem(null, null, "bare", null, null, null);
+        ProblemCatalogSnapshot snapshot = ProblemCatalogSnapshot.wrap(ProblemCatalogSnapshot.encode(List.of(twoSum, lru, bare), 7L));
+
+        assertEquals(7L, snapshot.getVersion());
+        assertEquals(3, snapshot.size());
+        assertEquals(2, snapshot.getTagCount());
+
+        int twoSumId = snapshot.indexOf("two-sum");
+        assertEquals("two-sum", snapshot.getTitleSlug(twoSumId));
+        assertEquals(1L, snapshot.getQuestionId(twoSumId));
+        assertEquals(1, snapshot.getFrontendQuestionId(twoSumId));
+        assertEquals(1000L, snapshot.getTotalAccepted(twoSumId));
+        assertEquals(2000L, snapshot.getTotalSubmitted(twoSumId));
+        assertEquals(1, snapshot.getDifficultyLevel(twoSumId));
+        assertEquals(50.0, snapshot.getAcRate(twoSumId), 1e-9);
+        assertArrayEquals(new String[]{"Array", "Hash Table"}, snapshot.getTagNames(twoSumId));
+        assertEquals("hash-table", snapshot.getTagSlug(snapshot.getTagId(twoSumId, 1)));
+
+        int lruId = snapshot.indexOf("lru-cache");
+        assertArrayEquals(new String[]{"Hash Table"}, snapshot.getTagNames(lruId));
+        // Tag names come from the dictionary, so every problem shares one String per tag
+        assertSame(snapshot.getTagNames(twoSumId)[1], snapshot.getTagNames(lruId)[0]);
+
+        int bareId = snapshot.indexOf("bare");
+        assertEquals(-1L, snapshot.getQuestionId(bareId));
+        assertEquals(-1, snapshot.getFrontendQuestionId(bareId));
+        assertEquals(0, snapshot.getDifficultyLevel(bareId));
+        assertTrue(Double.isNaN(snapshot.getAcRate(bareId)));
+        assertEquals(0, snapshot.getTagCount(bareId));
+
+        assertEquals(-1, snapshot.indexOf("missing"));
+        assertFalse(snapshot.contains("missing"));
+    }
+
+    @Test
+    void indexOf_findsEverySlugInALargeCatalog() {
+        List<TestProblem> problems = IntStream.range(0, 500)
+                .mapToObj(i -> new TestProblem((long) i, i, "problem-" + i + (i % 5 == 0 ? "-ü" : ""), 1L, 2L, 1 + i % 3))
+                .toList();
+        ProblemCatalogSnapshot snapshot = ProblemCatalogSnapshot.wrap(ProblemCatalogSnapshot.encode(problems, 1L));
+
+        for (TestProblem problem : problems) {
+            int id = snapshot.indexOf(problem.getTitleSlug());
+            assertTrue(id >= 0, problem.getTitleSlug());
+            assertEquals(problem.getQuestionId(), snapshot.getQuestionId(id));
+        }
+    }
+
+    @Test
+    void load_mapsTheLatestPublishedVersionFromTheStore() throws Exception {
+        FileCatalogSnapshotStore store = new FileCatalogSnapshotStore(tempDir.resolve("bucket"));
+        Path cacheDir = tempDir.resolve("cache");
+        assertNull(ProblemCatalogSnapshot.load(store, cacheDir));
+
+        ProblemCatalogSnapshot.publish(store, ProblemCatalogSnapshot.encode(
+                List.of(new TestProblem(1L, 1, "two-sum", 1L, 2L, 1)), 1L));
+        ProblemCatalogSnapshot.publish(store, ProblemCatalogSnapshot.encode(
+                List.of(new TestProblem(1L, 1, "two-sum", 1L, 2L, 1), new TestProblem(2L, 2, "add-two-numbers", 1L, 3L, 2)), 2L));
+
+        ProblemCatalogSnapshot snapshot = ProblemCatalogSnapshot.load(store, cacheDir);
+        assertEquals(2L, snapshot.getVersion());
+        assertTrue(snapshot.contains("add-two-numbers"));
+        assertTrue(Files.exists(tempDir.resolve("bucket").resolve(ProblemCatalogSnapshot.keyFor(1L))));
+        assertTrue(Files.exists(cacheDir.resolve("problem-catalog-v2.bin")));
+    }
+
+    @Test
+    void encode_matchesThePublishedFormatByteForByte() throws Exception {
+        byte[] golden;
+        try (InputStream in = getClass().getResourceAsStream(GOLDEN_FILE)) {
+            assertNotNull(in, GOLDEN_FILE);
+            golden = in.readAllBytes();
+        }
+
+        assertArrayEquals(golden, ProblemCatalogSnapshot.encode(goldenCatalog(), 7L),
+                "snapshot layout changed; bump FORMAT_VERSION and add a new golden file");
+
+        Path file = tempDir.resolve("golden.bin");
+        Files.write(file, golden);
+        ProblemCatalogSnapshot snapshot = ProblemCatalogSnapshot.open(file);
+        assertEquals(7L, snapshot.getVersion());
+        assertEquals(146L, snapshot.getQuestionId(snapshot.indexOf("lru-cache")));
+    }
+
+    private static List<TestProblem> goldenCatalog() {
+        TestProblem twoSum = new TestProblem(1L, 1, "two-sum", 1000L, 2000L, 1, "Array", "array", "Hash Table", "hash-table");
+        TestProblem lru = new TestProblem(146L, 146, "lru-cache", 300L, 700L, 2, "Hash Table", "hash-table");
+        TestProblem bare = new TestProblem(null, null, "bare", null, null, null);
+        // problem-lambda's model reports 0.0 rather than null when the totals are unknown
+        bare.setAcRate(0.0);
+        return List.of(twoSum, lru, bare);
+    }
+}
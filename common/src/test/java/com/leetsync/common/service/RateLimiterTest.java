@@ -0,0 +1,51 @@
+package com.leetsync.common.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void acquire_throttlesToConfiguredRateAfterBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(20, 1, 20);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 30; i++) {
+            limiter.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 20 burst tokens, then 10 more at 20/s take roughly 500 ms
+        assertTrue(elapsedMillis >= 400, "elapsed " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void aimd_increasesAdditivelyAndDecreasesMultiplicatively() {
+        RateLimiter limiter = new RateLimiter(4, 1, 5, 0.5, 0.5);
+
+        limiter.onSuccess();
+        limiter.onSuccess();
+        limiter.onSuccess();
+        assertEquals(5.0, limiter.getCurrentRate(), 1e-9);
+
+        limiter.onThrottle(null);
+        assertEquals(2.5, limiter.getCurrentRate(), 1e-9);
+        limiter.onThrottle(null);
+        limiter.onThrottle(null);
+        assertEquals(1.0, limiter.getCurrentRate(), 1e-9);
+    }
+
+    @Test
+    void onThrottle_retryAfterPausesCallers() throws Exception {
+        RateLimiter limiter = new RateLimiter(100, 1, 100);
+        limiter.onThrottle(Duration.ofMillis(150));
+
+        long start = System.nanoTime();
+        limiter.acquire();
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 140);
+    }
+}
@@ -0,0 +1,67 @@
+package com.leetsync.common.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotRefresherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void current_picksUpANewSnapshotOnlyAfterTheInterval() throws Exception {
+        FileCatalogSnapshotStore store = new FileCatalogSnapshotStore(tempDir.resolve("bucket"));
+        Path cacheDir = tempDir.resolve("cache");
+        SnapshotRefresher<ProblemCatalogSnapshot> cached = new SnapshotRefresher<>("problem catalog",
+                () -> ProblemCatalogSnapshot.load(store, cacheDir), Duration.ofMinutes(10));
+        SnapshotRefresher<ProblemCatalogSnapshot> refreshing = new SnapshotRefresher<>("problem catalog",
+                () -> ProblemCatalogSnapshot.load(store, cacheDir), Duration.ZERO);
+        assertNull(cached.current());
+
+        ProblemCatalogSnapshot.publish(store, ProblemCatalogSnapshot.encode(List.of(problem("two-sum")), 1L));
+        assertNull(cached.current(), "LATEST was missing at the last check");
+        assertEquals(1L, refreshing.current().getVersion());
+
+        ProblemCatalogSnapshot.publish(store, ProblemCatalogSnapshot.encode(List.of(problem("two-sum"), problem("3sum")), 2L));
+        ProblemCatalogSnapshot latest = refreshing.current();
+        assertEquals(2L, latest.getVersion());
+        assertTrue(latest.contains("3sum"));
+    }
+
+    @Test
+    void current_keepsTheCurrentCopyWhenARefreshFailsOrFindsNothing() {
+        AtomicInteger loads = new AtomicInteger();
+        SnapshotRefresher<String> refresher = new SnapshotRefresher<>("test snapshot", () -> switch (loads.incrementAndGet()) {
+            case 1 -> "v1";
+            case 2 -> throw new IOException("store unavailable");
+            default -> null;
+        }, Duration.ZERO);
+
+        assertEquals("v1", refresher.current());
+        assertEquals("v1", refresher.current());
+        assertEquals("v1", refresher.current());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void current_loadsOnceWithinTheInterval() {
+        AtomicInteger loads = new AtomicInteger();
+        SnapshotRefresher<Integer> refresher = new SnapshotRefresher<>("test snapshot", loads::incrementAndGet, Duration.ofMinutes(10));
+
+        assertEquals(1, refresher.current());
+        assertEquals(1, refresher.current());
+        assertEquals(1, loads.get());
+    }
+
+    private static TestProblem problem(String titleSlug) {
+        return new TestProblem(1L, 1, titleSlug, 1000L, 2000L, 1, "Array", "array");
+    }
+}
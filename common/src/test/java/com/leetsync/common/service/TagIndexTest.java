@@ -0,0 +1,98 @@
+package com.leetsync.common.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void encode_partitionsPostingsByDifficultyInQuestionIdOrder() {
+        TagIndex index = TagIndex.wrap(TagIndex.encode(catalog(), 5L));
+
+        assertEquals(5L, index.getVersion());
+        assertEquals(4, index.getProblemCount());
+        assertEquals(List.of("array", "hash-table", "linked-list"), index.getTagSlugs());
+        assertEquals("Hash Table", index.getTagName("hash-table"));
+
+        assertArrayEquals(new int[]{1, 217}, index.getProblemIds("array", 1));
+        assertArrayEquals(new int[]{}, index.getProblemIds("array", 2));
+        assertArrayEquals(new int[]{1, 146}, index.getProblemIds("hash-table"));
+        assertEquals(1, index.getProblemCount("hash-table", 2));
+
+        assertEquals("lru-cache", index.getTitleSlug(146));
+        assertEquals("untagged", index.getTitleSlug(9));
+        assertNull(index.getTitleSlug(2));
+    }
+
+    @Test
+    void lookups_onUnknownTagsAndLevelsAreEmpty() {
+        TagIndex index = TagIndex.wrap(TagIndex.encode(catalog(), 5L));
+
+        assertFalse(index.hasTag("graph"));
+        assertNull(index.getTagName("graph"));
+        assertArrayEquals(new int[]{}, index.getProblemIds("graph"));
+        assertArrayEquals(new int[]{}, index.getProblemIds("array", 4));
+        assertEquals(0, index.getProblemCount("array", 0));
+    }
+
+    @Test
+    void encode_skipsProblemsWithoutIdAndKeysSluglessTagsByName() {
+        TestProblem noId = new TestProblem(null, null, "no-id", 1L, 2L, 1, "Array", "array");
+        TestProblem noLevel = new TestProblem(3L, 3, "no-level", 1L, 2L, null, "Array", "array");
+        TestProblem sluglessTag = new TestProblem(4L, 4, "legacy", 1L, 2L, 3, "Math", null);
+        TagIndex index = TagIndex.wrap(TagIndex.encode(List.of(noId, noLevel, sluglessTag), 1L));
+
+        assertEquals(2, index.getProblemCount());
+        assertFalse(index.hasTag("array"), "problems without a difficulty are in the directory but not the postings");
+        assertArrayEquals(new int[]{4}, index.getProblemIds("Math", 3));
+    }
+
+    @Test
+    void changedTags_reportsAddedRemovedAndMovedPostings() {
+        TagIndex previous = TagIndex.wrap(TagIndex.encode(catalog(), 1L));
+        TagIndex same = TagIndex.wrap(TagIndex.encode(catalog(), 2L));
+        assertEquals(Set.of(), same.changedTags(previous));
+
+        List<TestProblem> next = List.of(
+                new TestProblem(1L, 1, "two-sum", 1L, 2L, 2, "Array", "array", "Hash Table", "hash-table"),
+                new TestProblem(217L, 217, "contains-duplicate", 1L, 2L, 1, "Array", "array"),
+                new TestProblem(200L, 200, "number-of-islands", 1L, 2L, 2, "Graph", "graph"));
+        TagIndex current = TagIndex.wrap(TagIndex.encode(next, 3L));
+
+        // two-sum moved from Easy to Medium under both tags; linked-list dropped out; graph is new
+        assertEquals(Set.of("array", "hash-table", "linked-list", "graph"), current.changedTags(previous));
+        assertEquals(Set.of("array", "hash-table", "graph"), current.changedTags(null));
+    }
+
+    @Test
+    void load_mapsTheLatestPublishedIndex() throws Exception {
+        FileCatalogSnapshotStore store = new FileCatalogSnapshotStore(tempDir.resolve("bucket"));
+        Path cacheDir = tempDir.resolve("cache");
+        assertNull(TagIndex.load(store, cacheDir));
+
+        TagIndex.publish(store, TagIndex.encode(catalog(), 8L));
+
+        TagIndex index = TagIndex.load(store, cacheDir);
+        assertEquals(8L, index.getVersion());
+        assertArrayEquals(new int[]{146}, index.getProblemIds("linked-list", 2));
+        assertTrue(Files.exists(cacheDir.resolve("tag-index-v8.bin")));
+    }
+
+    private static List<TestProblem> catalog() {
+        return List.of(
+                new TestProblem(1L, 1, "two-sum", 1L, 2L, 1, "Array", "array", "Hash Table", "hash-table"),
+                new TestProblem(146L, 146, "lru-cache", 1L, 2L, 2, "Hash Table", "hash-table", "Linked List", "linked-list"),
+                new TestProblem(217L, 217, "contains-duplicate", 1L, 2L, 1, "Array", "array"),
+                new TestProblem(9L, 9, "untagged", 1L, 2L, 1));
+    }
+}
@@ -0,0 +1,71 @@
+package com.leetsync.common.service;
+
+import com.leetsync.common.model.CatalogProblem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal CatalogProblem for format tests; tags are given as name, slug pairs
+ */
+class TestProblem implements CatalogProblem {
+
+    private final Long questionId;
+    private final Integer frontendQuestionId;
+    private final String titleSlug;
+    private final Long totalAccepted;
+    private final Long totalSubmitted;
+    private final Integer difficultyLevel;
+    private Double acRate;
+    private final List<Tag> topicTags = new ArrayList<>();
+
+    TestProblem(Long questionId, Integer frontendQuestionId, String titleSlug, Long totalAccepted,
+                Long totalSubmitted, Integer difficultyLevel, String... tagNameSlugPairs) {
+        this.questionId = questionId;
+        this.frontendQuestionId = frontendQuestionId;
+        this.titleSlug = titleSlug;
+        this.totalAccepted = totalAccepted;
+        this.totalSubmitted = totalSubmitted;
+        this.difficultyLevel = difficultyLevel;
+        if (totalAccepted != null && totalSubmitted != null && totalSubmitted != 0) {
+            this.acRate = (double) totalAccepted / totalSubmitted * 100;
+        }
+        for (int i = 0; i < tagNameSlugPairs.length; i += 2) {
+            String name = tagNameSlugPairs[i];
+            String slug = tagNameSlugPairs[i + 1];
+            topicTags.add(new Tag() {
+                @Override
+                public String getName() { return name; }
+
+                @Override
+                public String getSlug() { return slug; }
+            });
+        }
+    }
+
+    @Override
+    public Long getQuestionId() { return questionId; }
+
+    @Override
+    public Integer getFrontendQuestionId() { return frontendQuestionId; }
+
+    @Override
+    public String getTitleSlug() { return titleSlug; }
+
+    @Override
+    public Long getTotalAccepted() { return totalAccepted; }
+
+    @Override
+    public Long getTotalSubmitted() { return totalSubmitted; }
+
+    @Override
+    public Integer getDifficultyLevel() { return difficultyLevel; }
+
+    @Override
+    public Double getAcRate() { return acRate; }
+
+    void setAcRate(Double acRate) { this.acRate = acRate; }
+
+    @Override
+    public List<Tag> getTopicTags() { return topicTags; }
+}
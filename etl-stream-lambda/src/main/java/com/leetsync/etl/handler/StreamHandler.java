@@ -3,25 +3,38 @@ package com.leetsync.etl.handler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
-import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.leetsync.common.service.CatalogSnapshotStore;
+import com.leetsync.common.service.FileCatalogSnapshotStore;
+import com.leetsync.common.service.ProblemCatalogSnapshot;
+import com.leetsync.common.service.S3CatalogSnapshotStore;
+import com.leetsync.common.service.SnapshotRefresher;
 import com.leetsync.etl.model.AcSubmissionRecord;
+import com.leetsync.etl.model.Problem;
 import com.leetsync.etl.service.ParquetFileWriter;
+import com.leetsync.etl.service.ProblemCache;
 import com.leetsync.etl.service.ProblemService;
 import com.leetsync.etl.service.S3Service;
-import com.leetsync.etl.model.Problem;
+import com.leetsync.etl.service.SubmissionBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.s3.S3Client;
 
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 public class StreamHandler implements RequestHandler<DynamodbEvent, String> {
     
     private static final Logger log = LoggerFactory.getLogger(StreamHandler.class);
+
+    // The catalog is ~3.5k problems, so the default holds all of it
+    private static final int DEFAULT_PROBLEM_CACHE_MAX_ENTRIES = 4096;
+    private static final int DEFAULT_PROBLEM_CACHE_TTL_MINUTES = 60;
+    // Same cadence as the API's tag index; the scan publishes far less often than this
+    private static final int DEFAULT_CATALOG_REFRESH_MINUTES = 10;
     
     private final ProblemService problemService;
     private final ParquetFileWriter parquetWriter;
@@ -36,44 +49,60 @@ public class StreamHandler implements RequestHandler<DynamodbEvent, String> {
         String problemsTableName = System.getenv("PROBLEMS_TABLE_NAME");
         String bucketName = System.getenv("DEST_BUCKET");
         
-        this.problemService = new ProblemService(enhancedClient, problemsTableName);
+        ProblemCache problemCache = new ProblemCache(
+                intFromEnv("PROBLEM_CACHE_MAX_ENTRIES", DEFAULT_PROBLEM_CACHE_MAX_ENTRIES),
+                Duration.ofMinutes(intFromEnv("PROBLEM_CACHE_TTL_MINUTES", DEFAULT_PROBLEM_CACHE_TTL_MINUTES)).toMillis());
+        SnapshotRefresher<ProblemCatalogSnapshot> catalogSnapshots = catalogSnapshotRefresher();
+        this.problemService = new ProblemService(enhancedClient, dynamoClient, problemsTableName,
+                catalogSnapshots == null ? null : catalogSnapshots::current, problemCache);
         this.parquetWriter = new ParquetFileWriter();
         this.s3Service = new S3Service(S3Client.create(), bucketName);
     }
 
+    StreamHandler(ProblemService problemService, ParquetFileWriter parquetWriter, S3Service s3Service) {
+        this.problemService = problemService;
+        this.parquetWriter = parquetWriter;
+        this.s3Service = s3Service;
+    }
+
+    /**
+     * Tracks the catalog snapshot published by the problem scan, re-checking LATEST every
+     * CATALOG_REFRESH_MINUTES. Returns null (DynamoDB lookups only) when no store is configured.
+     */
+    private static SnapshotRefresher<ProblemCatalogSnapshot> catalogSnapshotRefresher() {
+        String bucket = System.getenv("CATALOG_BUCKET");
+        String dir = System.getenv("CATALOG_SNAPSHOT_DIR");
+        CatalogSnapshotStore store;
+        if (bucket != null && !bucket.isBlank()) {
+            store = new S3CatalogSnapshotStore(S3Client.create(), bucket);
+        } else if (dir != null && !dir.isBlank()) {
+            store = new FileCatalogSnapshotStore(Path.of(dir));
+        } else {
+            return null;
+        }
+        CatalogSnapshotStore source = store;
+        Path cacheDir = Path.of(System.getProperty("java.io.tmpdir"), "problem-catalog");
+        return new SnapshotRefresher<>("problem catalog", () -> ProblemCatalogSnapshot.load(source, cacheDir),
+                Duration.ofMinutes(intFromEnv("CATALOG_REFRESH_MINUTES", DEFAULT_CATALOG_REFRESH_MINUTES)));
+    }
+
     @Override
     public String handleRequest(DynamodbEvent event, Context context) {
         log.info("Processing {} DynamoDB stream records", event.getRecords().size());
         
-        List<AcSubmissionRecord> records = new ArrayList<>();
-        
-        for (DynamodbEvent.DynamodbStreamRecord streamRecord : event.getRecords()) {
-            try {
-                // Only process INSERT and MODIFY events
-                if (!"INSERT".equals(streamRecord.getEventName()) && 
-                    !"MODIFY".equals(streamRecord.getEventName())) {
-                    continue;
-                }
-                
-                AcSubmissionRecord record = parseAndEnrichRecord(streamRecord.getDynamodb().getNewImage());
-                if (record == null) {
-                    log.warn("Failed to parse and enrich record from stream");
-                    continue;
-                }
-                
-                records.add(record);
-                
-            } catch (Exception e) {
-                log.error("Error processing stream record: {}", e.getMessage());
-                // Continue processing other records
-            }
-        }
-        
-        if (records.isEmpty()) {
+        // Decode the whole batch first, then resolve each distinct problem once and join in bulk
+        SubmissionBatch batch = SubmissionBatch.decode(event.getRecords());
+        if (batch.isEmpty()) {
             log.info("No valid records to process");
             return "No records processed";
         }
         
+        Map<String, Problem> problems = problemService.getProblems(batch.getTitleSlugs());
+        List<AcSubmissionRecord> records = batch.join(problems);
+        
+        log.info("Enriched {} records from {} distinct problems; {}", records.size(),
+                batch.getTitleSlugs().size(), problemService.statsSummary());
+        
         try {
             // Write to Parquet file
             String tempFilePath = parquetWriter.writeToTempFile(records);
@@ -90,39 +119,15 @@ public class StreamHandler implements RequestHandler<DynamodbEvent, String> {
         }
     }
     
-    private AcSubmissionRecord parseAndEnrichRecord(Map<String, AttributeValue> item) {
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
         try {
-            // Parse submission data directly into record
-            AcSubmissionRecord record = new AcSubmissionRecord();
-            record.setUsername(item.get("username").getS());
-            record.setTitle(item.get("title").getS());
-            record.setTitleSlug(item.get("titleSlug").getS());
-            record.setTimestamp(Long.parseLong(item.get("timestamp").getN()));
-            record.setRuntimeMs(Integer.parseInt(item.get("runtimeMs").getN()));
-            record.setMemoryMb(Double.parseDouble(item.get("memoryMb").getN()));
-            
-            // Enrich with problem data
-            Problem problem = problemService.getProblem(record.getTitleSlug());
-            if (problem != null) {
-                record.setDifficultyLevel(problem.getDifficultyLevel());
-                record.setAcRate(problem.getAcRate());
-                record.setTotalAccepted(problem.getTotalAccepted());
-                record.setTotalSubmitted(problem.getTotalSubmitted());
-                
-                // Convert topic tags to string array
-                if (problem.getTopicTags() != null) {
-                    String[] tags = problem.getTopicTags().stream()
-                            .map(Problem.TopicTag::getName)
-                            .toArray(String[]::new);
-                    record.setTags(tags);
-                }
-            }
-            
-            return record;
-            
-        } catch (Exception e) {
-            log.error("Error parsing and enriching record: {}", e.getMessage());
-            return null;
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.leetsync.etl.model;
 
+import com.leetsync.common.model.CatalogProblem;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
@@ -12,7 +13,7 @@ import java.util.List;
  * Optimized for ETL data enrichment needs
  */
 @DynamoDbBean
-public class Problem {
+public class Problem implements CatalogProblem {
     
     private Long questionId;
     private Integer frontendQuestionId;
@@ -25,7 +26,7 @@ public class Problem {
     private List<TopicTag> topicTags;
     
     @DynamoDbBean
-    public static class TopicTag {
+    public static class TopicTag implements CatalogProblem.Tag {
         private String name;
         private String slug;
         
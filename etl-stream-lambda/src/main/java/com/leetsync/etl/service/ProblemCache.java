@@ -0,0 +1,109 @@
+package com.leetsync.etl.service;
+
+import com.leetsync.etl.model.Problem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU near cache of problems by titleSlug. It lives as long as the handler instance, so it survives
+ * warm invocations. Entries older than the TTL are treated as misses and reloaded, which bounds how stale
+ * enrichment can get after the problem scan refreshes stats.
+ */
+public class ProblemCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long expirations;
+    private long evictions;
+
+    public ProblemCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    ProblemCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        // Access order makes iteration order least-recently-used first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ProblemCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cached problem, or null on a miss or an expired entry
+     */
+    public synchronized Problem get(String titleSlug) {
+        Entry entry = entries.get(titleSlug);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() - entry.loadedAtMillis >= ttlMillis) {
+            entries.remove(titleSlug);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.problem;
+    }
+
+    public synchronized void put(String titleSlug, Problem problem) {
+        entries.put(titleSlug, new Entry(problem, clock.getAsLong()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public synchronized String summary() {
+        return String.format("Problem cache: %d entries, %d hits, %d misses (%.1f%% hit rate), %d expired, %d evicted",
+                entries.size(), hits, misses, getHitRate() * 100, expirations, evictions);
+    }
+
+    private static final class Entry {
+        private final Problem problem;
+        private final long loadedAtMillis;
+
+        private Entry(Problem problem, long loadedAtMillis) {
+            this.problem = problem;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+}
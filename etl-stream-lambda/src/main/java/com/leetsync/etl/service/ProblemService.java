@@ -1,5 +1,6 @@
 package com.leetsync.etl.service;
 
+import com.leetsync.common.service.ProblemCatalogSnapshot;
 import com.leetsync.etl.model.Problem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,32 +8,219 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 public class ProblemService {
-    
+
     private static final Logger log = LoggerFactory.getLogger(ProblemService.class);
-    
+
+    // DynamoDB BatchGetItem accepts at most 100 keys per call
+    private static final int BATCH_GET_SIZE = 100;
+    private static final int MAX_BATCH_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 50;
+    private static final TableSchema<Problem> SCHEMA = TableSchema.fromBean(Problem.class);
+
     private final DynamoDbTable<Problem> problemTable;
+    // Null when batched lookups are not wired; getProblems then falls back to one GetItem per slug
+    private final DynamoDbClient dynamoDbClient;
+    private final String problemsTableName;
+    // Null, or supplying null, when no snapshot is published; every lookup then goes to DynamoDB
+    private final Supplier<ProblemCatalogSnapshot> snapshots;
+    // Null disables caching of DynamoDB results
+    private final ProblemCache cache;
+
+    private final AtomicLong snapshotHits = new AtomicLong();
+    private final AtomicLong batchRequests = new AtomicLong();
+    private final AtomicLong fetched = new AtomicLong();
 
     public ProblemService(DynamoDbEnhancedClient enhancedClient, String problemsTableName) {
+        this(enhancedClient, problemsTableName, null);
+    }
+
+    public ProblemService(DynamoDbEnhancedClient enhancedClient, String problemsTableName, ProblemCatalogSnapshot snapshot) {
+        this(enhancedClient, null, problemsTableName, snapshot == null ? null : () -> snapshot, null);
+    }
+
+    public ProblemService(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient, String problemsTableName,
+                          Supplier<ProblemCatalogSnapshot> snapshots, ProblemCache cache) {
         // Use annotated model directly - no complex static schema needed
         this.problemTable = enhancedClient.table(problemsTableName, TableSchema.fromBean(Problem.class));
+        this.dynamoDbClient = dynamoDbClient;
+        this.problemsTableName = problemsTableName;
+        this.snapshots = snapshots;
+        this.cache = cache;
     }
 
     public Problem getProblem(String titleSlug) {
+        Problem local = getLocal(titleSlug, currentSnapshot());
+        if (local != null) {
+            return local;
+        }
         try {
             Key key = Key.builder().partitionValue(titleSlug).build();
             Problem problem = problemTable.getItem(key);
-            
+
             if (problem == null) {
                 log.warn("Problem not found for titleSlug: {}", titleSlug);
+            } else if (cache != null) {
+                cache.put(titleSlug, problem);
             }
-            
+
             return problem;
-            
+
         } catch (Exception e) {
             log.error("Error fetching problem for titleSlug {}: {}", titleSlug, e.getMessage());
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves many slugs at once: snapshot and cache first, then every remaining slug in one BatchGetItem
+     * per 100 keys. Slugs that are unknown, or still unprocessed after retries, are absent from the result.
+     */
+    public Map<String, Problem> getProblems(Collection<String> titleSlugs) {
+        Map<String, Problem> problems = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        ProblemCatalogSnapshot snapshot = currentSnapshot();
+        for (String titleSlug : new LinkedHashSet<>(titleSlugs)) {
+            Problem local = getLocal(titleSlug, snapshot);
+            if (local != null) {
+                problems.put(titleSlug, local);
+            } else {
+                misses.add(titleSlug);
+            }
+        }
+        if (misses.isEmpty()) {
+            return problems;
+        }
+
+        if (dynamoDbClient == null) {
+            for (String titleSlug : misses) {
+                Problem problem = getProblem(titleSlug);
+                if (problem != null) {
+                    problems.put(titleSlug, problem);
+                }
+            }
+            return problems;
+        }
+
+        for (int i = 0; i < misses.size(); i += BATCH_GET_SIZE) {
+            List<String> chunk = misses.subList(i, Math.min(i + BATCH_GET_SIZE, misses.size()));
+            try {
+                for (String unprocessed : batchGetProblems(chunk, problems)) {
+                    Problem problem = getProblem(unprocessed);
+                    if (problem != null) {
+                        problems.put(unprocessed, problem);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Error batch fetching {} problems: {}", chunk.size(), e.getMessage());
+            }
+        }
+        return problems;
+    }
+
+    public String statsSummary() {
+        String batches = String.format("%d snapshot hits, %d fetched in %d BatchGetItem requests",
+                snapshotHits.get(), fetched.get(), batchRequests.get());
+        return cache == null ? batches : cache.summary() + "; " + batches;
+    }
+
+    private ProblemCatalogSnapshot currentSnapshot() {
+        return snapshots == null ? null : snapshots.get();
+    }
+
+    private Problem getLocal(String titleSlug, ProblemCatalogSnapshot snapshot) {
+        if (snapshot != null) {
+            int id = snapshot.indexOf(titleSlug);
+            if (id >= 0) {
+                snapshotHits.incrementAndGet();
+                return fromSnapshot(snapshot, id);
+            }
+            // Problems added since the snapshot was published are still in DynamoDB
+        }
+        return cache == null ? null : cache.get(titleSlug);
+    }
+
+    /**
+     * Materializes one snapshot row as the model the rest of the ETL works with
+     */
+    static Problem fromSnapshot(ProblemCatalogSnapshot snapshot, int id) {
+        long questionId = snapshot.getQuestionId(id);
+        int frontendQuestionId = snapshot.getFrontendQuestionId(id);
+        long totalAccepted = snapshot.getTotalAccepted(id);
+        long totalSubmitted = snapshot.getTotalSubmitted(id);
+        int difficultyLevel = snapshot.getDifficultyLevel(id);
+        Problem problem = new Problem(
+                questionId < 0 ? null : questionId,
+                frontendQuestionId < 0 ? null : frontendQuestionId,
+                snapshot.getTitleSlug(id),
+                totalAccepted < 0 ? null : totalAccepted,
+                totalSubmitted < 0 ? null : totalSubmitted,
+                difficultyLevel == 0 ? null : difficultyLevel);
+        double acRate = snapshot.getAcRate(id);
+        problem.setAcRate(Double.isNaN(acRate) ? null : acRate);
+        int tagCount = snapshot.getTagCount(id);
+        List<Problem.TopicTag> tags = new ArrayList<>(tagCount);
+        for (int k = 0; k < tagCount; k++) {
+            int tagId = snapshot.getTagId(id, k);
+            tags.add(new Problem.TopicTag(snapshot.getTagName(tagId), snapshot.getTagSlug(tagId)));
+        }
+        problem.setTopicTags(tags);
+        return problem;
+    }
+
+    /**
+     * Adds every problem found for {@code titleSlugs} to {@code problems} and the cache.
+     *
+     * @return slugs whose keys were still unprocessed after the last attempt
+     */
+    private List<String> batchGetProblems(List<String> titleSlugs, Map<String, Problem> problems) throws InterruptedException {
+        List<Map<String, AttributeValue>> pending = new ArrayList<>(titleSlugs.size());
+        for (String titleSlug : titleSlugs) {
+            pending.add(Map.of("titleSlug", AttributeValue.fromS(titleSlug)));
+        }
+
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                Thread.sleep(BASE_BACKOFF_MS << (attempt - 2));
+            }
+            BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(Map.of(problemsTableName, KeysAndAttributes.builder().keys(pending).build()))
+                    .build());
+            batchRequests.incrementAndGet();
+
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(problemsTableName, List.of())) {
+                Problem problem = SCHEMA.mapToItem(item);
+                problems.put(problem.getTitleSlug(), problem);
+                if (cache != null) {
+                    cache.put(problem.getTitleSlug(), problem);
+                }
+                fetched.incrementAndGet();
+            }
+            KeysAndAttributes unprocessed = response.unprocessedKeys().get(problemsTableName);
+            pending = unprocessed == null ? List.of() : unprocessed.keys();
+        }
+        if (!pending.isEmpty()) {
+            // Left to a GetItem per slug so these records are still enriched
+            log.warn("{} problem keys still unprocessed after {} BatchGetItem attempts", pending.size(), MAX_BATCH_ATTEMPTS);
+        }
+        return pending.stream().map(key -> key.get("titleSlug").s()).toList();
+    }
+}
@@ -0,0 +1,178 @@
+package com.leetsync.etl.service;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.leetsync.etl.model.AcSubmissionRecord;
+import com.leetsync.etl.model.Problem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staging buffer for one stream batch. Submissions are decoded into parallel columns, and titleSlugs into a
+ * dictionary of distinct slugs, so problem metadata can be resolved once for the whole batch and then
+ * joined onto every row.
+ */
+public class SubmissionBatch {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionBatch.class);
+
+    private String[] usernames;
+    private String[] titles;
+    // Index into titleSlugs, or -1 when the item has no titleSlug
+    private int[] slugIds;
+    private long[] timestamps;
+    private int[] runtimeMs;
+    private double[] memoryMb;
+    private int size;
+
+    private final List<String> titleSlugs = new ArrayList<>();
+    private final Map<String, Integer> slugIdsBySlug = new HashMap<>();
+
+    public SubmissionBatch(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.usernames = new String[initial];
+        this.titles = new String[initial];
+        this.slugIds = new int[initial];
+        this.timestamps = new long[initial];
+        this.runtimeMs = new int[initial];
+        this.memoryMb = new double[initial];
+    }
+
+    /**
+     * Decodes the new image of every INSERT and MODIFY record. Records that cannot be parsed are logged
+     * and skipped.
+     */
+    public static SubmissionBatch decode(List<DynamodbEvent.DynamodbStreamRecord> streamRecords) {
+        SubmissionBatch batch = new SubmissionBatch(streamRecords.size());
+        for (DynamodbEvent.DynamodbStreamRecord streamRecord : streamRecords) {
+            // Only process INSERT and MODIFY events
+            if (!"INSERT".equals(streamRecord.getEventName()) &&
+                !"MODIFY".equals(streamRecord.getEventName())) {
+                continue;
+            }
+            Map<String, AttributeValue> item = streamRecord.getDynamodb() == null ? null : streamRecord.getDynamodb().getNewImage();
+            if (!batch.add(item)) {
+                log.warn("Failed to parse record from stream");
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Appends one submission item. Nothing is staged if any attribute is missing or malformed.
+     *
+     * @return false if the item could not be parsed
+     */
+    public boolean add(Map<String, AttributeValue> item) {
+        String username;
+        String title;
+        String titleSlug;
+        long timestamp;
+        int runtime;
+        double memory;
+        try {
+            username = item.get("username").getS();
+            title = item.get("title").getS();
+            titleSlug = item.get("titleSlug").getS();
+            timestamp = Long.parseLong(item.get("timestamp").getN());
+            runtime = Integer.parseInt(item.get("runtimeMs").getN());
+            memory = Double.parseDouble(item.get("memoryMb").getN());
+        } catch (Exception e) {
+            log.error("Error parsing record: {}", e.getMessage());
+            return false;
+        }
+
+        if (size == usernames.length) {
+            grow();
+        }
+        usernames[size] = username;
+        titles[size] = title;
+        slugIds[size] = titleSlug == null ? -1 : slugIdsBySlug.computeIfAbsent(titleSlug, slug -> {
+            titleSlugs.add(slug);
+            return titleSlugs.size() - 1;
+        });
+        timestamps[size] = timestamp;
+        runtimeMs[size] = runtime;
+        memoryMb[size] = memory;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the distinct titleSlugs in the batch, in first-seen order
+     */
+    public List<String> getTitleSlugs() {
+        return Collections.unmodifiableList(titleSlugs);
+    }
+
+    /**
+     * Builds the output records, enriching each row with its problem from {@code problems}. Rows whose
+     * problem is absent are kept without enrichment. The tag array is built once per problem and shared
+     * by every row for that problem.
+     */
+    public List<AcSubmissionRecord> join(Map<String, Problem> problems) {
+        int distinct = titleSlugs.size();
+        Problem[] problemsBySlugId = new Problem[distinct];
+        String[][] tagsBySlugId = new String[distinct][];
+        for (int i = 0; i < distinct; i++) {
+            Problem problem = problems.get(titleSlugs.get(i));
+            problemsBySlugId[i] = problem;
+            if (problem != null && problem.getTopicTags() != null) {
+                // Convert topic tags to string array
+                tagsBySlugId[i] = problem.getTopicTags().stream()
+                        .map(Problem.TopicTag::getName)
+                        .toArray(String[]::new);
+            }
+        }
+
+        List<AcSubmissionRecord> records = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            AcSubmissionRecord record = new AcSubmissionRecord();
+            record.setUsername(usernames[row]);
+            record.setTitle(titles[row]);
+            record.setTimestamp(timestamps[row]);
+            record.setRuntimeMs(runtimeMs[row]);
+            record.setMemoryMb(memoryMb[row]);
+
+            int slugId = slugIds[row];
+            if (slugId >= 0) {
+                record.setTitleSlug(titleSlugs.get(slugId));
+                Problem problem = problemsBySlugId[slugId];
+                if (problem != null) {
+                    record.setDifficultyLevel(problem.getDifficultyLevel());
+                    record.setAcRate(problem.getAcRate());
+                    record.setTotalAccepted(problem.getTotalAccepted());
+                    record.setTotalSubmitted(problem.getTotalSubmitted());
+                    record.setTags(tagsBySlugId[slugId]);
+                }
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private void grow() {
+        int capacity = usernames.length * 2;
+        usernames = Arrays.copyOf(usernames, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        slugIds = Arrays.copyOf(slugIds, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        runtimeMs = Arrays.copyOf(runtimeMs, capacity);
+        memoryMb = Arrays.copyOf(memoryMb, capacity);
+    }
+}
@@ -0,0 +1,72 @@
+package com.leetsync.etl.benchmark;
+
+import com.leetsync.etl.model.Problem;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory Problems table that sleeps for one network round-trip on every GetItem and BatchGetItem.
+ */
+final class LatencyDynamoDbClient implements DynamoDbClient {
+
+    private final String tableName;
+    private final Map<String, Map<String, AttributeValue>> items = new HashMap<>();
+    private final long roundTripMillis;
+
+    LatencyDynamoDbClient(String tableName, Collection<Problem> problems, long roundTripMillis) {
+        this.tableName = tableName;
+        this.roundTripMillis = roundTripMillis;
+        TableSchema<Problem> schema = TableSchema.fromBean(Problem.class);
+        for (Problem problem : problems) {
+            items.put(problem.getTitleSlug(), schema.itemToMap(problem, true));
+        }
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        roundTrip();
+        Map<String, AttributeValue> item = items.get(request.key().get("titleSlug").s());
+        return item == null ? GetItemResponse.builder().build() : GetItemResponse.builder().item(item).build();
+    }
+
+    @Override
+    public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+        roundTrip();
+        List<Map<String, AttributeValue>> found = new ArrayList<>();
+        for (Map<String, AttributeValue> key : request.requestItems().get(tableName).keys()) {
+            Map<String, AttributeValue> item = items.get(key.get("titleSlug").s());
+            if (item != null) {
+                found.add(item);
+            }
+        }
+        return BatchGetItemResponse.builder().responses(Map.of(tableName, found)).build();
+    }
+
+    private void roundTrip() {
+        try {
+            Thread.sleep(roundTripMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
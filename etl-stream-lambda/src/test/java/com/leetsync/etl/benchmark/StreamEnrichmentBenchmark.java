@@ -0,0 +1,129 @@
+package com.leetsync.etl.benchmark;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import com.leetsync.etl.model.AcSubmissionRecord;
+import com.leetsync.etl.model.Problem;
+import com.leetsync.etl.service.ProblemService;
+import com.leetsync.etl.service.SubmissionBatch;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enrichment of one synthetic stream batch against a DynamoDB stub that adds a fixed round-trip per request.
+ * perRecord is the previous handler loop (one GetItem per record); twoPhase is the current one (decode,
+ * one BatchGetItem for the distinct slugs, join). No cache or snapshot, so every invocation is cold.
+ *
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main StreamEnrichmentBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class StreamEnrichmentBenchmark {
+
+    private static final String TABLE_NAME = "Problems";
+
+    // Lambda's default DynamoDB stream batch size
+    @Param("100")
+    public int records;
+
+    @Param({"10", "100"})
+    public int distinctProblems;
+
+    @Param("2")
+    public int roundTripMillis;
+
+    private List<DynamodbEvent.DynamodbStreamRecord> streamRecords;
+    private ProblemService perRecordService;
+    private ProblemService batchedService;
+
+    @Setup
+    public void setUp() {
+        List<Problem> problems = new ArrayList<>(distinctProblems);
+        for (int i = 0; i < distinctProblems; i++) {
+            Problem problem = new Problem((long) i, i + 1, "problem-" + i, 1_000L + i, 2_000L + i, 1 + i % 3);
+            Problem.TopicTag tag = new Problem.TopicTag();
+            tag.setName("Tag " + i % 8);
+            tag.setSlug("tag-" + i % 8);
+            problem.setTopicTags(List.of(tag));
+            problems.add(problem);
+        }
+
+        Random random = new Random(42);
+        streamRecords = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            String titleSlug = "problem-" + random.nextInt(distinctProblems);
+            streamRecords.add(streamRecord("user" + i, titleSlug, 1_700_000_000L + i));
+        }
+
+        LatencyDynamoDbClient dynamoDbClient = new LatencyDynamoDbClient(TABLE_NAME, problems, roundTripMillis);
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(dynamoDbClient).build();
+        perRecordService = new ProblemService(enhancedClient, TABLE_NAME);
+        batchedService = new ProblemService(enhancedClient, dynamoDbClient, TABLE_NAME, null, null);
+    }
+
+    @Benchmark
+    public List<AcSubmissionRecord> perRecord() {
+        List<AcSubmissionRecord> result = new ArrayList<>(streamRecords.size());
+        for (DynamodbEvent.DynamodbStreamRecord streamRecord : streamRecords) {
+            Map<String, AttributeValue> item = streamRecord.getDynamodb().getNewImage();
+            AcSubmissionRecord record = new AcSubmissionRecord();
+            record.setUsername(item.get("username").getS());
+            record.setTitle(item.get("title").getS());
+            record.setTitleSlug(item.get("titleSlug").getS());
+            record.setTimestamp(Long.parseLong(item.get("timestamp").getN()));
+            record.setRuntimeMs(Integer.parseInt(item.get("runtimeMs").getN()));
+            record.setMemoryMb(Double.parseDouble(item.get("memoryMb").getN()));
+
+            Problem problem = perRecordService.getProblem(record.getTitleSlug());
+            if (problem != null) {
+                record.setDifficultyLevel(problem.getDifficultyLevel());
+                record.setAcRate(problem.getAcRate());
+                record.setTotalAccepted(problem.getTotalAccepted());
+                record.setTotalSubmitted(problem.getTotalSubmitted());
+                if (problem.getTopicTags() != null) {
+                    record.setTags(problem.getTopicTags().stream()
+                            .map(Problem.TopicTag::getName)
+                            .toArray(String[]::new));
+                }
+            }
+            result.add(record);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<AcSubmissionRecord> twoPhase() {
+        SubmissionBatch batch = SubmissionBatch.decode(streamRecords);
+        return batch.join(batchedService.getProblems(batch.getTitleSlugs()));
+    }
+
+    private static DynamodbEvent.DynamodbStreamRecord streamRecord(String username, String titleSlug, long timestamp) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("username", new AttributeValue().withS(username));
+        item.put("title", new AttributeValue().withS(titleSlug));
+        item.put("titleSlug", new AttributeValue().withS(titleSlug));
+        item.put("timestamp", new AttributeValue().withN(String.valueOf(timestamp)));
+        item.put("runtimeMs", new AttributeValue().withN("12"));
+        item.put("memoryMb", new AttributeValue().withN("19.1"));
+
+        DynamodbEvent.DynamodbStreamRecord record = new DynamodbEvent.DynamodbStreamRecord();
+        record.setEventName("INSERT");
+        StreamRecord dynamodbRecord = new StreamRecord();
+        dynamodbRecord.setNewImage(item);
+        record.setDynamodb(dynamodbRecord);
+        return record;
+    }
+}
@@ -87,6 +87,31 @@ class StreamHandlerTest {
         assertEquals(2, problem.getTopicTags().size());
     }
 
+    @Test
+    void testHandleRequest_ResolvesDistinctProblemsInOneBatch() throws Exception {
+        streamHandler = new StreamHandler(problemService, parquetFileWriter, s3Service);
+        Map<String, AttributeValue> second = createTestItem();
+        second.get("username").setS("otheruser");
+        DynamodbEvent event = new DynamodbEvent();
+        event.setRecords(List.of(
+                createDynamodbEvent("INSERT", createTestItem()).getRecords().get(0),
+                createDynamodbEvent("MODIFY", second).getRecords().get(0)));
+        when(problemService.getProblems(List.of("two-sum"))).thenReturn(Map.of("two-sum", createTestProblem()));
+        when(parquetFileWriter.writeToTempFile(anyList())).thenReturn("/tmp/test.parquet");
+
+        String result = streamHandler.handleRequest(event, context);
+
+        assertEquals("Successfully processed 2 records", result);
+        verify(problemService).getProblems(List.of("two-sum"));
+        verify(problemService, never()).getProblem(any());
+        ArgumentCaptor<List<AcSubmissionRecord>> recordsCaptor = ArgumentCaptor.captor();
+        verify(parquetFileWriter).writeToTempFile(recordsCaptor.capture());
+        assertEquals(List.of("testuser", "otheruser"),
+                recordsCaptor.getValue().stream().map(AcSubmissionRecord::getUsername).toList());
+        assertTrue(recordsCaptor.getValue().stream().allMatch(record -> record.getDifficultyLevel() == 1));
+        verify(s3Service).uploadParquetFile("/tmp/test.parquet", 1640995200L);
+    }
+
     // Note: The actual StreamHandler integration test that was failing
     // has been moved to StreamHandlerIntegrationTest which properly 
     // handles dependency injection and mocking
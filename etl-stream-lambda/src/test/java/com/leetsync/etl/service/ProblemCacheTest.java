@@ -0,0 +1,59 @@
+package com.leetsync.etl.service;
+
+import com.leetsync.etl.model.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void get_countsHitsAndMisses() {
+        ProblemCache cache = new ProblemCache(10, 60_000, now::get);
+        cache.put("two-sum", problem("two-sum"));
+
+        assertEquals("two-sum", cache.get("two-sum").getTitleSlug());
+        assertNull(cache.get("lru-cache"));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void get_expiresEntriesOlderThanTtl() {
+        ProblemCache cache = new ProblemCache(10, 60_000, now::get);
+        cache.put("two-sum", problem("two-sum"));
+
+        now.addAndGet(59_999);
+        assertNotNull(cache.get("two-sum"));
+        now.addAndGet(1);
+        assertNull(cache.get("two-sum"));
+
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedBeyondCapacity() {
+        ProblemCache cache = new ProblemCache(2, 60_000, now::get);
+        cache.put("a", problem("a"));
+        cache.put("b", problem("b"));
+        // Touch "a" so "b" becomes the eldest
+        cache.get("a");
+        cache.put("c", problem("c"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    private Problem problem(String titleSlug) {
+        return new Problem(1L, 1, titleSlug, 10L, 20L, 1);
+    }
+}
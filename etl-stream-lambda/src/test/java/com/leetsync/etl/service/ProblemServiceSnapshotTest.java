@@ -0,0 +1,51 @@
+package com.leetsync.etl.service;
+
+import com.leetsync.common.service.FileCatalogSnapshotStore;
+import com.leetsync.common.service.ProblemCatalogSnapshot;
+import com.leetsync.common.service.SnapshotRefresher;
+import com.leetsync.etl.model.Problem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ProblemService reading through a refreshing catalog snapshot, as StreamHandler wires it
+ */
+class ProblemServiceSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getProblems_servesRowsAddedByALaterSnapshot() throws Exception {
+        FileCatalogSnapshotStore store = new FileCatalogSnapshotStore(tempDir.resolve("bucket"));
+        ProblemCatalogSnapshot.publish(store, ProblemCatalogSnapshot.encode(List.of(problem("two-sum")), 1L));
+        SnapshotRefresher<ProblemCatalogSnapshot> refresher = new SnapshotRefresher<>("problem catalog",
+                () -> ProblemCatalogSnapshot.load(store, tempDir.resolve("cache")), Duration.ZERO);
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(mock(DynamoDbClient.class))
+                .build();
+        ProblemService service = new ProblemService(enhancedClient, null, "Problems", refresher::current, null);
+        assertEquals(2000L, service.getProblems(List.of("two-sum")).get("two-sum").getTotalSubmitted());
+
+        Problem updated = problem("two-sum");
+        updated.setTotalSubmitted(4000L);
+        ProblemCatalogSnapshot.publish(store, ProblemCatalogSnapshot.encode(List.of(updated), 2L));
+
+        assertEquals(4000L, service.getProblems(List.of("two-sum")).get("two-sum").getTotalSubmitted());
+    }
+
+    private static Problem problem(String titleSlug) {
+        Problem problem = new Problem(1L, 1, titleSlug, 1000L, 2000L, 1);
+        problem.setTopicTags(List.of(new Problem.TopicTag("Array", "array")));
+        return problem;
+    }
+}
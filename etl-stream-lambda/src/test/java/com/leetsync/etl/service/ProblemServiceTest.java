@@ -1,14 +1,26 @@
 package com.leetsync.etl.service;
 
+import com.leetsync.common.service.ProblemCatalogSnapshot;
 import com.leetsync.etl.model.Problem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -90,11 +102,125 @@ class ProblemServiceTest {
         }));
     }
 
+    @Test
+    void testGetProblem_ServedFromSnapshot() {
+        ProblemCatalogSnapshot snapshot = ProblemCatalogSnapshot.wrap(
+                ProblemCatalogSnapshot.encode(List.of(createTestProblem("two-sum")), 1L));
+        ProblemService snapshotService = new ProblemService(enhancedClient, TABLE_NAME, snapshot);
+
+        Problem result = snapshotService.getProblem("two-sum");
+
+        assertNotNull(result);
+        assertEquals(123L, result.getQuestionId());
+        verify(problemTable, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    void testFromSnapshot_RestoresEveryColumnAndTheTags() {
+        Problem twoSum = new Problem(1L, 1, "two-sum", 1000L, 2000L, 1);
+        twoSum.setTopicTags(List.of(new Problem.TopicTag("Array", "array"), new Problem.TopicTag("Hash Table", "hash-table")));
+        Problem bare = new Problem(null, null, "bare", null, null, null);
+        ProblemCatalogSnapshot snapshot = ProblemCatalogSnapshot.wrap(ProblemCatalogSnapshot.encode(List.of(twoSum, bare), 1L));
+
+        Problem decoded = ProblemService.fromSnapshot(snapshot, snapshot.indexOf("two-sum"));
+        assertEquals(1L, decoded.getQuestionId());
+        assertEquals(1, decoded.getFrontendQuestionId());
+        assertEquals(1000L, decoded.getTotalAccepted());
+        assertEquals(2000L, decoded.getTotalSubmitted());
+        assertEquals("Easy", decoded.getDifficulty());
+        assertEquals(50.0, decoded.getAcRate(), 1e-9);
+        assertEquals(List.of("array", "hash-table"), decoded.getTopicTags().stream().map(Problem.TopicTag::getSlug).toList());
+
+        Problem empty = ProblemService.fromSnapshot(snapshot, snapshot.indexOf("bare"));
+        assertNull(empty.getQuestionId());
+        assertNull(empty.getDifficultyLevel());
+        assertNull(empty.getAcRate());
+        assertTrue(empty.getTopicTags().isEmpty());
+    }
+
+    @Test
+    void testGetProblem_SnapshotMissFallsBackToDynamoDb() {
+        ProblemCatalogSnapshot snapshot = ProblemCatalogSnapshot.wrap(
+                ProblemCatalogSnapshot.encode(List.of(createTestProblem("two-sum")), 1L));
+        ProblemService snapshotService = new ProblemService(enhancedClient, TABLE_NAME, snapshot);
+        when(problemTable.getItem(any(Key.class))).thenReturn(createTestProblem("brand-new"));
+
+        Problem result = snapshotService.getProblem("brand-new");
+
+        assertEquals("brand-new", result.getTitleSlug());
+        verify(problemTable).getItem(any(Key.class));
+    }
+
+    @Test
+    void testGetProblems_ResolvesMissesWithOneBatchGetAndCachesThem() {
+        DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+        ProblemCache cache = new ProblemCache(100, 60_000);
+        ProblemService batchService = new ProblemService(enhancedClient, dynamoDbClient, TABLE_NAME, null, cache);
+        when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(batchResponse(List.of("two-sum", "lru-cache"), List.of()));
+
+        Map<String, Problem> first = batchService.getProblems(List.of("two-sum", "lru-cache", "two-sum", "unknown"));
+        Map<String, Problem> second = batchService.getProblems(List.of("two-sum", "lru-cache"));
+
+        assertEquals(Set.of("two-sum", "lru-cache"), first.keySet());
+        assertEquals(123L, first.get("two-sum").getQuestionId());
+        assertEquals(first.keySet(), second.keySet());
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(dynamoDbClient, times(1)).batchGetItem(captor.capture());
+        assertEquals(3, captor.getValue().requestItems().get(TABLE_NAME).keys().size());
+        verify(problemTable, never()).getItem(any(Key.class));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void testGetProblems_RetriesUnprocessedKeys() {
+        DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+        ProblemService batchService = new ProblemService(enhancedClient, dynamoDbClient, TABLE_NAME, null,
+                new ProblemCache(100, 60_000));
+        when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(batchResponse(List.of("two-sum"), List.of("lru-cache")))
+                .thenReturn(batchResponse(List.of("lru-cache"), List.of()));
+
+        Map<String, Problem> problems = batchService.getProblems(List.of("two-sum", "lru-cache"));
+
+        assertEquals(Set.of("two-sum", "lru-cache"), problems.keySet());
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(dynamoDbClient, times(2)).batchGetItem(captor.capture());
+        assertEquals(1, captor.getAllValues().get(1).requestItems().get(TABLE_NAME).keys().size());
+    }
+
+    @Test
+    void testGetProblem_CachesDynamoDbResult() {
+        ProblemService cachedService = new ProblemService(enhancedClient, null, TABLE_NAME, null,
+                new ProblemCache(100, 60_000));
+        when(problemTable.getItem(any(Key.class))).thenReturn(createTestProblem("two-sum"));
+
+        cachedService.getProblem("two-sum");
+        Problem result = cachedService.getProblem("two-sum");
+
+        assertEquals("two-sum", result.getTitleSlug());
+        verify(problemTable, times(1)).getItem(any(Key.class));
+    }
+
     @Test
     void testConstructor_TableSetup() {
         verify(enhancedClient).<Problem>table(eq(TABLE_NAME), any());
     }
 
+    private BatchGetItemResponse batchResponse(List<String> found, List<String> unprocessed) {
+        TableSchema<Problem> schema = TableSchema.fromBean(Problem.class);
+        List<Map<String, AttributeValue>> items = found.stream()
+                .map(slug -> schema.itemToMap(createTestProblem(slug), true))
+                .toList();
+        BatchGetItemResponse.Builder response = BatchGetItemResponse.builder().responses(Map.of(TABLE_NAME, items));
+        if (!unprocessed.isEmpty()) {
+            response.unprocessedKeys(Map.of(TABLE_NAME, KeysAndAttributes.builder()
+                    .keys(unprocessed.stream().map(slug -> Map.of("titleSlug", AttributeValue.fromS(slug))).toList())
+                    .build()));
+        }
+        return response.build();
+    }
+
     private Problem createTestProblem(String titleSlug) {
         return new Problem(
             123L,      // questionId
@@ -0,0 +1,110 @@
+package com.leetsync.etl.service;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import com.leetsync.etl.model.AcSubmissionRecord;
+import com.leetsync.etl.model.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionBatchTest {
+
+    @Test
+    void decode_skipsRemovedAndMalformedRecordsAndDedupesSlugs() {
+        Map<String, AttributeValue> malformed = item("carol", "two-sum", 3L);
+        malformed.remove("runtimeMs");
+
+        SubmissionBatch batch = SubmissionBatch.decode(List.of(
+                streamRecord("INSERT", item("alice", "two-sum", 1L)),
+                streamRecord("MODIFY", item("bob", "lru-cache", 2L)),
+                streamRecord("INSERT", malformed),
+                streamRecord("REMOVE", item("dave", "word-break", 4L)),
+                streamRecord("INSERT", item("erin", "two-sum", 5L))));
+
+        assertEquals(3, batch.size());
+        assertEquals(List.of("two-sum", "lru-cache"), batch.getTitleSlugs());
+    }
+
+    @Test
+    void join_enrichesRowsAndKeepsRowsWithoutProblem() {
+        SubmissionBatch batch = new SubmissionBatch(2);
+        batch.add(item("alice", "two-sum", 1L));
+        batch.add(item("bob", "unknown", 2L));
+        batch.add(item("carol", "two-sum", 3L));
+
+        List<AcSubmissionRecord> records = batch.join(Map.of("two-sum", problem("two-sum")));
+
+        assertEquals(3, records.size());
+        AcSubmissionRecord first = records.get(0);
+        assertEquals("alice", first.getUsername());
+        assertEquals("two-sum", first.getTitleSlug());
+        assertEquals(1L, first.getTimestamp());
+        assertEquals(12, first.getRuntimeMs());
+        assertEquals(19.1, first.getMemoryMb(), 1e-9);
+        assertEquals(1, first.getDifficultyLevel());
+        assertEquals(1000L, first.getTotalAccepted());
+        assertArrayEquals(new String[]{"Array", "Hash Table"}, first.getTags());
+
+        AcSubmissionRecord unenriched = records.get(1);
+        assertEquals("unknown", unenriched.getTitleSlug());
+        assertNull(unenriched.getDifficultyLevel());
+        assertNull(unenriched.getTags());
+
+        // Rows for the same problem share one tag array
+        assertSame(first.getTags(), records.get(2).getTags());
+    }
+
+    @Test
+    void add_growsPastInitialCapacity() {
+        SubmissionBatch batch = new SubmissionBatch(1);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(batch.add(item("user" + i, "problem-" + (i % 7), i)));
+        }
+
+        List<AcSubmissionRecord> records = batch.join(Map.of());
+
+        assertEquals(100, records.size());
+        assertEquals(7, batch.getTitleSlugs().size());
+        assertEquals("user99", records.get(99).getUsername());
+        assertEquals("problem-1", records.get(99).getTitleSlug());
+    }
+
+    private DynamodbEvent.DynamodbStreamRecord streamRecord(String eventName, Map<String, AttributeValue> item) {
+        DynamodbEvent.DynamodbStreamRecord record = new DynamodbEvent.DynamodbStreamRecord();
+        record.setEventName(eventName);
+        StreamRecord dynamodbRecord = new StreamRecord();
+        dynamodbRecord.setNewImage(item);
+        record.setDynamodb(dynamodbRecord);
+        return record;
+    }
+
+    private Map<String, AttributeValue> item(String username, String titleSlug, long timestamp) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("username", new AttributeValue().withS(username));
+        item.put("title", new AttributeValue().withS(titleSlug));
+        item.put("titleSlug", new AttributeValue().withS(titleSlug));
+        item.put("timestamp", new AttributeValue().withN(String.valueOf(timestamp)));
+        item.put("runtimeMs", new AttributeValue().withN("12"));
+        item.put("memoryMb", new AttributeValue().withN("19.1"));
+        return item;
+    }
+
+    private Problem problem(String titleSlug) {
+        Problem problem = new Problem(123L, 1, titleSlug, 1000L, 2000L, 1);
+        List<Problem.TopicTag> tags = new ArrayList<>();
+        for (String name : List.of("Array", "Hash Table")) {
+            Problem.TopicTag tag = new Problem.TopicTag();
+            tag.setName(name);
+            tags.add(tag);
+        }
+        problem.setTopicTags(tags);
+        return problem;
+    }
+}
@@ -20,10 +20,10 @@ public class InfrastructureApp {
         LeetSyncDataStack dataStack = new LeetSyncDataStack(app, envPrefix + "DataStack", resourceSuffix);
         
         // Pass table references to other stacks
-        new LeetSyncApiStack(app, envPrefix + "ApiStack", resourceSuffix, dataStack.getAcSubmissionsTable(), dataStack.getUsersTable(), dataStack.getUserStatsCacheTable(), dataStack.getRecommendationsCacheTable());
-        new LeetSyncIngestionStack(app, envPrefix + "IngestionStack", resourceSuffix, dataStack.getAcSubmissionsTable(), dataStack.getUsersTable());
-        new LeetSyncProblemStack(app, envPrefix + "ProblemStack", resourceSuffix, dataStack.getProblemsTable());
-        new LeetSyncEtlStack(app, envPrefix + "EtlStack", resourceSuffix, dataStack.getAcSubmissionsTable(), dataStack.getProblemsTable(), dataStack.getParquetBucket());
+        new LeetSyncApiStack(app, envPrefix + "ApiStack", resourceSuffix, dataStack.getAcSubmissionsTable(), dataStack.getUsersTable(), dataStack.getUserStatsCacheTable(), dataStack.getRecommendationsCacheTable(), dataStack.getOnboardingQueue(), dataStack.getCatalogBucket());
+        new LeetSyncIngestionStack(app, envPrefix + "IngestionStack", resourceSuffix, dataStack.getAcSubmissionsTable(), dataStack.getUsersTable(), dataStack.getOnboardingQueue());
+        new LeetSyncProblemStack(app, envPrefix + "ProblemStack", resourceSuffix, dataStack.getProblemsTable(), dataStack.getCatalogBucket());
+        new LeetSyncEtlStack(app, envPrefix + "EtlStack", resourceSuffix, dataStack.getAcSubmissionsTable(), dataStack.getProblemsTable(), dataStack.getParquetBucket(), dataStack.getCatalogBucket());
         new LeetSyncAnalyticsStack(app, envPrefix + "AnalyticsStack", resourceSuffix, dataStack.getParquetBucket(), dataStack.getAthenaResultsBucket(), dataStack.getUserStatsCacheTable());
         new LeetSyncRecommendationStack(app, envPrefix + "RecommendationStack", resourceSuffix, dataStack.getUserStatsCacheTable(), dataStack.getRecommendationsCacheTable());
 
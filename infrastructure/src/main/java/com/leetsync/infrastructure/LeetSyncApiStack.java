@@ -11,6 +11,8 @@ import software.amazon.awscdk.services.dynamodb.Table;
 import software.amazon.awscdk.services.lambda.Code;
 import software.amazon.awscdk.services.lambda.Function;
 import software.amazon.awscdk.services.lambda.Runtime;
+import software.amazon.awscdk.services.s3.Bucket;
+import software.amazon.awscdk.services.sqs.Queue;
 import software.constructs.Construct;
 
 import java.util.List;
@@ -18,7 +20,7 @@ import java.util.Map;
 
 public class LeetSyncApiStack extends Stack {
 
-    public LeetSyncApiStack(final Construct scope, final String id, final String resourceSuffix, final Table acSubmissionsTable, final Table usersTable, final Table userStatsCacheTable, final Table recommendationsCacheTable) {
+    public LeetSyncApiStack(final Construct scope, final String id, final String resourceSuffix, final Table acSubmissionsTable, final Table usersTable, final Table userStatsCacheTable, final Table recommendationsCacheTable, final Queue onboardingQueue, final Bucket catalogBucket) {
         super(scope, id);
 
         /* 2 ▶ Lambda packaging: Spring Boot JAR asset */
@@ -33,7 +35,9 @@ public class LeetSyncApiStack extends Stack {
                         "ACSUBMISSIONS_TABLE_NAME", acSubmissionsTable.getTableName(),
                         "USERS_TABLE_NAME", usersTable.getTableName(),
                         "STATS_CACHE_TABLE_NAME", userStatsCacheTable.getTableName(),
-                        "RECOMMENDATIONS_CACHE_TABLE_NAME", recommendationsCacheTable.getTableName()))
+                        "RECOMMENDATIONS_CACHE_TABLE_NAME", recommendationsCacheTable.getTableName(),
+                        "ONBOARDING_QUEUE_URL", onboardingQueue.getQueueUrl(),
+                        "CATALOG_BUCKET", catalogBucket.getBucketName()))
                 .build();
 
         /* least-privilege access */
@@ -41,6 +45,8 @@ public class LeetSyncApiStack extends Stack {
         usersTable.grantReadWriteData(apiFn);
         userStatsCacheTable.grantReadData(apiFn); // Read-only access for stats
         recommendationsCacheTable.grantReadData(apiFn); // Read-only access for recommendations
+        onboardingQueue.grantSendMessages(apiFn); // New users are queued for an immediate backfill
+        catalogBucket.grantRead(apiFn); // Tag index lookups
 
         /* 3 ▶ HTTP API with Lambda integration */
         HttpApi api = HttpApi.Builder.create(this, "LeetSyncHttpApi").build();
@@ -14,6 +14,8 @@ import software.amazon.awscdk.services.s3.Bucket;
 import software.amazon.awscdk.services.s3.LifecycleRule;
 import software.amazon.awscdk.services.s3.StorageClass;
 import software.amazon.awscdk.services.s3.Transition;
+import software.amazon.awscdk.services.sqs.DeadLetterQueue;
+import software.amazon.awscdk.services.sqs.Queue;
 import software.constructs.Construct;
 
 import java.util.List;
@@ -27,6 +29,8 @@ public class LeetSyncDataStack extends Stack {
     private final Table recommendationsCacheTable;
     private final Bucket parquetBucket;
     private final Bucket athenaResultsBucket;
+    private final Bucket catalogBucket;
+    private final Queue onboardingQueue;
 
     public LeetSyncDataStack(final Construct scope, final String id) {
         this(scope, id, "", null);
@@ -153,6 +157,36 @@ public class LeetSyncDataStack extends Stack {
                 ))
                 .removalPolicy(software.amazon.awscdk.RemovalPolicy.DESTROY)
                 .build();
+
+        // S3 bucket for problem catalog snapshots published by the problem scan
+        this.catalogBucket = Bucket.Builder.create(this, "CatalogBucket")
+                .bucketName("leetsync-catalog" + resourceSuffix)
+                .blockPublicAccess(BlockPublicAccess.BLOCK_ALL)
+                .lifecycleRules(List.of(
+                    LifecycleRule.builder()
+                        .id("DeleteOldSnapshots")
+                        .enabled(true)
+                        // Versioned snapshots only; the LATEST pointer is overwritten in place
+                        .prefix("problem-catalog/v")
+                        .expiration(Duration.days(60))
+                        .build()
+                ))
+                .removalPolicy(software.amazon.awscdk.RemovalPolicy.DESTROY)
+                .build();
+
+        // Onboarding queue - Newly created users waiting for their first backfill
+        Queue onboardingDlq = Queue.Builder.create(this, "OnboardingDeadLetterQueue")
+                .queueName("leetsync-onboarding-dlq" + resourceSuffix)
+                .retentionPeriod(Duration.days(14))
+                .build();
+        this.onboardingQueue = Queue.Builder.create(this, "OnboardingQueue")
+                .queueName("leetsync-onboarding" + resourceSuffix)
+                .visibilityTimeout(Duration.minutes(6))
+                .deadLetterQueue(DeadLetterQueue.builder()
+                        .queue(onboardingDlq)
+                        .maxReceiveCount(5)
+                        .build())
+                .build();
     }
 
     public Table getAcSubmissionsTable() {
@@ -182,4 +216,12 @@ public class LeetSyncDataStack extends Stack {
     public Bucket getAthenaResultsBucket() {
         return athenaResultsBucket;
     }
+
+    public Bucket getCatalogBucket() {
+        return catalogBucket;
+    }
+
+    public Queue getOnboardingQueue() {
+        return onboardingQueue;
+    }
 }
\ No newline at end of file
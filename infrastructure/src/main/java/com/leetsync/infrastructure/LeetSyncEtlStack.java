@@ -22,12 +22,14 @@ public class LeetSyncEtlStack extends Stack {
     private final Function etlFunction;
 
     public LeetSyncEtlStack(final Construct scope, final String id, final String resourceSuffix,
-                            final Table acSubmissionsTable, final Table problemsTable, final Bucket parquetBucket) {
-        this(scope, id, resourceSuffix, null, acSubmissionsTable, problemsTable, parquetBucket);
+                            final Table acSubmissionsTable, final Table problemsTable, final Bucket parquetBucket,
+                            final Bucket catalogBucket) {
+        this(scope, id, resourceSuffix, null, acSubmissionsTable, problemsTable, parquetBucket, catalogBucket);
     }
 
     public LeetSyncEtlStack(final Construct scope, final String id, final String resourceSuffix, final StackProps props,
-                            final Table acSubmissionsTable, final Table problemsTable, final Bucket parquetBucket) {
+                            final Table acSubmissionsTable, final Table problemsTable, final Bucket parquetBucket,
+                            final Bucket catalogBucket) {
         super(scope, id, props);
 
         // Create ETL Lambda function
@@ -40,7 +42,11 @@ public class LeetSyncEtlStack extends Stack {
                 .timeout(Duration.minutes(3))
                 .environment(Map.of(
                     "DEST_BUCKET", parquetBucket.getBucketName(),
-                    "PROBLEMS_TABLE_NAME", problemsTable.getTableName()
+                    "PROBLEMS_TABLE_NAME", problemsTable.getTableName(),
+                    "CATALOG_BUCKET", catalogBucket.getBucketName(),
+                    "PROBLEM_CACHE_MAX_ENTRIES", "4096",
+                    "PROBLEM_CACHE_TTL_MINUTES", "60",
+                    "CATALOG_REFRESH_MINUTES", "10"
                 ))
                 .build();
 
@@ -48,7 +54,7 @@ public class LeetSyncEtlStack extends Stack {
         // DynamoDB permissions for Problems table
         etlFunction.addToRolePolicy(PolicyStatement.Builder.create()
                 .effect(Effect.ALLOW)
-                .actions(List.of("dynamodb:GetItem"))
+                .actions(List.of("dynamodb:GetItem", "dynamodb:BatchGetItem"))
                 .resources(List.of(problemsTable.getTableArn()))
                 .build());
 
@@ -67,6 +73,9 @@ public class LeetSyncEtlStack extends Stack {
         // S3 permissions for Parquet bucket
         parquetBucket.grantWrite(etlFunction);
 
+        // S3 permissions to read problem catalog snapshots
+        catalogBucket.grantRead(etlFunction);
+
 
         // Add DynamoDB Stream event source with batching to reduce S3 requests
         etlFunction.addEventSource(DynamoEventSource.Builder.create(acSubmissionsTable)
@@ -3,13 +3,19 @@ package com.leetsync.infrastructure;
 import software.amazon.awscdk.Duration;
 import software.amazon.awscdk.Stack;
 import software.amazon.awscdk.StackProps;
+import software.amazon.awscdk.services.dynamodb.Attribute;
+import software.amazon.awscdk.services.dynamodb.AttributeType;
+import software.amazon.awscdk.services.dynamodb.BillingMode;
 import software.amazon.awscdk.services.dynamodb.Table;
 import software.amazon.awscdk.services.events.Rule;
 import software.amazon.awscdk.services.events.Schedule;
 import software.amazon.awscdk.services.events.targets.LambdaFunction;
+import software.amazon.awscdk.services.iam.PolicyStatement;
 import software.amazon.awscdk.services.lambda.Code;
 import software.amazon.awscdk.services.lambda.Function;
 import software.amazon.awscdk.services.lambda.Runtime;
+import software.amazon.awscdk.services.lambda.eventsources.SqsEventSource;
+import software.amazon.awscdk.services.sqs.Queue;
 import software.constructs.Construct;
 
 import java.util.List;
@@ -17,45 +23,96 @@ import java.util.Map;
 
 public class LeetSyncIngestionStack extends Stack {
 
-    public LeetSyncIngestionStack(final Construct scope, final String id, final String resourceSuffix, final Table acSubmissionsTable, final Table usersTable) {
-        this(scope, id, resourceSuffix, null, acSubmissionsTable, usersTable);
+    public LeetSyncIngestionStack(final Construct scope, final String id, final String resourceSuffix, final Table acSubmissionsTable, final Table usersTable, final Queue onboardingQueue) {
+        this(scope, id, resourceSuffix, null, acSubmissionsTable, usersTable, onboardingQueue);
     }
 
-    public LeetSyncIngestionStack(final Construct scope, final String id, final String resourceSuffix, final StackProps props, final Table acSubmissionsTable, final Table usersTable) {
+    public LeetSyncIngestionStack(final Construct scope, final String id, final String resourceSuffix, final StackProps props, final Table acSubmissionsTable, final Table usersTable, final Queue onboardingQueue) {
         super(scope, id, props);
 
+        String functionName = "leetsync-ingestion-lambda" + resourceSuffix;
+
+        // SyncProgress Table - Per-shard checkpoints for sharded sync runs, expired via TTL
+        Table syncProgressTable = Table.Builder.create(this, "SyncProgressTable")
+                .tableName("SyncProgress" + resourceSuffix)
+                .partitionKey(Attribute.builder()
+                        .name("shardId")
+                        .type(AttributeType.STRING)
+                        .build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .timeToLiveAttribute("ttl")
+                .removalPolicy(software.amazon.awscdk.RemovalPolicy.DESTROY)
+                .build();
+
         // Ingestion Lambda Function
+        Duration ingestionTimeout = Duration.minutes(5);
         Function ingestionFn = Function.Builder.create(this, "IngestionFunction")
-                .functionName("leetsync-ingestion-lambda" + resourceSuffix)
+                .functionName(functionName)
                 .runtime(Runtime.JAVA_21)
                 .handler("com.leetsync.ingestion.handler.SyncHandler")
                 .memorySize(256)
-                .timeout(Duration.minutes(5))
+                .timeout(ingestionTimeout)
                 .code(Code.fromAsset("../ingestion-lambda/target/ingestion-lambda-1.0.0.jar"))
                 .environment(Map.of(
                         "ACSUBMISSIONS_TABLE_NAME", acSubmissionsTable.getTableName(),
                         "USERS_TABLE_NAME", usersTable.getTableName(),
                         "LOG_LEVEL", "INFO",
-                        "POLL_INTERVAL_MIN", "60"))
+                        "POLL_INTERVAL_MIN", "60",
+                        "SYNC_CONCURRENCY", "32",
+                        "GRAPHQL_BATCH_SIZE", "10",
+                        "SCAN_SEGMENTS", "4",
+                        "SYNC_SHARDS", "4",
+                        "SYNC_PROGRESS_TABLE_NAME", syncProgressTable.getTableName(),
+                        // A shard worker cannot outlive the timeout, so its lease need not either
+                        "SHARD_LEASE_MINUTES", String.valueOf(ingestionTimeout.toMinutes())))
                 .build();
 
         // Grant permissions to DynamoDB tables
-        acSubmissionsTable.grantWriteData(ingestionFn);
+        acSubmissionsTable.grantReadWriteData(ingestionFn);
         usersTable.grantReadWriteData(ingestionFn);
+        syncProgressTable.grantReadWriteData(ingestionFn);
+
+        // The coordinator run invokes this same function once per shard; the ARN is built
+        // from the name because grantInvoke on itself would create a circular dependency
+        ingestionFn.addToRolePolicy(PolicyStatement.Builder.create()
+                .actions(List.of("lambda:InvokeFunction"))
+                .resources(List.of("arn:aws:lambda:" + getRegion() + ":" + getAccount() + ":function:" + functionName))
+                .build());
 
 
-        // EventBridge Rule - Daily at 6 AM Seattle time (UTC-8/UTC-7)
+        // EventBridge Rule - Every POLL_INTERVAL_MIN; the per-user scheduler skips users that are not due
         Rule dailyRule = Rule.Builder.create(this, "DailyIngestionRule")
                 .ruleName("leetsync-daily-ingestion-rule" + resourceSuffix)
-                .schedule(Schedule.cron(
-                        software.amazon.awscdk.services.events.CronOptions.builder()
-                                .minute("0")
-                                .hour("14")  // 7 AM Seattle = 14:00 UTC (standard time)
-                                .build()))
-                .description("Trigger ingestion lambda daily at 7 AM Seattle time")
+                .schedule(Schedule.rate(Duration.minutes(60)))
+                .description("Trigger ingestion lambda hourly; users are synced at a cadence matching their activity")
                 .build();
 
         // Add Lambda as target
         dailyRule.addTarget(new LambdaFunction(ingestionFn));
+
+        // Onboarding Lambda Function - Backfills users created through the API without waiting for the schedule
+        Function onboardingFn = Function.Builder.create(this, "OnboardingFunction")
+                .functionName("leetsync-onboarding-lambda" + resourceSuffix)
+                .runtime(Runtime.JAVA_21)
+                .handler("com.leetsync.ingestion.handler.OnboardingHandler")
+                .memorySize(256)
+                .timeout(Duration.minutes(1))
+                .code(Code.fromAsset("../ingestion-lambda/target/ingestion-lambda-1.0.0.jar"))
+                .environment(Map.of(
+                        "ACSUBMISSIONS_TABLE_NAME", acSubmissionsTable.getTableName(),
+                        "USERS_TABLE_NAME", usersTable.getTableName(),
+                        "LOG_LEVEL", "INFO",
+                        "POLL_INTERVAL_MIN", "60"))
+                .build();
+
+        acSubmissionsTable.grantReadWriteData(onboardingFn);
+        usersTable.grantReadWriteData(onboardingFn);
+
+        // Batching window coalesces sign-up bursts into one aliased GraphQL request
+        onboardingFn.addEventSource(SqsEventSource.Builder.create(onboardingQueue)
+                .batchSize(10)
+                .maxBatchingWindow(Duration.seconds(5))
+                .reportBatchItemFailures(true)
+                .build());
     }
 }
\ No newline at end of file
@@ -10,17 +10,20 @@ import software.amazon.awscdk.services.events.targets.LambdaFunction;
 import software.amazon.awscdk.services.lambda.Code;
 import software.amazon.awscdk.services.lambda.Function;
 import software.amazon.awscdk.services.lambda.Runtime;
+import software.amazon.awscdk.services.s3.Bucket;
 import software.constructs.Construct;
 
 import java.util.Map;
 
 public class LeetSyncProblemStack extends Stack {
 
-    public LeetSyncProblemStack(final Construct scope, final String id, final String resourceSuffix, final Table problemsTable) {
-        this(scope, id, resourceSuffix, null, problemsTable);
+    public LeetSyncProblemStack(final Construct scope, final String id, final String resourceSuffix, final Table problemsTable,
+                                final Bucket catalogBucket) {
+        this(scope, id, resourceSuffix, null, problemsTable, catalogBucket);
     }
 
-    public LeetSyncProblemStack(final Construct scope, final String id, final String resourceSuffix, final StackProps props, final Table problemsTable) {
+    public LeetSyncProblemStack(final Construct scope, final String id, final String resourceSuffix, final StackProps props, final Table problemsTable,
+                                final Bucket catalogBucket) {
         super(scope, id, props);
 
         // Problem Scan Lambda Function
@@ -34,12 +37,19 @@ public class LeetSyncProblemStack extends Stack {
                 .environment(Map.of(
                         "PROBLEMS_TABLE_NAME", problemsTable.getTableName(),
                         "LOG_LEVEL", "INFO",
-                        "LEETCODE_GRAPHQL_URL", "https://leetcode.com/graphql"))
+                        "LEETCODE_GRAPHQL_URL", "https://leetcode.com/graphql",
+                        "TAG_FETCH_CONCURRENCY", "8",
+                        "TAG_BATCH_SIZE", "25",
+                        "EXISTENCE_CHECK_CONCURRENCY", "4",
+                        "CATALOG_BUCKET", catalogBucket.getBucketName()))
                 .build();
 
         // Grant read/write permissions to Problems DynamoDB table
         problemsTable.grantReadWriteData(problemScanFn);
 
+        // Publish catalog snapshots
+        catalogBucket.grantWrite(problemScanFn);
+
         // EventBridge Rule - Weekly at 5 AM Seattle time every Monday
         Rule weeklyRule = Rule.Builder.create(this, "WeeklyProblemScanRule")
                 .ruleName("leetsync-weekly-problem-scan-rule" + resourceSuffix)
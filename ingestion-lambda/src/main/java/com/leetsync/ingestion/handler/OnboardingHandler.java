@@ -0,0 +1,105 @@
+package com.leetsync.ingestion.handler;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetsync.common.service.LeetCodeClient;
+import com.leetsync.ingestion.service.DynamoService;
+import com.leetsync.ingestion.service.LeetCodeService;
+import com.leetsync.ingestion.service.OnboardingService;
+import com.leetsync.ingestion.service.SyncScheduler;
+import com.leetsync.ingestion.service.UserService;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consumes the onboarding queue filled by the API when a user is created.
+ * Messages carry {"username": "..."}; repeated messages for one user in a batch are coalesced.
+ */
+public class OnboardingHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final OnboardingService onboardingService;
+
+    public OnboardingHandler() {
+        // Manual dependency wiring (simple and fast for Lambda)
+        DynamoDbClientBuilder dynamoBuilder = DynamoDbClient.builder();
+        String dynamoEndpoint = System.getenv("DYNAMODB_ENDPOINT");
+        if (dynamoEndpoint != null && !dynamoEndpoint.isBlank()) {
+            dynamoBuilder.endpointOverride(URI.create(dynamoEndpoint));
+        }
+        DynamoDbClient dynamoClient = dynamoBuilder.build();
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoClient)
+                .build();
+        String graphqlUrl = System.getenv("LEETCODE_GRAPHQL_URL");
+        LeetCodeService leetCodeService = graphqlUrl == null || graphqlUrl.isBlank()
+                ? new LeetCodeService()
+                : new LeetCodeService(new LeetCodeClient(), URI.create(graphqlUrl));
+        this.onboardingService = new OnboardingService(
+                leetCodeService,
+                new DynamoService(enhancedClient, System.getenv("ACSUBMISSIONS_TABLE_NAME")),
+                new UserService(dynamoClient, System.getenv("USERS_TABLE_NAME")),
+                new SyncScheduler(
+                        Duration.ofMinutes(SyncHandler.intFromEnv("POLL_INTERVAL_MIN", SyncHandler.DEFAULT_POLL_INTERVAL_MIN)),
+                        Duration.ofHours(SyncHandler.intFromEnv("MAX_SYNC_INTERVAL_HOURS",
+                                SyncHandler.DEFAULT_MAX_SYNC_INTERVAL_HOURS))));
+    }
+
+    OnboardingHandler(OnboardingService onboardingService) {
+        this.onboardingService = onboardingService;
+    }
+
+    @Override
+    public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
+        Map<String, List<String>> messageIdsByUser = new LinkedHashMap<>();
+        for (SQSEvent.SQSMessage message : event.getRecords()) {
+            String username = usernameOf(message.getBody());
+            if (username == null) {
+                // Retrying a malformed message can never succeed, so drop it
+                context.getLogger().log("Dropping malformed onboarding message " + message.getMessageId());
+                continue;
+            }
+            messageIdsByUser.computeIfAbsent(username, k -> new ArrayList<>()).add(message.getMessageId());
+        }
+
+        List<SQSBatchResponse.BatchItemFailure> failures = new ArrayList<>();
+        try {
+            Set<String> failed = onboardingService.onboard(messageIdsByUser.keySet());
+            for (String username : failed) {
+                messageIdsByUser.get(username).forEach(id -> failures.add(new SQSBatchResponse.BatchItemFailure(id)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            messageIdsByUser.values().forEach(ids -> ids.forEach(id -> failures.add(new SQSBatchResponse.BatchItemFailure(id))));
+        }
+
+        context.getLogger().log(String.format("Onboarding batch: %d messages, %d users, %d failed messages",
+                event.getRecords().size(), messageIdsByUser.size(), failures.size()));
+        return new SQSBatchResponse(failures);
+    }
+
+    static String usernameOf(String body) {
+        try {
+            JsonNode username = MAPPER.readTree(body).get("username");
+            return username == null || !username.isTextual() || username.asText().isBlank()
+                    ? null
+                    : username.asText().trim();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
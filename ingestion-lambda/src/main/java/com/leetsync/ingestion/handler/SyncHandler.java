@@ -2,76 +2,432 @@ package com.leetsync.ingestion.handler;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.leetsync.common.service.LeetCodeClient;
 import com.leetsync.ingestion.model.AcSubmission;
-import com.leetsync.ingestion.service.LeetCodeService;
+import com.leetsync.ingestion.model.ShardProgress;
+import com.leetsync.ingestion.model.SyncReport;
+import com.leetsync.ingestion.model.SyncRequest;
+import com.leetsync.ingestion.model.UserSyncResult;
+import com.leetsync.ingestion.model.UserSyncState;
 import com.leetsync.ingestion.service.DynamoService;
+import com.leetsync.ingestion.service.InProcessShardInvoker;
+import com.leetsync.ingestion.service.IncrementalSyncPolicy;
+import com.leetsync.ingestion.service.LambdaShardInvoker;
+import com.leetsync.ingestion.service.LeetCodeService;
+import com.leetsync.ingestion.service.ShardInvoker;
+import com.leetsync.ingestion.service.ShardProgressService;
+import com.leetsync.ingestion.service.SubmissionBatcher;
+import com.leetsync.ingestion.service.SyncEngine;
+import com.leetsync.ingestion.service.SyncMetrics;
+import com.leetsync.ingestion.service.SyncScheduler;
+import com.leetsync.ingestion.service.SyncStateWriter;
 import com.leetsync.ingestion.service.UserService;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+import software.amazon.awssdk.services.lambda.LambdaClient;
 
 import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class SyncHandler implements RequestHandler<SyncRequest, String> {
 
-public class SyncHandler implements RequestHandler<Void, String> {
+    private static final int DEFAULT_SYNC_CONCURRENCY = 8;
+    private static final int DEFAULT_SCAN_SEGMENTS = 4;
+    private static final int DEFAULT_GRAPHQL_BATCH_SIZE = 10;
+    private static final int DEFAULT_GRAPHQL_BATCH_LINGER_MS = 25;
+    static final int DEFAULT_POLL_INTERVAL_MIN = 60;
+    static final int DEFAULT_MAX_SYNC_INTERVAL_HOURS = 48;
+    private static final int SHARD_PAGE_SIZE = 100;
+    // One full TransactWriteItems per batch
+    private static final int DEFAULT_SYNC_STATE_BATCH_SIZE = 100;
+    // Stop taking new pages once less than this is left before the Lambda timeout
+    private static final long CHECKPOINT_MARGIN_MS = 60_000;
+    // At least the function timeout, so an expired lease means its worker is gone
+    private static final int DEFAULT_SHARD_LEASE_MINUTES = 5;
 
     private final LeetCodeService leetCodeService;
+    private final SubmissionBatcher submissionBatcher;
     private final DynamoService dynamoService;
     private final UserService userService;
+    private final SyncStateWriter syncStateWriter;
+    private final SyncEngine syncEngine;
+    private final int scanSegments;
+    private final int syncShards;
+    private final ShardProgressService shardProgressService;
+    private final ShardInvoker shardInvoker; // null runs shard workers in-process
+    private final SyncScheduler syncScheduler;
+    private final IncrementalSyncPolicy syncPolicy = new IncrementalSyncPolicy();
 
     public SyncHandler() {
         // Manual dependency wiring (simple and fast for Lambda)
-        DynamoDbClient dynamoClient = DynamoDbClient.create();
+        DynamoDbClientBuilder dynamoBuilder = DynamoDbClient.builder();
+        String dynamoEndpoint = System.getenv("DYNAMODB_ENDPOINT");
+        if (dynamoEndpoint != null && !dynamoEndpoint.isBlank()) {
+            // e.g. http://localhost:8000 for DynamoDB Local benchmarks
+            dynamoBuilder.endpointOverride(URI.create(dynamoEndpoint));
+        }
+        DynamoDbClient dynamoClient = dynamoBuilder.build();
         DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
                 .dynamoDbClient(dynamoClient)
                 .build();
-        this.leetCodeService = new LeetCodeService();
+        String graphqlUrl = System.getenv("LEETCODE_GRAPHQL_URL");
+        this.leetCodeService = graphqlUrl == null || graphqlUrl.isBlank()
+                ? new LeetCodeService()
+                : new LeetCodeService(new LeetCodeClient(), URI.create(graphqlUrl));
+        // K users per aliased GraphQL request; only fills up when SYNC_CONCURRENCY >= K
+        this.submissionBatcher = new SubmissionBatcher(leetCodeService,
+                intFromEnv("GRAPHQL_BATCH_SIZE", DEFAULT_GRAPHQL_BATCH_SIZE),
+                Duration.ofMillis(intFromEnv("GRAPHQL_BATCH_LINGER_MS", DEFAULT_GRAPHQL_BATCH_LINGER_MS)));
         this.dynamoService = new DynamoService(enhancedClient, System.getenv("ACSUBMISSIONS_TABLE_NAME"));
         this.userService = new UserService(dynamoClient, System.getenv("USERS_TABLE_NAME"));
+        // Sync state is written in batches off the sync workers; handleRequest flushes the rest before returning
+        this.syncStateWriter = new SyncStateWriter(userService,
+                intFromEnv("SYNC_STATE_BATCH_SIZE", DEFAULT_SYNC_STATE_BATCH_SIZE));
+        this.syncEngine = new SyncEngine(intFromEnv("SYNC_CONCURRENCY", DEFAULT_SYNC_CONCURRENCY));
+        this.scanSegments = intFromEnv("SCAN_SEGMENTS", DEFAULT_SCAN_SEGMENTS);
+        // The schedule fires every POLL_INTERVAL_MIN; the scheduler decides which users are due
+        this.syncScheduler = new SyncScheduler(
+                Duration.ofMinutes(intFromEnv("POLL_INTERVAL_MIN", DEFAULT_POLL_INTERVAL_MIN)),
+                Duration.ofHours(intFromEnv("MAX_SYNC_INTERVAL_HOURS", DEFAULT_MAX_SYNC_INTERVAL_HOURS)));
+
+        // Sharding mode: a coordinator run fans out one worker invocation per scan segment
+        this.syncShards = intFromEnv("SYNC_SHARDS", 1);
+        String progressTable = System.getenv("SYNC_PROGRESS_TABLE_NAME");
+        this.shardProgressService = progressTable == null || progressTable.isBlank()
+                ? null
+                : new ShardProgressService(dynamoClient, progressTable,
+                        Duration.ofMinutes(intFromEnv("SHARD_LEASE_MINUTES", DEFAULT_SHARD_LEASE_MINUTES)));
+        this.shardInvoker = syncShards > 1 && !"local".equalsIgnoreCase(System.getenv("SHARD_INVOKER"))
+                ? new LambdaShardInvoker(LambdaClient.create(), System.getenv("AWS_LAMBDA_FUNCTION_NAME"))
+                : null;
+    }
+
+    SyncHandler(LeetCodeService leetCodeService, DynamoService dynamoService, UserService userService,
+                SyncEngine syncEngine, int scanSegments) {
+        this(leetCodeService, new SubmissionBatcher(leetCodeService, 1, Duration.ZERO), dynamoService, userService,
+                syncEngine, new SyncScheduler(Duration.ofMinutes(DEFAULT_POLL_INTERVAL_MIN),
+                        Duration.ofHours(DEFAULT_MAX_SYNC_INTERVAL_HOURS)),
+                scanSegments, 1, null, null);
+    }
+
+    SyncHandler(LeetCodeService leetCodeService, SubmissionBatcher submissionBatcher, DynamoService dynamoService,
+                UserService userService, SyncEngine syncEngine, SyncScheduler syncScheduler, int scanSegments,
+                int syncShards, ShardProgressService shardProgressService, ShardInvoker shardInvoker) {
+        this.leetCodeService = leetCodeService;
+        this.submissionBatcher = submissionBatcher;
+        this.dynamoService = dynamoService;
+        this.userService = userService;
+        this.syncStateWriter = new SyncStateWriter(userService, DEFAULT_SYNC_STATE_BATCH_SIZE);
+        this.syncEngine = syncEngine;
+        this.syncScheduler = syncScheduler;
+        this.scanSegments = scanSegments;
+        this.syncShards = syncShards;
+        this.shardProgressService = shardProgressService;
+        this.shardInvoker = shardInvoker;
     }
 
     @Override
-    public String handleRequest(Void input, Context context) {
-        // Get all users from Users table
-        List<String> usernames = userService.getAllUsernames();
-        context.getLogger().log("Found " + usernames.size() + " users to sync");
-        
-        int totalNewSubmissions = 0;
-        int limit = 20;
-        
-        for (String username : usernames) {
-            try {
-                context.getLogger().log("Syncing user: " + username);
-                
-                // Fetch recent submissions for this user
-                List<AcSubmission> submissions = leetCodeService.fetchRecentAcceptedSubmissions(username, limit);
-                
-                // Store new submissions
-                int userNewCount = 0;
-                for (AcSubmission sub : submissions) {
-                    // Set the username in the submission
-                    sub.setUsername(username);
-                    
-                    boolean stored = dynamoService.storeIfNew(sub);
-                    if (stored) {
-                        userNewCount++;
-                    }
+    public String handleRequest(SyncRequest input, Context context) {
+        try {
+            return route(input, context);
+        } finally {
+            // A frozen or recycled container never runs shutdown hooks, so nothing may stay buffered past the invocation
+            syncStateWriter.flush();
+        }
+    }
+
+    private String route(SyncRequest input, Context context) {
+        if (input != null && input.isShardRequest()) {
+            return syncShard(input, context);
+        }
+        if (syncShards > 1) {
+            return coordinateShards(syncShards, shardInvoker, context);
+        }
+        if (shardProgressService != null) {
+            // Journaled single invocation: each scan segment checkpoints, so a run cut short resumes where it stopped
+            return coordinateShards(scanSegments, null, context);
+        }
+        return syncAllUsers(context);
+    }
+
+    private String syncAllUsers(Context context) {
+        context.getLogger().log("Streaming users from " + scanSegments + " scan segments with concurrency "
+                + syncEngine.getMaxConcurrency());
+
+        // Users (with their sync watermarks) are synced as scan pages arrive from the Users table
+        SyncMetrics metrics = new SyncMetrics();
+        long now = System.currentTimeMillis();
+        SyncReport report = syncEngine.syncAll(
+                sink -> userService.scanSyncStates(scanSegments, page -> dueUsers(page, now, metrics).forEach(sink)),
+                user -> syncUser(user, metrics));
+        syncStateWriter.flush();
+
+        for (UserSyncResult result : report.getResults()) {
+            if (result.isSuccess()) {
+                context.getLogger().log("User " + result.getUsername() + ": " + result.getNewSubmissions()
+                        + " new submissions in " + result.getLatencyMillis() + " ms");
+            } else {
+                // Failed users are isolated; the rest of the run is unaffected
+                context.getLogger().log("Failed to sync user " + result.getUsername() + ": " + result.getError());
+            }
+        }
+        context.getLogger().log(report.summary() + ", " + metrics.getUsersNotDue() + " users not due, "
+                + syncStateWriter.getWrittenCount() + " sync states written, " + syncStateWriter.getFailedCount() + " failed");
+        context.getLogger().log(leetCodeService.getClient().metricsSummary());
+        emitMetrics(context, metrics, "single", null);
+
+        return "Synced " + report.getTotalUsers() + " users with " + report.getTotalNewSubmissions() + " total new submissions";
+    }
+
+    /**
+     * Dispatches one worker per shard. An unfinished run is resumed under its
+     * original run ID so interrupted shards pick up from their checkpoint;
+     * checkpoints of a finished run are compacted away. A shard whose lease is
+     * still live may have a worker running it and is left alone until it expires.
+     */
+    private String coordinateShards(int totalShards, ShardInvoker invoker, Context context) {
+        if (shardProgressService == null) {
+            throw new IllegalStateException("SYNC_SHARDS > 1 requires SYNC_PROGRESS_TABLE_NAME");
+        }
+
+        ShardProgress[] progress = new ShardProgress[totalShards];
+        String runId = null;
+        for (int shard = 0; shard < totalShards; shard++) {
+            progress[shard] = shardProgressService.load(shard, totalShards);
+            if (progress[shard] != null && !progress[shard].isCompleted()) {
+                runId = progress[shard].getRunId();
+            }
+        }
+        if (runId == null) {
+            // Workers invoked asynchronously finish after their coordinator, so their run is compacted here
+            compact(progress, totalShards);
+            progress = new ShardProgress[totalShards];
+        }
+
+        long now = System.currentTimeMillis();
+        List<Integer> pendingShards = new ArrayList<>();
+        int leasedShards = 0;
+        for (int shard = 0; shard < totalShards; shard++) {
+            boolean sameRun = runId != null && progress[shard] != null && runId.equals(progress[shard].getRunId());
+            if (sameRun && progress[shard].isLeased(now)) {
+                leasedShards++;
+            } else if (!sameRun || !progress[shard].isCompleted()) {
+                pendingShards.add(shard);
+            }
+        }
+        if (runId == null) {
+            runId = UUID.randomUUID().toString();
+        } else {
+            context.getLogger().log("Resuming run " + runId + " with " + pendingShards.size() + " unfinished shards, "
+                    + leasedShards + " still leased to running workers");
+        }
+
+        List<SyncRequest> requests = new ArrayList<>(pendingShards.size());
+        for (int shard : pendingShards) {
+            // Leased before the invoke, so a coordinator starting meanwhile will not dispatch it again
+            shardProgressService.recordDispatch(shard, totalShards, runId, progress[shard]);
+            requests.add(new SyncRequest(shard, totalShards, runId));
+        }
+
+        try {
+            if (invoker == null) {
+                new InProcessShardInvoker(request -> syncShard(request, context)).invokeAll(requests);
+                compactIfFinished(totalShards, runId);
+            } else {
+                invoker.invokeAll(requests);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching shards", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to dispatch shards for run " + runId, e);
+        }
+
+        return "Dispatched " + requests.size() + " of " + totalShards + " shards for run " + runId;
+    }
+
+    private void compactIfFinished(int totalShards, String runId) {
+        ShardProgress[] progress = new ShardProgress[totalShards];
+        for (int shard = 0; shard < totalShards; shard++) {
+            progress[shard] = shardProgressService.load(shard, totalShards);
+            if (progress[shard] == null || !progress[shard].isCompleted() || !runId.equals(progress[shard].getRunId())) {
+                return;
+            }
+        }
+        compact(progress, totalShards);
+    }
+
+    private void compact(ShardProgress[] progress, int totalShards) {
+        for (int shard = 0; shard < totalShards; shard++) {
+            if (progress[shard] != null) {
+                shardProgressService.delete(shard, totalShards);
+            }
+        }
+    }
+
+    /**
+     * Syncs one scan segment page by page, checkpointing the last evaluated
+     * username after every fully synced page.
+     */
+    private String syncShard(SyncRequest request, Context context) {
+        int shard = request.getShard();
+        int totalShards = request.getTotalShards();
+        String runId = request.getRunId();
+
+        String startAfter = null;
+        int usersSynced = 0;
+        if (shardProgressService != null) {
+            ShardProgress progress = shardProgressService.load(shard, totalShards);
+            if (progress != null && runId.equals(progress.getRunId())) {
+                if (progress.isCompleted()) {
+                    return "Shard " + shard + "/" + totalShards + " already completed for run " + runId;
                 }
-                
-                // Update user's lastSync timestamp
-                if (userNewCount > 0) {
-                    userService.updateLastSync(username, System.currentTimeMillis());
+                startAfter = progress.getLastEvaluatedUsername();
+                usersSynced = progress.getUsersSynced();
+                if (startAfter != null) {
+                    context.getLogger().log("Resuming shard " + shard + "/" + totalShards + " after " + startAfter);
                 }
-                
-                totalNewSubmissions += userNewCount;
-                context.getLogger().log("User " + username + ": " + userNewCount + " new submissions");
-                
-            } catch (IOException | InterruptedException e) {
-                context.getLogger().log("Failed to sync user " + username + ": " + e.getMessage());
-                // Continue with next user instead of failing completely
             }
         }
 
-        return "Synced " + usernames.size() + " users with " + totalNewSubmissions + " total new submissions";
+        long start = System.nanoTime();
+        SyncMetrics metrics = new SyncMetrics();
+        List<SyncReport> pageReports = new ArrayList<>();
+        int[] synced = {usersSynced};
+        boolean[] paused = {false};
+        try {
+            userService.scanSegmentFrom(shard, totalShards, startAfter, SHARD_PAGE_SIZE, (page, lastEvaluated) -> {
+                SyncReport pageReport = syncEngine.syncAll(
+                        dueUsers(page, System.currentTimeMillis(), metrics), user -> syncUser(user, metrics));
+                pageReports.add(pageReport);
+                synced[0] += pageReport.getTotalUsers();
+                // Write the page's sync state before the checkpoint moves past it
+                syncStateWriter.flush();
+                if (shardProgressService == null) {
+                    return true;
+                }
+                if (lastEvaluated == null) {
+                    shardProgressService.markCompleted(shard, totalShards, runId, synced[0]);
+                    return true;
+                }
+                // Leave the rest to the next invocation rather than being killed mid-page
+                paused[0] = context.getRemainingTimeInMillis() < CHECKPOINT_MARGIN_MS;
+                if (paused[0]) {
+                    shardProgressService.recordPause(shard, totalShards, runId, lastEvaluated, synced[0]);
+                } else {
+                    shardProgressService.recordPage(shard, totalShards, runId, lastEvaluated, synced[0]);
+                }
+                return !paused[0];
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException("Shard " + shard + "/" + totalShards + " failed", e);
+        }
+
+        SyncReport report = SyncReport.merge(pageReports, System.nanoTime() - start, syncEngine.getMaxConcurrency());
+        context.getLogger().log("Shard " + shard + "/" + totalShards + ": " + report.summary()
+                + ", " + metrics.getUsersNotDue() + " users not due");
+        emitMetrics(context, metrics, "shard", runId);
+
+        return "Shard " + shard + "/" + totalShards + (paused[0] ? " paused after " : " synced ")
+                + report.getTotalUsers() + " users with " + report.getTotalNewSubmissions() + " total new submissions";
+    }
+
+    int syncUser(UserSyncState user, SyncMetrics metrics) throws IOException, InterruptedException {
+        try {
+            return syncUserPhases(user, metrics);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            metrics.recordUserFailed();
+            throw e;
+        }
     }
 
+    private int syncUserPhases(UserSyncState user, SyncMetrics metrics) throws IOException, InterruptedException {
+        String username = user.getUsername();
+        int limit = syncPolicy.limitFor(user);
+
+        // Fetch recent submissions and drop everything at or below the watermark before any write
+        long phaseStart = System.nanoTime();
+        // Bytes are counted per fetch; concurrent shards and segments share the client and its totals
+        List<AcSubmission> submissions = submissionBatcher.fetch(username, limit, metrics::recordBytesReceived);
+        List<AcSubmission> fresh = syncPolicy.newerThanWatermark(user, submissions);
+
+        if (syncPolicy.mayHaveGap(user, limit, submissions, fresh)) {
+            // A full page of new items means the small limit may have cut some off
+            limit = IncrementalSyncPolicy.MAX_LIMIT;
+            submissions = submissionBatcher.fetch(username, limit, metrics::recordBytesReceived);
+            fresh = syncPolicy.newerThanWatermark(user, submissions);
+        }
+        metrics.recordPhase(SyncMetrics.Phase.FETCH, System.nanoTime() - phaseStart);
+
+        // Set the username in each submission
+        for (AcSubmission sub : fresh) {
+            sub.setUsername(username);
+        }
+
+        // Store new submissions: one key query plus batched writes of the missing ones
+        phaseStart = System.nanoTime();
+        int userNewCount;
+        try {
+            userNewCount = dynamoService.storeNewSubmissions(username, fresh);
+        } catch (RuntimeException e) {
+            metrics.recordFailedSubmissions(fresh.size());
+            throw e;
+        } finally {
+            metrics.recordPhase(SyncMetrics.Phase.WRITE, System.nanoTime() - phaseStart);
+        }
+
+        // Advance the watermark, adapt the next fetch size and schedule the next sync from the observed velocity
+        long now = System.currentTimeMillis();
+        int nextLimit = syncPolicy.nextLimit(limit, fresh.size());
+        double velocity = syncScheduler.nextVelocity(user, submissions, now);
+        long lastSync = fresh.isEmpty() ? user.getLastSync() : now;
+        phaseStart = System.nanoTime();
+        syncStateWriter.submit(new UserSyncState(
+                username, lastSync, syncPolicy.nextWatermark(user.getWatermark(), fresh), nextLimit,
+                syncScheduler.nextSyncAt(velocity, now), velocity));
+        metrics.recordPhase(SyncMetrics.Phase.STATE_UPDATE, System.nanoTime() - phaseStart);
+
+        metrics.recordUserSynced(submissions.size(), userNewCount);
+        return userNewCount;
+    }
+
+    /**
+     * Drops users the scheduler has not made due yet and orders the rest hottest first
+     */
+    private List<UserSyncState> dueUsers(List<UserSyncState> page, long now, SyncMetrics metrics) {
+        List<UserSyncState> due = page.stream()
+                .filter(user -> syncScheduler.isDue(user, now))
+                .sorted(syncScheduler.byPriority(now))
+                .toList();
+        metrics.recordUsersNotDue(page.size() - due.size());
+        return due;
+    }
+
+    private void emitMetrics(Context context, SyncMetrics metrics, String mode, String runId) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("requestId", context.getAwsRequestId());
+        if (runId != null) {
+            properties.put("runId", runId);
+        }
+        context.getLogger().log(metrics.toEmf(Map.of("Mode", mode), properties));
+    }
+
+    static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
 }
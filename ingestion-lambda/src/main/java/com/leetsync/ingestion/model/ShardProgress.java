@@ -0,0 +1,66 @@
+package com.leetsync.ingestion.model;
+
+/**
+ * Progress of one shard within a sharded sync run
+ * lastEvaluatedUsername is the scan key after which the shard resumes
+ * leaseExpiresAt (epoch millis) is set at dispatch and renewed by every checkpoint;
+ * until it passes, a worker may still be running the shard. 0 means no worker holds it.
+ */
+public class ShardProgress {
+    private final String runId;
+    private final String lastEvaluatedUsername;
+    private final boolean completed;
+    private final int usersSynced;
+    private final long leaseExpiresAt;
+
+    public ShardProgress(String runId, String lastEvaluatedUsername, boolean completed, int usersSynced) {
+        this(runId, lastEvaluatedUsername, completed, usersSynced, 0);
+    }
+
+    public ShardProgress(String runId, String lastEvaluatedUsername, boolean completed, int usersSynced,
+                         long leaseExpiresAt) {
+        this.runId = runId;
+        this.lastEvaluatedUsername = lastEvaluatedUsername;
+        this.completed = completed;
+        this.usersSynced = usersSynced;
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public String getLastEvaluatedUsername() {
+        return lastEvaluatedUsername;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public int getUsersSynced() {
+        return usersSynced;
+    }
+
+    public long getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    /**
+     * @return true while a dispatched worker may still be running this shard
+     */
+    public boolean isLeased(long nowMillis) {
+        return !completed && leaseExpiresAt > nowMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardProgress{" +
+                "runId='" + runId + '\'' +
+                ", lastEvaluatedUsername='" + lastEvaluatedUsername + '\'' +
+                ", completed=" + completed +
+                ", usersSynced=" + usersSynced +
+                ", leaseExpiresAt=" + leaseExpiresAt +
+                '}';
+    }
+}
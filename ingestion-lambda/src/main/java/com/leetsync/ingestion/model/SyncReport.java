@@ -0,0 +1,85 @@
+package com.leetsync.ingestion.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregated outcome of a sync run: per-user results plus overall throughput
+ * Used to size the concurrency cap against LeetCode's rate limits
+ */
+public class SyncReport {
+    private final List<UserSyncResult> results;
+    private final long elapsedNanos;
+    private final int concurrency;
+
+    public SyncReport(List<UserSyncResult> results, long elapsedNanos, int concurrency) {
+        this.results = List.copyOf(results);
+        this.elapsedNanos = elapsedNanos;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Combines reports from consecutive runs (e.g. the pages of one shard) into one
+     */
+    public static SyncReport merge(List<SyncReport> reports, long elapsedNanos, int concurrency) {
+        List<UserSyncResult> merged = new ArrayList<>();
+        for (SyncReport report : reports) {
+            merged.addAll(report.getResults());
+        }
+        return new SyncReport(merged, elapsedNanos, concurrency);
+    }
+
+    public List<UserSyncResult> getResults() {
+        return results;
+    }
+
+    public int getTotalUsers() {
+        return results.size();
+    }
+
+    public int getFailedUsers() {
+        return (int) results.stream().filter(r -> !r.isSuccess()).count();
+    }
+
+    public int getTotalNewSubmissions() {
+        return results.stream().mapToInt(UserSyncResult::getNewSubmissions).sum();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getUsersPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return results.size() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Per-user latency at the given percentile (0-100) in milliseconds
+     */
+    public long getLatencyPercentileMillis(double percentile) {
+        if (results.isEmpty()) {
+            return 0;
+        }
+        long[] latencies = results.stream().mapToLong(UserSyncResult::getLatencyNanos).toArray();
+        Arrays.sort(latencies);
+        int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+        index = Math.max(0, Math.min(index, latencies.length - 1));
+        return latencies[index] / 1_000_000;
+    }
+
+    public String summary() {
+        return String.format("Sync run: %d users (%d failed), %d new submissions in %d ms, " +
+                        "%.2f users/s at concurrency %d, latency p50=%d ms p95=%d ms max=%d ms",
+                getTotalUsers(), getFailedUsers(), getTotalNewSubmissions(), getElapsedMillis(),
+                getUsersPerSecond(), concurrency,
+                getLatencyPercentileMillis(50), getLatencyPercentileMillis(95), getLatencyPercentileMillis(100));
+    }
+}
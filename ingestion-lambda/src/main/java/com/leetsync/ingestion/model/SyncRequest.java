@@ -0,0 +1,54 @@
+package com.leetsync.ingestion.model;
+
+/**
+ * Invocation payload for SyncHandler
+ * Empty (e.g. the scheduled EventBridge event) means run as coordinator or single worker;
+ * shard/totalShards/runId are set when a coordinator dispatches one shard to a worker
+ */
+public class SyncRequest {
+    private Integer shard;
+    private Integer totalShards;
+    private String runId;
+
+    public SyncRequest() {}
+
+    public SyncRequest(Integer shard, Integer totalShards, String runId) {
+        this.shard = shard;
+        this.totalShards = totalShards;
+        this.runId = runId;
+    }
+
+    public Integer getShard() {
+        return shard;
+    }
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
+
+    public Integer getTotalShards() {
+        return totalShards;
+    }
+    public void setTotalShards(Integer totalShards) {
+        this.totalShards = totalShards;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+
+    public boolean isShardRequest() {
+        return shard != null && totalShards != null && runId != null;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncRequest{" +
+                "shard=" + shard +
+                ", totalShards=" + totalShards +
+                ", runId='" + runId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.leetsync.ingestion.model;
+
+/**
+ * Outcome of syncing a single user, including how long the sync took
+ * A failed sync carries the error message instead of a submission count; the message may be null,
+ * so success is tracked separately
+ */
+public class UserSyncResult {
+    private final String username;
+    private final int newSubmissions;
+    private final long latencyNanos;
+    private final boolean success;
+    private final String error;
+
+    private UserSyncResult(String username, int newSubmissions, long latencyNanos, boolean success, String error) {
+        this.username = username;
+        this.newSubmissions = newSubmissions;
+        this.latencyNanos = latencyNanos;
+        this.success = success;
+        this.error = error;
+    }
+
+    public static UserSyncResult success(String username, int newSubmissions, long latencyNanos) {
+        return new UserSyncResult(username, newSubmissions, latencyNanos, true, null);
+    }
+
+    public static UserSyncResult failure(String username, long latencyNanos, String error) {
+        return new UserSyncResult(username, 0, latencyNanos, false, error);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getNewSubmissions() {
+        return newSubmissions;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public long getLatencyMillis() {
+        return latencyNanos / 1_000_000;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSyncResult{" +
+                "username='" + username + '\'' +
+                ", newSubmissions=" + newSubmissions +
+                ", latencyMs=" + getLatencyMillis() +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package com.leetsync.ingestion.model;
+
+/**
+ * Per-user sync bookkeeping read from the Users table
+ * watermark is the newest submission timestamp (epoch seconds) already stored; 0 means never synced
+ * nextSyncAt (epoch millis, 0 = due now) and velocity (submissions/day) drive the sync scheduler
+ */
+public class UserSyncState {
+    private String username;
+    private long lastSync;
+    private long watermark;
+    private int syncLimit;
+    private long nextSyncAt;
+    private double velocity;
+
+    public UserSyncState() {}
+
+    public UserSyncState(String username, long lastSync, long watermark, int syncLimit) {
+        this(username, lastSync, watermark, syncLimit, 0, 0.0);
+    }
+
+    public UserSyncState(String username, long lastSync, long watermark, int syncLimit, long nextSyncAt, double velocity) {
+        this.username = username;
+        this.lastSync = lastSync;
+        this.watermark = watermark;
+        this.syncLimit = syncLimit;
+        this.nextSyncAt = nextSyncAt;
+        this.velocity = velocity;
+    }
+
+    public static UserSyncState initial(String username) {
+        return new UserSyncState(username, 0, 0, 0);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long getLastSync() {
+        return lastSync;
+    }
+    public void setLastSync(long lastSync) {
+        this.lastSync = lastSync;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public int getSyncLimit() {
+        return syncLimit;
+    }
+    public void setSyncLimit(int syncLimit) {
+        this.syncLimit = syncLimit;
+    }
+
+    public long getNextSyncAt() {
+        return nextSyncAt;
+    }
+    public void setNextSyncAt(long nextSyncAt) {
+        this.nextSyncAt = nextSyncAt;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+    public void setVelocity(double velocity) {
+        this.velocity = velocity;
+    }
+
+    public boolean hasWatermark() {
+        return watermark > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSyncState{" +
+                "username='" + username + '\'' +
+                ", lastSync=" + lastSync +
+                ", watermark=" + watermark +
+                ", syncLimit=" + syncLimit +
+                ", nextSyncAt=" + nextSyncAt +
+                ", velocity=" + velocity +
+                '}';
+    }
+}
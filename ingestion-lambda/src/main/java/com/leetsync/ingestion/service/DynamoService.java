@@ -5,18 +5,36 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
 import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 public class DynamoService {
 
     private static final Logger log = LoggerFactory.getLogger(DynamoService.class);
 
+    // DynamoDB BatchWriteItem accepts at most 25 put requests per call
+    private static final int BATCH_WRITE_SIZE = 25;
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 50;
+
+    private final DynamoDbEnhancedClient enhancedClient;
     private final DynamoDbTable<AcSubmission> table;
 
     public DynamoService(DynamoDbEnhancedClient enhancedClient, String tableName) {
+        this.enhancedClient = enhancedClient;
         this.table = enhancedClient.table(tableName, TableSchema.fromBean(AcSubmission.class));
     }
 
@@ -48,4 +66,86 @@ public class DynamoService {
             return false;
         }
     }
+
+    /**
+     * Stores only the submissions not already in the table for this user.
+     * One key-only query covers the returned timestamp window, then the new
+     * items go out through BatchWriteItem with unprocessed-item retries.
+     *
+     * @return number of submissions written
+     * @throws IllegalStateException if items remain unprocessed after all retries
+     */
+    public int storeNewSubmissions(String username, List<AcSubmission> submissions) throws InterruptedException {
+        if (submissions.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> existingTimestamps = findExistingTimestamps(username, submissions);
+
+        List<AcSubmission> toWrite = new ArrayList<>();
+        Set<Long> seen = new HashSet<>(existingTimestamps);
+        for (AcSubmission submission : submissions) {
+            // Also drops duplicates within the batch itself, which BatchWriteItem rejects
+            if (seen.add(submission.getTimestamp())) {
+                toWrite.add(submission);
+            }
+        }
+        log.info("User {}: {} fetched, {} already stored, {} to write", username, submissions.size(),
+                submissions.size() - toWrite.size(), toWrite.size());
+
+        int written = 0;
+        for (int i = 0; i < toWrite.size(); i += BATCH_WRITE_SIZE) {
+            written += writeBatch(toWrite.subList(i, Math.min(i + BATCH_WRITE_SIZE, toWrite.size())));
+        }
+        return written;
+    }
+
+    private Set<Long> findExistingTimestamps(String username, List<AcSubmission> submissions) {
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        for (AcSubmission submission : submissions) {
+            minTimestamp = Math.min(minTimestamp, submission.getTimestamp());
+            maxTimestamp = Math.max(maxTimestamp, submission.getTimestamp());
+        }
+
+        QueryEnhancedRequest query = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.sortBetween(
+                        Key.builder().partitionValue(username).sortValue(minTimestamp).build(),
+                        Key.builder().partitionValue(username).sortValue(maxTimestamp).build()))
+                .attributesToProject("timestamp")
+                .build();
+
+        Set<Long> existing = new HashSet<>();
+        table.query(query).items().forEach(item -> existing.add(item.getTimestamp()));
+        return existing;
+    }
+
+    private int writeBatch(List<AcSubmission> batch) throws InterruptedException {
+        List<AcSubmission> pending = batch;
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS; attempt++) {
+            WriteBatch.Builder<AcSubmission> writeBatch = WriteBatch.builder(AcSubmission.class)
+                    .mappedTableResource(table);
+            pending.forEach(writeBatch::addPutItem);
+
+            BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                    .writeBatches(writeBatch.build())
+                    .build());
+
+            List<AcSubmission> unprocessed = result.unprocessedPutItemsForTable(table);
+            if (unprocessed.isEmpty()) {
+                return batch.size();
+            }
+
+            log.warn("BatchWriteItem left {} of {} items unprocessed (attempt {}/{})",
+                    unprocessed.size(), pending.size(), attempt, MAX_BATCH_ATTEMPTS);
+            pending = unprocessed;
+            if (attempt < MAX_BATCH_ATTEMPTS) {
+                Thread.sleep(BASE_BACKOFF_MS << (attempt - 1));
+            }
+        }
+
+        // Fail the user's sync so the watermark is not advanced past unwritten submissions
+        throw new IllegalStateException("Giving up on " + pending.size() + " unprocessed submissions after "
+                + MAX_BATCH_ATTEMPTS + " attempts");
+    }
 }
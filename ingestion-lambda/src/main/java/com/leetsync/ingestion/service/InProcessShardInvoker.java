@@ -0,0 +1,47 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.SyncRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs every shard worker on its own virtual thread in this JVM and waits for all of them.
+ * Used for local end-to-end runs and tests in place of LambdaShardInvoker.
+ */
+public class InProcessShardInvoker implements ShardInvoker {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessShardInvoker.class);
+
+    private final Function<SyncRequest, String> worker;
+
+    public InProcessShardInvoker(Function<SyncRequest, String> worker) {
+        this.worker = worker;
+    }
+
+    @Override
+    public void invokeAll(List<SyncRequest> shardRequests) throws InterruptedException {
+        List<Future<String>> futures = new ArrayList<>(shardRequests.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (SyncRequest request : shardRequests) {
+                futures.add(executor.submit(() -> worker.apply(request)));
+            }
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                log.info("Shard {}: {}", shardRequests.get(i).getShard(), futures.get(i).get());
+            } catch (ExecutionException e) {
+                // Progress is checkpointed, so a failed shard resumes on the next run
+                log.warn("Shard {} failed", shardRequests.get(i).getShard(), e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.model.UserSyncState;
+
+import java.util.List;
+
+/**
+ * Watermark filtering and adaptive fetch sizing for incremental syncs.
+ * Idle users shrink towards MIN_LIMIT, active users grow towards MAX_LIMIT.
+ */
+public class IncrementalSyncPolicy {
+
+    // recentAcSubmissionList never returns more than 20 items
+    public static final int MAX_LIMIT = 20;
+    public static final int MIN_LIMIT = 5;
+
+    public int limitFor(UserSyncState state) {
+        int limit = state.getSyncLimit();
+        if (!state.hasWatermark() || limit < MIN_LIMIT || limit > MAX_LIMIT) {
+            return MAX_LIMIT;
+        }
+        return limit;
+    }
+
+    public List<AcSubmission> newerThanWatermark(UserSyncState state, List<AcSubmission> submissions) {
+        long watermark = state.getWatermark();
+        return submissions.stream()
+                .filter(sub -> sub.getTimestamp() > watermark)
+                .toList();
+    }
+
+    /**
+     * True when every fetched item is new and the page was full, so older unseen
+     * submissions may lie beyond the limit and a wider fetch is needed.
+     */
+    public boolean mayHaveGap(UserSyncState state, int limit, List<AcSubmission> fetched, List<AcSubmission> fresh) {
+        return state.hasWatermark()
+                && limit < MAX_LIMIT
+                && fetched.size() >= limit
+                && fresh.size() == fetched.size();
+    }
+
+    public int nextLimit(int currentLimit, int newCount) {
+        // Keep twice the recent volume as headroom, halve when nothing new arrived
+        int next = Math.max(newCount * 2, currentLimit / 2);
+        return Math.max(MIN_LIMIT, Math.min(MAX_LIMIT, next));
+    }
+
+    public long nextWatermark(long watermark, List<AcSubmission> fresh) {
+        long next = watermark;
+        for (AcSubmission sub : fresh) {
+            next = Math.max(next, sub.getTimestamp());
+        }
+        return next;
+    }
+}
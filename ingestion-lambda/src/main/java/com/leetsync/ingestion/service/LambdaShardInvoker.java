@@ -0,0 +1,42 @@
+package com.leetsync.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetsync.ingestion.model.SyncRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.InvocationType;
+import software.amazon.awssdk.services.lambda.model.InvokeRequest;
+
+import java.util.List;
+
+/**
+ * Fans shards out as asynchronous invocations of the ingestion function itself,
+ * so every shard gets its own 15-minute Lambda budget
+ */
+public class LambdaShardInvoker implements ShardInvoker {
+
+    private static final Logger log = LoggerFactory.getLogger(LambdaShardInvoker.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LambdaClient lambdaClient;
+    private final String functionName;
+
+    public LambdaShardInvoker(LambdaClient lambdaClient, String functionName) {
+        this.lambdaClient = lambdaClient;
+        this.functionName = functionName;
+    }
+
+    @Override
+    public void invokeAll(List<SyncRequest> shardRequests) throws Exception {
+        for (SyncRequest request : shardRequests) {
+            lambdaClient.invoke(InvokeRequest.builder()
+                    .functionName(functionName)
+                    .invocationType(InvocationType.EVENT)
+                    .payload(SdkBytes.fromUtf8String(MAPPER.writeValueAsString(request)))
+                    .build());
+            log.info("Dispatched {} to {}", request, functionName);
+        }
+    }
+}
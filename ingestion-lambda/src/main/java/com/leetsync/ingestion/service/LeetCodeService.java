@@ -1,105 +1,159 @@
 package com.leetsync.ingestion.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetsync.common.service.LeetCodeClient;
 import com.leetsync.ingestion.model.AcSubmission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
 
 public class LeetCodeService {
 
-    public List<AcSubmission> fetchRecentAcceptedSubmissions(String username, int limit) throws IOException, InterruptedException {
-        String queryJson = buildQueryJson(username, limit);
-        String res = getHttpResponse(queryJson);
-        return parseResponse(res);
+    private static final Logger log = LoggerFactory.getLogger(LeetCodeService.class);
+
+    // ObjectMapper is thread-safe once configured; share it so Jackson's introspection cache stays warm
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final URI DEFAULT_GRAPHQL_URI = URI.create("https://leetcode.com/graphql/");
+
+    private final LeetCodeClient client;
+    private final URI graphqlUri;
+
+    public LeetCodeService() {
+        this(new LeetCodeClient(), DEFAULT_GRAPHQL_URI);
     }
 
-    String buildQueryJson(String username, int limit) {
-        return String.format("""
-            {
-              "query": "query recentAcSubmissions($username: String!, $limit: Int!) { \
-                         recentAcSubmissionList(username: $username, limit: $limit) { \
-                           title titleSlug timestamp runtime memory } }",
-              "variables": {
-                "username": "%s",
-                "limit": %d
-              }
-            }
-            """, username, limit);
+    public LeetCodeService(LeetCodeClient client, URI graphqlUri) {
+        this.client = client;
+        this.graphqlUri = graphqlUri;
     }
 
-    private String getHttpResponse(String queryJson) throws IOException, InterruptedException {
-        HttpRequest req = HttpRequest.newBuilder()
-                .uri(URI.create("https://leetcode.com/graphql/"))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(queryJson))
-                .build();
+    public LeetCodeClient getClient() {
+        return client;
+    }
 
-        HttpClient client = HttpClient.newHttpClient();
-        HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
-        return res.body();
+    public List<AcSubmission> fetchRecentAcceptedSubmissions(String username, int limit) throws IOException, InterruptedException {
+        return fetchRecentAcceptedSubmissions(username, limit, bytes -> { });
     }
 
-    List<AcSubmission> parseResponse(String response) {
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            var root = mapper.readTree(response);
-            var listNode = root.path("data").path("recentAcSubmissionList");
-            
-            // Parse each submission manually to handle runtime/memory parsing
-            List<AcSubmission> submissions = new java.util.ArrayList<>();
-            
-            for (var node : listNode) {
-                AcSubmission submission = new AcSubmission();
-                submission.setTitle(node.path("title").asText());
-                submission.setTitleSlug(node.path("titleSlug").asText());
-                submission.setTimestamp(node.path("timestamp").asLong());
-                
-                // Parse runtime: "0 ms" -> 0
-                String runtimeStr = node.path("runtime").asText();
-                submission.setRuntimeMs(parseRuntime(runtimeStr));
-                
-                // Parse memory: "19.1 MB" -> 19.1
-                String memoryStr = node.path("memory").asText();
-                submission.setMemoryMb(parseMemory(memoryStr));
-                
-                submissions.add(submission);
+    /**
+     * @param onBytes receives the response body bytes of this fetch, for per-run traffic metrics
+     */
+    public List<AcSubmission> fetchRecentAcceptedSubmissions(String username, int limit, LongConsumer onBytes) throws IOException, InterruptedException {
+        String queryJson = buildQueryJson(username, limit);
+        HttpResponse<InputStream> res = client.postJson(graphqlUri, queryJson, HttpResponse.BodyHandlers.ofInputStream(), onBytes);
+        try (InputStream body = res.body()) {
+            if (res.statusCode() != 200) {
+                // Surface throttling/outages as a failed sync instead of "no new submissions"
+                throw new IOException("Failed to fetch submissions. Status: " + res.statusCode());
             }
-            
+            // Decode straight from the body stream; no intermediate String or JsonNode tree
+            List<AcSubmission> submissions = SubmissionDecoder.decode(body);
+            // Drain trailing bytes so the connection goes back to the pool
+            body.transferTo(OutputStream.nullOutputStream());
             return submissions;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return List.of();
         }
     }
-    
-    private Integer parseRuntime(String runtimeStr) {
-        if (runtimeStr == null || runtimeStr.trim().isEmpty()) {
-            return null;
+
+    /**
+     * Fetches several users in one request by aliasing recentAcSubmissionList per user
+     * (u0: ..., u1: ...). Users whose alias errors are re-fetched with single-user requests.
+     * Keys of the returned map follow the iteration order of usernameToLimit.
+     */
+    public Map<String, List<AcSubmission>> fetchRecentAcceptedSubmissions(Map<String, Integer> usernameToLimit) throws IOException, InterruptedException {
+        return fetchRecentAcceptedSubmissions(usernameToLimit, bytes -> { });
+    }
+
+    /**
+     * @param onBytes receives the response body bytes of the batch and of any single-user retries
+     */
+    public Map<String, List<AcSubmission>> fetchRecentAcceptedSubmissions(Map<String, Integer> usernameToLimit,
+                                                                          LongConsumer onBytes) throws IOException, InterruptedException {
+        List<String> usernames = new ArrayList<>(usernameToLimit.keySet());
+        if (usernames.isEmpty()) {
+            return Map.of();
         }
-        try {
-            // Extract number from "0 ms" or similar format
-            String numStr = runtimeStr.replaceAll("[^0-9]", "");
-            return numStr.isEmpty() ? null : Integer.parseInt(numStr);
-        } catch (NumberFormatException e) {
-            return null;
+        if (usernames.size() == 1) {
+            String username = usernames.get(0);
+            return Map.of(username, fetchRecentAcceptedSubmissions(username, usernameToLimit.get(username), onBytes));
         }
+
+        Map<String, List<AcSubmission>> byAlias;
+        HttpResponse<InputStream> res = client.postJson(graphqlUri, buildAliasedQueryJson(usernames, usernameToLimit),
+                HttpResponse.BodyHandlers.ofInputStream(), onBytes);
+        try (InputStream body = res.body()) {
+            if (res.statusCode() != 200) {
+                throw new IOException("Failed to fetch submissions for " + usernames.size() + " users. Status: " + res.statusCode());
+            }
+            byAlias = SubmissionDecoder.decodeAliased(body);
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+
+        Map<String, List<AcSubmission>> result = new LinkedHashMap<>();
+        for (int i = 0; i < usernames.size(); i++) {
+            String username = usernames.get(i);
+            List<AcSubmission> submissions = byAlias.get("u" + i);
+            if (submissions == null) {
+                // One bad alias (e.g. unknown user) must not cost the rest of the batch
+                log.info("Aliased fetch failed for user {}; retrying alone", username);
+                submissions = fetchRecentAcceptedSubmissions(username, usernameToLimit.get(username), onBytes);
+            }
+            result.put(username, submissions);
+        }
+        return result;
     }
-    
-    private Double parseMemory(String memoryStr) {
-        if (memoryStr == null || memoryStr.trim().isEmpty()) {
-            return null;
+
+    String buildAliasedQueryJson(List<String> usernames, Map<String, Integer> usernameToLimit) {
+        StringBuilder params = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        ObjectNode variables = MAPPER.createObjectNode();
+        for (int i = 0; i < usernames.size(); i++) {
+            String username = usernames.get(i);
+            if (i > 0) {
+                params.append(", ");
+            }
+            params.append("$u").append(i).append(": String!, $l").append(i).append(": Int!");
+            fields.append(" u").append(i).append(": recentAcSubmissionList(username: $u").append(i)
+                    .append(", limit: $l").append(i).append(") { title titleSlug timestamp runtime memory }");
+            variables.put("u" + i, username);
+            variables.put("l" + i, usernameToLimit.get(username));
         }
+
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("query", "query recentAcSubmissionsBatch(" + params + ") {" + fields + " }");
+        request.set("variables", variables);
+        return request.toString();
+    }
+
+    String buildQueryJson(String username, int limit) {
+        ObjectNode variables = MAPPER.createObjectNode();
+        variables.put("username", username);
+        variables.put("limit", limit);
+
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("query", "query recentAcSubmissions($username: String!, $limit: Int!) {"
+                + " recentAcSubmissionList(username: $username, limit: $limit) { title titleSlug timestamp runtime memory } }");
+        request.set("variables", variables);
+        return request.toString();
+    }
+
+    List<AcSubmission> parseResponse(String response) {
         try {
-            // Extract number from "19.1 MB" or similar format
-            String numStr = memoryStr.replaceAll("[^0-9.]", "");
-            return numStr.isEmpty() ? null : Double.parseDouble(numStr);
-        } catch (NumberFormatException e) {
-            return null;
+            return SubmissionDecoder.decode(response);
+        } catch (IOException e) {
+            log.warn("Failed to parse submissions response: {}", e.getMessage());
+            return List.of();
         }
     }
 }
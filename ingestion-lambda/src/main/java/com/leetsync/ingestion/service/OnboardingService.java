@@ -0,0 +1,110 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.model.UserSyncState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fast-path sync for users who were just created through the API.
+ * Requests are deduplicated, users the regular schedule already synced are skipped,
+ * and the rest are backfilled together with one aliased LeetCode request.
+ */
+public class OnboardingService {
+
+    private static final Logger log = LoggerFactory.getLogger(OnboardingService.class);
+
+    private final LeetCodeService leetCodeService;
+    private final DynamoService dynamoService;
+    private final UserService userService;
+    private final SyncScheduler syncScheduler;
+    private final IncrementalSyncPolicy syncPolicy = new IncrementalSyncPolicy();
+
+    public OnboardingService(LeetCodeService leetCodeService, DynamoService dynamoService,
+                             UserService userService, SyncScheduler syncScheduler) {
+        this.leetCodeService = leetCodeService;
+        this.dynamoService = dynamoService;
+        this.userService = userService;
+        this.syncScheduler = syncScheduler;
+    }
+
+    /**
+     * Backfills every user that still needs it and returns the usernames that failed
+     */
+    public Set<String> onboard(Collection<String> usernames) throws InterruptedException {
+        Set<String> failed = new LinkedHashSet<>();
+        Map<String, UserSyncState> pending = new LinkedHashMap<>();
+        for (String username : new LinkedHashSet<>(usernames)) {
+            try {
+                UserSyncState state = userService.getSyncState(username);
+                if (state == null) {
+                    log.info("Skipping onboarding for {}: user no longer exists", username);
+                } else if (state.hasWatermark()) {
+                    log.info("Skipping onboarding for {}: already synced", username);
+                } else {
+                    pending.put(username, state);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to load sync state for {}", username, e);
+                failed.add(username);
+            }
+        }
+        if (pending.isEmpty()) {
+            return failed;
+        }
+
+        // recentAcSubmissionList caps at MAX_LIMIT, so that is the deepest history available
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        pending.keySet().forEach(username -> limits.put(username, IncrementalSyncPolicy.MAX_LIMIT));
+        Map<String, List<AcSubmission>> fetched;
+        try {
+            fetched = leetCodeService.fetchRecentAcceptedSubmissions(limits);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Backfill fetch failed for {} users", pending.size(), e);
+            failed.addAll(pending.keySet());
+            return failed;
+        }
+
+        for (Map.Entry<String, UserSyncState> entry : pending.entrySet()) {
+            String username = entry.getKey();
+            try {
+                int stored = backfill(entry.getValue(), fetched.getOrDefault(username, List.of()));
+                log.info("Onboarded user {}: {} submissions backfilled", username, stored);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("Failed to onboard user {}", username, e);
+                failed.add(username);
+            }
+        }
+        return failed;
+    }
+
+    private int backfill(UserSyncState user, List<AcSubmission> submissions) throws InterruptedException {
+        for (AcSubmission sub : submissions) {
+            sub.setUsername(user.getUsername());
+        }
+        int stored = dynamoService.storeNewSubmissions(user.getUsername(), submissions);
+
+        // Hand the user over to the regular schedule with a watermark and cadence already in place
+        long now = System.currentTimeMillis();
+        double velocity = syncScheduler.nextVelocity(user, submissions, now);
+        userService.updateSyncState(new UserSyncState(
+                user.getUsername(),
+                now,
+                syncPolicy.nextWatermark(user.getWatermark(), submissions),
+                syncPolicy.nextLimit(IncrementalSyncPolicy.MAX_LIMIT, submissions.size()),
+                syncScheduler.nextSyncAt(velocity, now),
+                velocity));
+        return stored;
+    }
+}
@@ -0,0 +1,12 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.SyncRequest;
+
+import java.util.List;
+
+/**
+ * Dispatches shard requests from the coordinator to SyncHandler workers
+ */
+public interface ShardInvoker {
+    void invokeAll(List<SyncRequest> shardRequests) throws Exception;
+}
@@ -0,0 +1,120 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.ShardProgress;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records per-shard scan progress in the SyncProgress table so an interrupted
+ * shard worker can resume from the last fully synced page.
+ * Dispatch and every checkpoint renew the shard's lease; a worker cannot outlive the
+ * function timeout, so once the lease (at least that timeout) passes the shard is safe to re-dispatch.
+ */
+public class ShardProgressService {
+
+    // Progress only matters for the run in flight; let DynamoDB TTL clean up the rest
+    private static final Duration PROGRESS_TTL = Duration.ofDays(7);
+
+    private final DynamoDbClient dynamoClient;
+    private final String tableName;
+    private final Duration lease;
+
+    public ShardProgressService(DynamoDbClient dynamoClient, String tableName, Duration lease) {
+        this.dynamoClient = dynamoClient;
+        this.tableName = tableName;
+        this.lease = lease;
+    }
+
+    public ShardProgress load(int shard, int totalShards) {
+        Map<String, AttributeValue> item = dynamoClient.getItem(GetItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of("shardId", AttributeValue.fromS(shardId(shard, totalShards))))
+                .consistentRead(true)
+                .build()).item();
+
+        if (item == null || item.isEmpty()) {
+            return null;
+        }
+        return new ShardProgress(
+                item.get("runId").s(),
+                item.containsKey("lastEvaluatedUsername") ? item.get("lastEvaluatedUsername").s() : null,
+                item.containsKey("completed") && item.get("completed").bool(),
+                item.containsKey("usersSynced") ? Integer.parseInt(item.get("usersSynced").n()) : 0,
+                item.containsKey("leaseExpiresAt") ? Long.parseLong(item.get("leaseExpiresAt").n()) : 0);
+    }
+
+    /**
+     * Leases a shard to a worker about to be invoked, keeping the checkpoint of previous when it is from the same run
+     */
+    public void recordDispatch(int shard, int totalShards, String runId, ShardProgress previous) {
+        boolean sameRun = previous != null && runId.equals(previous.getRunId());
+        save(shard, totalShards, new ShardProgress(runId, sameRun ? previous.getLastEvaluatedUsername() : null, false,
+                sameRun ? previous.getUsersSynced() : 0, leaseFromNow()));
+    }
+
+    /**
+     * Checkpoints a page and renews the worker's lease
+     */
+    public void recordPage(int shard, int totalShards, String runId, String lastEvaluatedUsername, int usersSynced) {
+        save(shard, totalShards, new ShardProgress(runId, lastEvaluatedUsername, false, usersSynced, leaseFromNow()));
+    }
+
+    /**
+     * Checkpoints a page and gives up the lease, for a worker stopping early so the next dispatch can resume at once
+     */
+    public void recordPause(int shard, int totalShards, String runId, String lastEvaluatedUsername, int usersSynced) {
+        save(shard, totalShards, new ShardProgress(runId, lastEvaluatedUsername, false, usersSynced));
+    }
+
+    public void markCompleted(int shard, int totalShards, String runId, int usersSynced) {
+        save(shard, totalShards, new ShardProgress(runId, null, true, usersSynced));
+    }
+
+    /**
+     * Drops the checkpoint of a shard once its run is finished; TTL only covers abandoned runs
+     */
+    public void delete(int shard, int totalShards) {
+        dynamoClient.deleteItem(DeleteItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of("shardId", AttributeValue.fromS(shardId(shard, totalShards))))
+                .build());
+    }
+
+    private void save(int shard, int totalShards, ShardProgress progress) {
+        Instant now = Instant.now();
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("shardId", AttributeValue.fromS(shardId(shard, totalShards)));
+        item.put("runId", AttributeValue.fromS(progress.getRunId()));
+        item.put("completed", AttributeValue.fromBool(progress.isCompleted()));
+        item.put("usersSynced", AttributeValue.fromN(String.valueOf(progress.getUsersSynced())));
+        item.put("updatedAt", AttributeValue.fromN(String.valueOf(now.toEpochMilli())));
+        item.put("ttl", AttributeValue.fromN(String.valueOf(now.plus(PROGRESS_TTL).getEpochSecond())));
+        if (progress.getLeaseExpiresAt() > 0) {
+            item.put("leaseExpiresAt", AttributeValue.fromN(String.valueOf(progress.getLeaseExpiresAt())));
+        }
+        if (progress.getLastEvaluatedUsername() != null) {
+            item.put("lastEvaluatedUsername", AttributeValue.fromS(progress.getLastEvaluatedUsername()));
+        }
+
+        dynamoClient.putItem(PutItemRequest.builder()
+                .tableName(tableName)
+                .item(item)
+                .build());
+    }
+
+    private long leaseFromNow() {
+        return System.currentTimeMillis() + lease.toMillis();
+    }
+
+    static String shardId(int shard, int totalShards) {
+        return shard + "/" + totalShards;
+    }
+}
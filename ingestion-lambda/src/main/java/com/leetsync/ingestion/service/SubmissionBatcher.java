@@ -0,0 +1,161 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Coalesces concurrent single-user fetches from sync workers into aliased multi-user
+ * requests of up to batchSize users. A batch is sent as soon as it is full, or after
+ * linger when fewer workers are waiting. Workers still see a per-user blocking call,
+ * so per-user failure isolation in SyncEngine is unchanged. The bytes of a shared request
+ * are split evenly across its callers, including a second caller for a user already in the
+ * window, so every caller's onBytes sees its own share.
+ */
+public class SubmissionBatcher {
+
+    private final LeetCodeService leetCodeService;
+    private final int batchSize;
+    private final Duration linger;
+
+    private final Object lock = new Object();
+    private Map<String, Pending> pending = new LinkedHashMap<>();
+    private long generation;
+
+    public SubmissionBatcher(LeetCodeService leetCodeService, int batchSize, Duration linger) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1, got " + batchSize);
+        }
+        this.leetCodeService = leetCodeService;
+        this.batchSize = batchSize;
+        this.linger = linger;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public List<AcSubmission> fetch(String username, int limit) throws IOException, InterruptedException {
+        return fetch(username, limit, bytes -> { });
+    }
+
+    public List<AcSubmission> fetch(String username, int limit, LongConsumer onBytes) throws IOException, InterruptedException {
+        if (batchSize == 1) {
+            return leetCodeService.fetchRecentAcceptedSubmissions(username, limit, onBytes);
+        }
+
+        Pending request;
+        Map<String, Pending> fullBatch = null;
+        synchronized (lock) {
+            request = pending.get(username);
+            if (request != null) {
+                // Same user twice in one window: fetch once with the larger limit
+                request.limit = Math.max(request.limit, limit);
+                request.onBytes.add(onBytes);
+            } else {
+                request = new Pending(limit, onBytes);
+                pending.put(username, request);
+                if (pending.size() == 1) {
+                    scheduleLingerFlush(generation);
+                }
+                if (pending.size() >= batchSize) {
+                    fullBatch = takeBatch();
+                }
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+
+        try {
+            List<AcSubmission> submissions = request.result.get();
+            // Newest first, so a shared larger fetch is trimmed back to what this caller asked for
+            return submissions.size() > limit ? new ArrayList<>(submissions.subList(0, limit)) : submissions;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Batched fetch failed for user " + username, e.getCause());
+        }
+    }
+
+    private void scheduleLingerFlush(long batchGeneration) {
+        Thread.ofVirtual().start(() -> {
+            try {
+                TimeUnit.NANOSECONDS.sleep(linger.toNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<String, Pending> batch = null;
+            synchronized (lock) {
+                // Skip if this batch already went out full
+                if (generation == batchGeneration && !pending.isEmpty()) {
+                    batch = takeBatch();
+                }
+            }
+            if (batch != null) {
+                send(batch);
+            }
+        });
+    }
+
+    // Caller holds lock
+    private Map<String, Pending> takeBatch() {
+        Map<String, Pending> batch = pending;
+        pending = new LinkedHashMap<>();
+        generation++;
+        return batch;
+    }
+
+    private void send(Map<String, Pending> batch) {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        batch.forEach((username, request) -> limits.put(username, request.limit));
+        AtomicLong bytesReceived = new AtomicLong();
+        try {
+            Map<String, List<AcSubmission>> results = leetCodeService.fetchRecentAcceptedSubmissions(limits, bytesReceived::addAndGet);
+            attributeBytes(batch, bytesReceived.get());
+            batch.forEach((username, request) -> request.result.complete(results.getOrDefault(username, List.of())));
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            attributeBytes(batch, bytesReceived.get());
+            batch.values().forEach(request -> request.result.completeExceptionally(e));
+        }
+    }
+
+    // Before completing the futures, so a caller's share is recorded by the time its fetch returns
+    private static void attributeBytes(Map<String, Pending> batch, long bytes) {
+        int callers = batch.values().stream().mapToInt(request -> request.onBytes.size()).sum();
+        long share = bytes / callers;
+        long remainder = bytes % callers;
+        for (Pending request : batch.values()) {
+            for (LongConsumer onBytes : request.onBytes) {
+                onBytes.accept(share + remainder);
+                remainder = 0;
+            }
+        }
+    }
+
+    private static class Pending {
+        private final CompletableFuture<List<AcSubmission>> result = new CompletableFuture<>();
+        // One per caller waiting on this user; only touched under lock until the batch is taken
+        private final List<LongConsumer> onBytes = new ArrayList<>();
+        private int limit;
+
+        private Pending(int limit, LongConsumer onBytes) {
+            this.limit = limit;
+            this.onBytes.add(onBytes);
+        }
+    }
+}
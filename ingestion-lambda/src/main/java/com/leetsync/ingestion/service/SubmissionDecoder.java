@@ -0,0 +1,199 @@
+package com.leetsync.ingestion.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.leetsync.ingestion.model.AcSubmission;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming decoder for recentAcSubmissionList responses.
+ * Reads AcSubmissions token by token straight from the response body instead of
+ * building a JsonNode tree, and parses "0 ms" / "19.1 MB" without regexes.
+ */
+public final class SubmissionDecoder {
+
+    // JsonFactory is thread-safe and caches symbol tables across parsers. The caller owns
+    // the stream: closing it early would make HttpClient drop the pooled connection
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    // Powers of ten that are exact doubles, for scaling the memory mantissa
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private SubmissionDecoder() {}
+
+    public static List<AcSubmission> decode(InputStream body) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return decode(parser);
+        }
+    }
+
+    public static List<AcSubmission> decode(String body) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return decode(parser);
+        }
+    }
+
+    private static List<AcSubmission> decode(JsonParser parser) throws IOException {
+        List<AcSubmission> submissions = readResponse(parser, new HashSet<>()).get("recentAcSubmissionList");
+        return submissions == null ? new ArrayList<>() : submissions;
+    }
+
+    /**
+     * Decodes a response with aliased recentAcSubmissionList fields (u0: ..., u1: ...).
+     * Aliases that came back null or are named in an error's path are left out of the map.
+     */
+    public static Map<String, List<AcSubmission>> decodeAliased(InputStream body) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            Set<String> erroredAliases = new HashSet<>();
+            Map<String, List<AcSubmission>> byAlias = readResponse(parser, erroredAliases);
+            byAlias.keySet().removeAll(erroredAliases);
+            return byAlias;
+        }
+    }
+
+    // { "data": { "<alias>": [ ... ], ... }, "errors": [ { "path": ["<alias>"] } ] }
+    private static Map<String, List<AcSubmission>> readResponse(JsonParser parser, Set<String> erroredAliases) throws IOException {
+        Map<String, List<AcSubmission>> byAlias = new HashMap<>();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return byAlias;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String alias = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY) {
+                        List<AcSubmission> submissions = new ArrayList<>();
+                        readSubmissions(parser, submissions);
+                        byAlias.put(alias, submissions);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("errors".equals(field) && value == JsonToken.START_ARRAY) {
+                readErrorPaths(parser, erroredAliases);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return byAlias;
+    }
+
+    private static void readErrorPaths(JsonParser parser, Set<String> erroredAliases) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("path".equals(field) && value == JsonToken.START_ARRAY) {
+                    // The first path element is the top-level field (alias) that failed
+                    if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        erroredAliases.add(parser.getText());
+                    }
+                    while (parser.currentToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                        parser.nextToken();
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static void readSubmissions(JsonParser parser, List<AcSubmission> submissions) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            AcSubmission submission = new AcSubmission();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "title" -> submission.setTitle(parser.getValueAsString(""));
+                    case "titleSlug" -> submission.setTitleSlug(parser.getValueAsString(""));
+                    // LeetCode sends the timestamp as a string; accept numbers too
+                    case "timestamp" -> submission.setTimestamp(parser.getValueAsLong(0));
+                    case "runtime" -> submission.setRuntimeMs(value == JsonToken.VALUE_STRING ? parseRuntime(parser.getText()) : null);
+                    case "memory" -> submission.setMemoryMb(value == JsonToken.VALUE_STRING ? parseMemory(parser.getText()) : null);
+                    default -> parser.skipChildren();
+                }
+            }
+            submissions.add(submission);
+        }
+    }
+
+    /**
+     * "0 ms" -> 0. Digits are read wherever they appear; null when there are none or on overflow.
+     */
+    static Integer parseRuntime(CharSequence runtime) {
+        if (runtime == null) {
+            return null;
+        }
+        long value = 0;
+        boolean seenDigit = false;
+        for (int i = 0, n = runtime.length(); i < n; i++) {
+            char c = runtime.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) {
+                    return null;
+                }
+                seenDigit = true;
+            }
+        }
+        return seenDigit ? (int) value : null;
+    }
+
+    /**
+     * "19.1 MB" -> 19.1. Digits and a single decimal point are read; null when malformed.
+     */
+    static Double parseMemory(CharSequence memory) {
+        if (memory == null) {
+            return null;
+        }
+        long mantissa = 0;
+        int fractionDigits = -1;
+        boolean seenDigit = false;
+        for (int i = 0, n = memory.length(); i < n; i++) {
+            char c = memory.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (mantissa > (Long.MAX_VALUE - 9) / 10) {
+                    return null;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                seenDigit = true;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.') {
+                if (fractionDigits >= 0) {
+                    return null;
+                }
+                fractionDigits = 0;
+            }
+        }
+        if (!seenDigit) {
+            return null;
+        }
+        if (fractionDigits <= 0) {
+            return (double) mantissa;
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.valueOf(mantissa + "E-" + fractionDigits);
+        }
+        // Correctly rounded, like Double.parseDouble, while the mantissa fits in 53 bits
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+}
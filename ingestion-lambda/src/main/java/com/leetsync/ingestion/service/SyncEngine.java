@@ -0,0 +1,120 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.SyncReport;
+import com.leetsync.ingestion.model.UserSyncResult;
+import com.leetsync.ingestion.model.UserSyncState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Fans user syncs out over virtual threads with a bounded number in flight.
+ * The bound is per engine, not per call, so concurrent syncAll calls on one engine
+ * (in-process shards or scan segments) share maxConcurrency between them.
+ * A failure for one user is recorded in its result and never aborts the run.
+ */
+public class SyncEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncEngine.class);
+
+    @FunctionalInterface
+    public interface UserSync {
+        /**
+         * Syncs one user and returns the number of new submissions stored
+         */
+        int sync(UserSyncState user) throws Exception;
+    }
+
+    private final int maxConcurrency;
+    private final Semaphore permits;
+
+    public SyncEngine(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, got " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @FunctionalInterface
+    public interface UserSource {
+        /**
+         * Pushes every user to sink, possibly from several threads at once
+         */
+        void forEach(Consumer<UserSyncState> sink) throws Exception;
+    }
+
+    public SyncReport syncAll(List<UserSyncState> users, UserSync userSync) {
+        return syncAll(users::forEach, userSync);
+    }
+
+    /**
+     * Starts syncing users as the source produces them. The source blocks while
+     * the cap is reached, so a paged scan is naturally throttled by the workers.
+     */
+    public SyncReport syncAll(UserSource source, UserSync userSync) {
+        List<Future<UserSyncResult>> futures = Collections.synchronizedList(new ArrayList<>());
+        Exception sourceFailure = null;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                source.forEach(user -> {
+                    // Blocks the producing thread once the cap is reached
+                    permits.acquireUninterruptibly();
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return syncOne(user, userSync);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                });
+            } catch (Exception e) {
+                // Let already-submitted syncs finish before surfacing the failure
+                sourceFailure = e;
+            }
+        } // close() waits for every submitted sync to finish
+
+        long elapsedNanos = System.nanoTime() - start;
+        List<UserSyncResult> results = new ArrayList<>(futures.size());
+        for (Future<UserSyncResult> future : futures) {
+            results.add(future.resultNow());
+        }
+        SyncReport report = new SyncReport(results, elapsedNanos, maxConcurrency);
+
+        if (sourceFailure != null) {
+            log.error("User enumeration failed after {} users: {}", results.size(), report.summary());
+            throw new IllegalStateException("User enumeration failed", sourceFailure);
+        }
+        return report;
+    }
+
+    private UserSyncResult syncOne(UserSyncState user, UserSync userSync) {
+        String username = user.getUsername();
+        long start = System.nanoTime();
+        try {
+            int newSubmissions = userSync.sync(user);
+            return UserSyncResult.success(username, newSubmissions, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return UserSyncResult.failure(username, System.nanoTime() - start, "Interrupted");
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.warn("Sync failed for user {}: {}", username, error);
+            return UserSyncResult.failure(username, System.nanoTime() - start, error);
+        }
+    }
+}
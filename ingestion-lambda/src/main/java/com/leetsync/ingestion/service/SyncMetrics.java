@@ -0,0 +1,170 @@
+package com.leetsync.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-run ingestion instrumentation: a latency histogram per sync phase plus
+ * throughput counters, emitted once at the end of the run as a CloudWatch
+ * Embedded Metric Format (EMF) log line. Safe to update from every sync worker.
+ */
+public class SyncMetrics {
+
+    public static final String NAMESPACE = "LeetSync/Ingestion";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    public enum Phase {
+        FETCH("Fetch"),
+        WRITE("Write"),
+        STATE_UPDATE("StateUpdate");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final LongAdder usersSynced = new LongAdder();
+    private final LongAdder usersFailed = new LongAdder();
+    private final LongAdder usersNotDue = new LongAdder();
+    private final LongAdder fetchedSubmissions = new LongAdder();
+    private final LongAdder newSubmissions = new LongAdder();
+    private final LongAdder failedSubmissions = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    public SyncMetrics() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public void recordPhase(Phase phase, long nanos) {
+        histograms.get(phase).recordNanos(nanos);
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    public void recordUserSynced(int fetched, int stored) {
+        usersSynced.increment();
+        fetchedSubmissions.add(fetched);
+        newSubmissions.add(stored);
+    }
+
+    public void recordUserFailed() {
+        usersFailed.increment();
+    }
+
+    public void recordUsersNotDue(int count) {
+        usersNotDue.add(count);
+    }
+
+    /**
+     * Submissions that were new but could not be written (the user's watermark is not advanced)
+     */
+    public void recordFailedSubmissions(int count) {
+        failedSubmissions.add(count);
+    }
+
+    public void recordBytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    public long getUsersSynced() {
+        return usersSynced.sum();
+    }
+
+    public long getUsersFailed() {
+        return usersFailed.sum();
+    }
+
+    /**
+     * Users skipped because the scheduler had not made them due yet
+     */
+    public long getUsersNotDue() {
+        return usersNotDue.sum();
+    }
+
+    public long getNewSubmissions() {
+        return newSubmissions.sum();
+    }
+
+    /**
+     * Fetched submissions that were already stored (below the watermark or an existing key)
+     */
+    public long getDuplicateSubmissions() {
+        return fetchedSubmissions.sum() - newSubmissions.sum();
+    }
+
+    public long getFailedSubmissions() {
+        return failedSubmissions.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Single-line EMF record; CloudWatch extracts the metrics from the Lambda log stream.
+     * Dimensions become metric dimensions; properties are searchable but not metrics.
+     */
+    public String toEmf(Map<String, String> dimensions, Map<String, String> properties) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode directive = MAPPER.createObjectNode();
+        directive.put("Namespace", NAMESPACE);
+        ArrayNode dimensionSet = directive.putArray("Dimensions").addArray();
+        dimensions.keySet().forEach(dimensionSet::add);
+        ArrayNode metrics = directive.putArray("Metrics");
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        putMetric(root, metrics, "UsersSynced", "Count", getUsersSynced());
+        putMetric(root, metrics, "UsersFailed", "Count", getUsersFailed());
+        putMetric(root, metrics, "UsersNotDue", "Count", getUsersNotDue());
+        putMetric(root, metrics, "NewSubmissions", "Count", getNewSubmissions());
+        putMetric(root, metrics, "DuplicateSubmissions", "Count", getDuplicateSubmissions());
+        putMetric(root, metrics, "FailedSubmissions", "Count", getFailedSubmissions());
+        putMetric(root, metrics, "BytesReceived", "Bytes", getBytesReceived());
+        putMetric(root, metrics, "RunDuration", "Milliseconds", elapsedNanos / 1_000_000.0);
+        putMetric(root, metrics, "UsersPerSecond", "Count/Second",
+                elapsedSeconds <= 0 ? 0.0 : (getUsersSynced() + getUsersFailed()) / elapsedSeconds);
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = histograms.get(phase);
+            for (double percentile : PERCENTILES) {
+                putMetric(root, metrics, phase.metricName + "LatencyP" + (int) percentile, "Milliseconds",
+                        histogram.getPercentileMillis(percentile));
+            }
+            putMetric(root, metrics, phase.metricName + "LatencyMax", "Milliseconds", histogram.getMaxMillis());
+            root.put(phase.metricName + "Count", histogram.getCount());
+        }
+
+        ObjectNode aws = MAPPER.createObjectNode();
+        aws.put("Timestamp", System.currentTimeMillis());
+        aws.putArray("CloudWatchMetrics").add(directive);
+        root.set("_aws", aws);
+        dimensions.forEach(root::put);
+        properties.forEach(root::put);
+        return root.toString();
+    }
+
+    private static void putMetric(ObjectNode root, ArrayNode metrics, String name, String unit, long value) {
+        metrics.addObject().put("Name", name).put("Unit", unit);
+        root.put(name, value);
+    }
+
+    private static void putMetric(ObjectNode root, ArrayNode metrics, String name, String unit, double value) {
+        metrics.addObject().put("Name", name).put("Unit", unit);
+        root.put(name, value);
+    }
+}
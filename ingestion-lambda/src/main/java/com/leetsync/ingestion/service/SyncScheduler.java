@@ -0,0 +1,78 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.model.UserSyncState;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides how often each user is synced. Velocity is an exponentially weighted
+ * average of submissions per day, measured from the timestamps LeetCode returns;
+ * hot users come due again within minInterval, dormant users only every maxInterval.
+ * The scheduled run itself just skips users that are not due yet.
+ */
+public class SyncScheduler {
+
+    private static final Duration VELOCITY_WINDOW = Duration.ofDays(7);
+    private static final double SMOOTHING = 0.5;
+    private static final double MILLIS_PER_DAY = Duration.ofDays(1).toMillis();
+    // Runs fire on a fixed cadence; without slack a user due seconds after a run waits a whole extra period
+    private static final long DUE_SLACK_MILLIS = Duration.ofMinutes(5).toMillis();
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+
+    public SyncScheduler(Duration minInterval, Duration maxInterval) {
+        if (minInterval.compareTo(maxInterval) > 0) {
+            throw new IllegalArgumentException("minInterval must not exceed maxInterval");
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    public boolean isDue(UserSyncState state, long nowMillis) {
+        return state.getNextSyncAt() <= nowMillis + DUE_SLACK_MILLIS;
+    }
+
+    /**
+     * Higher runs first: never-synced users, then the most overdue weighted by velocity
+     */
+    public double priority(UserSyncState state, long nowMillis) {
+        if (!state.hasWatermark()) {
+            return Double.MAX_VALUE;
+        }
+        double overdueHours = Math.max(0, nowMillis - state.getNextSyncAt()) / 3_600_000.0;
+        return (1 + overdueHours) * (1 + state.getVelocity());
+    }
+
+    public Comparator<UserSyncState> byPriority(long nowMillis) {
+        return Comparator.comparingDouble((UserSyncState state) -> priority(state, nowMillis)).reversed();
+    }
+
+    /**
+     * Folds the submissions seen in the last week into the smoothed velocity.
+     * A saturated page only gives a lower bound, which errs towards syncing more often.
+     */
+    public double nextVelocity(UserSyncState state, List<AcSubmission> fetched, long nowMillis) {
+        long windowStart = (nowMillis - VELOCITY_WINDOW.toMillis()) / 1000;
+        long recent = fetched.stream().filter(sub -> sub.getTimestamp() >= windowStart).count();
+        double sample = recent / (double) VELOCITY_WINDOW.toDays();
+        if (!state.hasWatermark() && state.getVelocity() == 0) {
+            return sample;
+        }
+        return SMOOTHING * sample + (1 - SMOOTHING) * state.getVelocity();
+    }
+
+    /**
+     * Interval shrinks with velocity: zero velocity waits maxInterval, about one
+     * submission per day waits most of a day, very active users wait minInterval.
+     */
+    public long nextSyncAt(double velocity, long nowMillis) {
+        double idleRate = MILLIS_PER_DAY / maxInterval.toMillis();
+        long interval = (long) (MILLIS_PER_DAY / (velocity + idleRate));
+        interval = Math.max(minInterval.toMillis(), Math.min(maxInterval.toMillis(), interval));
+        return nowMillis + interval;
+    }
+}
@@ -0,0 +1,142 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.UserSyncState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescing, batched writer for per-user sync state (lastSync, watermark, limit, schedule).
+ * Updates are coalesced per user, and every batchSize users are handed to a background
+ * flusher that writes them with UserService.updateSyncStates. That call sends one conditional
+ * TransactWriteItems per 100 users, so a run makes one round trip per batch
+ * instead of one per user. Sync workers only buffer. A worker waits only when
+ * MAX_QUEUED_BATCHES batches are already queued behind a slow table.
+ *
+ * Nothing is flushed implicitly: callers flush at each checkpoint and before their invocation ends.
+ * Only states whose submissions are already stored may be submitted. Losing the
+ * buffer (crash, timeout) then only loses watermark advances: the next run re-fetches
+ * those submissions and the existence check in DynamoService drops them again.
+ */
+public class SyncStateWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncStateWriter.class);
+
+    // Backpressure: beyond this, submit blocks instead of buffering without bound
+    private static final int MAX_QUEUED_BATCHES = 4;
+
+    private final UserService userService;
+    private final int batchSize;
+    private final Map<String, UserSyncState> pending = new LinkedHashMap<>();
+    // One thread, so batches are written in order and flush can wait for all of them behind its own
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(Thread.ofVirtual().factory());
+    private final Semaphore queuedBatches = new Semaphore(MAX_QUEUED_BATCHES);
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public SyncStateWriter(UserService userService, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1, got " + batchSize);
+        }
+        this.userService = userService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Buffers a state; a full buffer is handed to the flusher without waiting for the write.
+     */
+    public void submit(UserSyncState state) {
+        List<UserSyncState> batch = null;
+        synchronized (pending) {
+            UserSyncState previous = pending.get(state.getUsername());
+            // A newer watermark always wins; the conditional update would reject the older one anyway
+            if (previous == null || state.getWatermark() >= previous.getWatermark()) {
+                pending.put(state.getUsername(), state);
+            }
+            if (pending.size() >= batchSize) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            enqueue(batch);
+        }
+    }
+
+    /**
+     * Writes everything still buffered and waits until every batch handed off so far is written.
+     * Called at the end of a run and before each checkpoint.
+     */
+    public void flush() {
+        List<UserSyncState> batch;
+        synchronized (pending) {
+            batch = drain();
+        }
+        Future<?> last = batch.isEmpty() ? flusher.submit(() -> { }) : enqueue(batch);
+        try {
+            last.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while flushing sync state; unwritten users are re-fetched next run");
+        } catch (ExecutionException e) {
+            // write() handles its own failures; anything here is a bug, not a lost write to retry
+            throw new IllegalStateException("Sync state flusher failed", e.getCause());
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private List<UserSyncState> drain() {
+        List<UserSyncState> batch = new ArrayList<>(pending.values());
+        pending.clear();
+        return batch;
+    }
+
+    private Future<?> enqueue(List<UserSyncState> batch) {
+        queuedBatches.acquireUninterruptibly();
+        return flusher.submit(() -> {
+            try {
+                write(batch);
+            } finally {
+                queuedBatches.release();
+            }
+        });
+    }
+
+    private void write(List<UserSyncState> batch) {
+        List<UserSyncState> failures;
+        try {
+            failures = userService.updateSyncStates(batch);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} sync states", batch.size(), e);
+            failures = batch;
+        }
+        written.addAndGet(batch.size() - failures.size());
+        if (!failures.isEmpty()) {
+            // Safe to drop: these users keep their old watermark and are re-fetched next time
+            failed.addAndGet(failures.size());
+            log.warn("{} of {} sync state updates failed", failures.size(), batch.size());
+        }
+    }
+}
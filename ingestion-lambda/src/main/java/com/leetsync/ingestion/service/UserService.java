@@ -1,14 +1,31 @@
 package com.leetsync.ingestion.service;
 
-// No User model needed - this service only reads usernames and updates timestamps
+// No User model needed - this service only reads sync state and updates timestamps
+import com.leetsync.ingestion.model.UserSyncState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class UserService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final String SYNC_STATE_PROJECTION = "username, lastSync, watermark, syncLimit, nextSyncAt, velocity";
+    // TransactWriteItems limit
+    private static final int MAX_TRANSACT_ITEMS = 100;
     
     private final DynamoDbClient dynamoClient;
     private final String tableName;
@@ -21,15 +38,130 @@ public class UserService {
     public List<String> getAllUsernames() {
         ScanRequest scanRequest = ScanRequest.builder()
                 .tableName(tableName)
+                .projectionExpression("username")
                 .build();
 
-        ScanResponse response = dynamoClient.scan(scanRequest);
-        
-        return response.items().stream()
+        // The paginator follows LastEvaluatedKey so nothing past the first 1 MB is dropped
+        return dynamoClient.scanPaginator(scanRequest).items().stream()
                 .map(item -> item.get("username").s())
                 .collect(Collectors.toList());
     }
 
+    public List<UserSyncState> getAllSyncStates() {
+        List<UserSyncState> states = Collections.synchronizedList(new ArrayList<>());
+        scanSyncStates(1, states::addAll);
+        return states;
+    }
+
+    /**
+     * Streams sync state page by page using a DynamoDB parallel scan.
+     * Each segment is paged on its own virtual thread and every page is handed
+     * to pageConsumer as soon as it arrives, so it must be thread-safe.
+     */
+    public void scanSyncStates(int totalSegments, Consumer<List<UserSyncState>> pageConsumer) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("totalSegments must be at least 1, got " + totalSegments);
+        }
+
+        List<Future<Integer>> segments = new ArrayList<>(totalSegments);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int segment = 0; segment < totalSegments; segment++) {
+                int currentSegment = segment;
+                segments.add(executor.submit(() -> scanSegment(currentSegment, totalSegments, pageConsumer)));
+            }
+        }
+
+        int total = 0;
+        for (int segment = 0; segment < totalSegments; segment++) {
+            try {
+                total += segments.get(segment).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Scan of Users segment " + segment + " failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while scanning Users", e);
+            }
+        }
+        log.info("Scanned {} users across {} segments", total, totalSegments);
+    }
+
+    private int scanSegment(int segment, int totalSegments, Consumer<List<UserSyncState>> pageConsumer) {
+        ScanRequest.Builder scanRequest = ScanRequest.builder()
+                .tableName(tableName)
+                .projectionExpression(SYNC_STATE_PROJECTION);
+        if (totalSegments > 1) {
+            scanRequest.segment(segment).totalSegments(totalSegments);
+        }
+
+        int count = 0;
+        for (ScanResponse page : dynamoClient.scanPaginator(scanRequest.build())) {
+            List<UserSyncState> states = page.items().stream()
+                    .map(UserService::toSyncState)
+                    .toList();
+            count += states.size();
+            if (!states.isEmpty()) {
+                pageConsumer.accept(states);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Callback for one page of a resumable segment scan; lastEvaluatedUsername is
+     * the key to resume after, or null when the segment is exhausted. Returning false
+     * stops the scan after this page.
+     */
+    public interface PageHandler {
+        boolean onPage(List<UserSyncState> page, String lastEvaluatedUsername) throws Exception;
+    }
+
+    /**
+     * Scans a single segment page by page, starting after startAfterUsername when set.
+     * Pages are delivered in order on the calling thread so the caller can
+     * checkpoint lastEvaluatedUsername once a page is fully processed.
+     */
+    public void scanSegmentFrom(int segment, int totalSegments, String startAfterUsername, int pageSize,
+                                PageHandler pageHandler) throws Exception {
+        Map<String, AttributeValue> startKey = startAfterUsername == null
+                ? null
+                : Map.of("username", AttributeValue.fromS(startAfterUsername));
+
+        do {
+            ScanRequest.Builder scanRequest = ScanRequest.builder()
+                    .tableName(tableName)
+                    .projectionExpression(SYNC_STATE_PROJECTION)
+                    .limit(pageSize)
+                    .exclusiveStartKey(startKey);
+            if (totalSegments > 1) {
+                scanRequest.segment(segment).totalSegments(totalSegments);
+            }
+
+            ScanResponse page = dynamoClient.scan(scanRequest.build());
+            startKey = page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty()
+                    ? page.lastEvaluatedKey()
+                    : null;
+            List<UserSyncState> states = page.items().stream()
+                    .map(UserService::toSyncState)
+                    .toList();
+            if (!pageHandler.onPage(states, startKey == null ? null : startKey.get("username").s())) {
+                return;
+            }
+        } while (startKey != null);
+    }
+
+    /**
+     * Current sync state of one user, or null when the user no longer exists
+     */
+    public UserSyncState getSyncState(String username) {
+        Map<String, AttributeValue> item = dynamoClient.getItem(GetItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of("username", AttributeValue.fromS(username)))
+                .projectionExpression(SYNC_STATE_PROJECTION)
+                .consistentRead(true)
+                .build()).item();
+        return item == null || item.isEmpty() ? null : toSyncState(item);
+    }
+
     public void updateLastSync(String username, long timestamp) {
         UpdateItemRequest updateRequest = UpdateItemRequest.builder()
                 .tableName(tableName)
@@ -42,4 +174,138 @@ public class UserService {
 
         dynamoClient.updateItem(updateRequest);
     }
-}
\ No newline at end of file
+
+    /**
+     * Persists the watermark, next fetch limit and schedule. The condition keeps the
+     * watermark monotonic and avoids recreating a user deleted mid-sync.
+     */
+    public void updateSyncState(UserSyncState state) {
+        Update update = syncStateUpdate(state);
+        UpdateItemRequest updateRequest = UpdateItemRequest.builder()
+                .tableName(update.tableName())
+                .key(update.key())
+                .updateExpression(update.updateExpression())
+                .conditionExpression(update.conditionExpression())
+                .expressionAttributeValues(update.expressionAttributeValues())
+                .build();
+
+        try {
+            dynamoClient.updateItem(updateRequest);
+        } catch (ConditionalCheckFailedException e) {
+            log.info("Skipped sync state update for user {}: user removed or watermark already newer", state.getUsername());
+        }
+    }
+
+    /**
+     * Applies sync state updates as TransactWriteItems of up to 100 conditional updates,
+     * one round trip per chunk instead of one per user (BatchWriteItem can neither update
+     * in place nor check the watermark). Transactional writes cost twice the WCU of plain
+     * ones; the run is bound by round trips, not capacity. A transaction is all or nothing,
+     * so when one is cancelled the users whose condition failed are skipped, as in
+     * updateSyncState, and the rest of the chunk is retried one update at a time.
+     *
+     * @param states at most one state per user, as a transaction cannot touch an item twice
+     * @return the states that could not be written
+     */
+    public List<UserSyncState> updateSyncStates(Collection<UserSyncState> states) {
+        List<UserSyncState> all = new ArrayList<>(states);
+        List<UserSyncState> retries = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_TRANSACT_ITEMS) {
+            List<UserSyncState> chunk = all.subList(from, Math.min(from + MAX_TRANSACT_ITEMS, all.size()));
+            try {
+                dynamoClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(chunk.stream()
+                                .map(state -> TransactWriteItem.builder().update(syncStateUpdate(state)).build())
+                                .toList())
+                        .build());
+            } catch (TransactionCanceledException e) {
+                // Reasons are positional, one per item in the chunk
+                List<CancellationReason> reasons = e.cancellationReasons();
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (i < reasons.size() && "ConditionalCheckFailed".equals(reasons.get(i).code())) {
+                        log.info("Skipped sync state update for user {}: user removed or watermark already newer",
+                                chunk.get(i).getUsername());
+                    } else {
+                        retries.add(chunk.get(i));
+                    }
+                }
+            } catch (DynamoDbException e) {
+                log.warn("Sync state transaction of {} updates failed, retrying them one by one: {}",
+                        chunk.size(), e.getMessage());
+                retries.addAll(chunk);
+            }
+        }
+        return retries.isEmpty() ? List.of() : updateEach(retries);
+    }
+
+    /**
+     * Applies the updates as concurrent single conditional UpdateItems
+     *
+     * @return the states that could not be written
+     */
+    private List<UserSyncState> updateEach(Collection<UserSyncState> states) {
+        Map<UserSyncState, Future<?>> writes = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (UserSyncState state : states) {
+                writes.put(state, executor.submit(() -> updateSyncState(state)));
+            }
+        }
+
+        List<UserSyncState> failed = new ArrayList<>();
+        for (Map.Entry<UserSyncState, Future<?>> write : writes.entrySet()) {
+            try {
+                write.getValue().get();
+            } catch (ExecutionException e) {
+                log.warn("Failed to update sync state for user {}", write.getKey().getUsername(), e.getCause());
+                failed.add(write.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(write.getKey());
+            }
+        }
+        return failed;
+    }
+
+    private Update syncStateUpdate(UserSyncState state) {
+        return Update.builder()
+                .tableName(tableName)
+                .key(Map.of("username", AttributeValue.builder().s(state.getUsername()).build()))
+                .updateExpression("SET lastSync = :lastSync, watermark = :watermark, syncLimit = :syncLimit, " +
+                        "nextSyncAt = :nextSyncAt, velocity = :velocity")
+                .conditionExpression("attribute_exists(username) AND (attribute_not_exists(watermark) OR watermark <= :watermark)")
+                .expressionAttributeValues(Map.of(
+                        ":lastSync", AttributeValue.builder().n(String.valueOf(state.getLastSync())).build(),
+                        ":watermark", AttributeValue.builder().n(String.valueOf(state.getWatermark())).build(),
+                        ":syncLimit", AttributeValue.builder().n(String.valueOf(state.getSyncLimit())).build(),
+                        ":nextSyncAt", AttributeValue.builder().n(String.valueOf(state.getNextSyncAt())).build(),
+                        ":velocity", AttributeValue.builder().n(String.valueOf(state.getVelocity())).build()
+                ))
+                .build();
+    }
+
+    static UserSyncState toSyncState(Map<String, AttributeValue> item) {
+        return new UserSyncState(
+                item.get("username").s(),
+                longAttribute(item, "lastSync"),
+                longAttribute(item, "watermark"),
+                (int) longAttribute(item, "syncLimit"),
+                longAttribute(item, "nextSyncAt"),
+                doubleAttribute(item, "velocity"));
+    }
+
+    private static double doubleAttribute(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        if (value == null || value.n() == null) {
+            return 0.0;
+        }
+        return Double.parseDouble(value.n());
+    }
+
+    private static long longAttribute(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        if (value == null || value.n() == null) {
+            return 0;
+        }
+        return Long.parseLong(value.n());
+    }
+}
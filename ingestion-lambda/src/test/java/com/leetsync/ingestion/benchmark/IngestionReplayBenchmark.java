@@ -0,0 +1,187 @@
+package com.leetsync.ingestion.benchmark;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.leetsync.ingestion.handler.SyncHandler;
+import com.leetsync.ingestion.model.SyncReport;
+import com.leetsync.ingestion.model.SyncRequest;
+import com.leetsync.ingestion.model.UserSyncState;
+import com.leetsync.common.service.CircuitBreaker;
+import com.leetsync.common.service.LeetCodeClient;
+import com.leetsync.ingestion.service.LeetCodeService;
+import com.leetsync.common.service.RateLimiter;
+import com.leetsync.ingestion.service.SubmissionBatcher;
+import com.leetsync.ingestion.service.SyncEngine;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline throughput benchmark for ingestion, driven against ReplayServer instead of leetcode.com.
+ *
+ * Fetch-only (no DynamoDB): LeetCodeService + SubmissionBatcher + SyncEngine over synthetic users.
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+ *       com.leetsync.ingestion.benchmark.IngestionReplayBenchmark --users=10000 --latency-ms=80 --error-rate=0.01
+ *
+ * End to end: SyncHandler exactly as wired in Lambda, against DynamoDB Local
+ * (docker run -p 8000:8000 amazon/dynamodb-local). The stub listens on the port in
+ * LEETCODE_GRAPHQL_URL; the tables named in the environment are recreated and seeded.
+ *   DYNAMODB_ENDPOINT=http://localhost:8000 AWS_REGION=us-west-2 AWS_ACCESS_KEY_ID=x AWS_SECRET_ACCESS_KEY=x \
+ *   LEETCODE_GRAPHQL_URL=http://127.0.0.1:8089/graphql/ ACSUBMISSIONS_TABLE_NAME=AcSubmissions USERS_TABLE_NAME=Users \
+ *   SYNC_CONCURRENCY=64 java -cp ... com.leetsync.ingestion.benchmark.IngestionReplayBenchmark --users=10000
+ *
+ * Options: --users, --latency-ms, --jitter-ms, --error-rate, --recordings=dir (from ResponseRecorder),
+ * and for fetch-only runs --concurrency, --batch-size and --rate (requests per second).
+ */
+public class IngestionReplayBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        Path recordings = options.containsKey("recordings") ? Path.of(options.get("recordings")) : null;
+        String dynamoEndpoint = System.getenv("DYNAMODB_ENDPOINT");
+        int port = dynamoEndpoint == null ? 0 : URI.create(System.getenv("LEETCODE_GRAPHQL_URL")).getPort();
+
+        try (ReplayServer server = new ReplayServer(port, recordings)) {
+            server.withLatency(Duration.ofMillis(Long.parseLong(options.getOrDefault("latency-ms", "50"))),
+                            Duration.ofMillis(Long.parseLong(options.getOrDefault("jitter-ms", "20"))))
+                    .withErrorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")));
+
+            long start = System.nanoTime();
+            if (dynamoEndpoint == null) {
+                runFetchOnly(server, users, options);
+            } else {
+                runEndToEnd(dynamoEndpoint, users);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%d users in %.2f s (%.0f users/s); stub served %d requests, %d users, %d injected errors%n",
+                    users, seconds, users / seconds, server.getRequestCount(), server.getUsersServed(),
+                    server.getErrorsInjected());
+        }
+    }
+
+    private static void runFetchOnly(ReplayServer server, int users, Map<String, String> options) {
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(5), Duration.ofSeconds(30),
+                new RateLimiter(rate, 1, rate), new CircuitBreaker(50, Duration.ofSeconds(5)), 4, Duration.ofMillis(50));
+        LeetCodeService service = new LeetCodeService(client, server.getGraphqlUri());
+        SubmissionBatcher batcher = new SubmissionBatcher(service,
+                Integer.parseInt(options.getOrDefault("batch-size", "10")), Duration.ofMillis(25));
+        SyncEngine engine = new SyncEngine(Integer.parseInt(options.getOrDefault("concurrency", "64")));
+
+        List<UserSyncState> states = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            states.add(UserSyncState.initial(username(i)));
+        }
+        SyncReport report = engine.syncAll(states, user -> batcher.fetch(user.getUsername(), 20).size());
+
+        System.out.println(report.summary());
+        System.out.println(client.metricsSummary());
+    }
+
+    private static void runEndToEnd(String dynamoEndpoint, int users) {
+        DynamoDbClient dynamo = DynamoDbClient.builder().endpointOverride(URI.create(dynamoEndpoint)).build();
+        String usersTable = System.getenv("USERS_TABLE_NAME");
+        recreateTable(dynamo, System.getenv("ACSUBMISSIONS_TABLE_NAME"), "username", "timestamp");
+        recreateTable(dynamo, usersTable, "username", null);
+        String progressTable = System.getenv("SYNC_PROGRESS_TABLE_NAME");
+        if (progressTable != null && !progressTable.isBlank()) {
+            recreateTable(dynamo, progressTable, "shardId", null);
+        }
+
+        List<WriteRequest> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            batch.add(WriteRequest.builder().putRequest(PutRequest.builder()
+                    .item(Map.of("username", AttributeValue.fromS(username(i)))).build()).build());
+            if (batch.size() == 25 || i == users - 1) {
+                dynamo.batchWriteItem(BatchWriteItemRequest.builder().requestItems(Map.of(usersTable, batch)).build());
+                batch = new ArrayList<>();
+            }
+        }
+
+        System.out.println(new SyncHandler().handleRequest(new SyncRequest(), new BenchmarkContext()));
+    }
+
+    private static void recreateTable(DynamoDbClient dynamo, String tableName, String hashKey, String numericRangeKey) {
+        try {
+            dynamo.deleteTable(r -> r.tableName(tableName));
+            dynamo.waiter().waitUntilTableNotExists(r -> r.tableName(tableName));
+        } catch (ResourceNotFoundException e) {
+            // First run against this DynamoDB Local instance
+        }
+
+        List<KeySchemaElement> keys = new ArrayList<>(List.of(
+                KeySchemaElement.builder().attributeName(hashKey).keyType(KeyType.HASH).build()));
+        List<AttributeDefinition> attributes = new ArrayList<>(List.of(
+                AttributeDefinition.builder().attributeName(hashKey).attributeType(ScalarAttributeType.S).build()));
+        if (numericRangeKey != null) {
+            keys.add(KeySchemaElement.builder().attributeName(numericRangeKey).keyType(KeyType.RANGE).build());
+            attributes.add(AttributeDefinition.builder().attributeName(numericRangeKey).attributeType(ScalarAttributeType.N).build());
+        }
+        dynamo.createTable(r -> r.tableName(tableName)
+                .keySchema(keys)
+                .attributeDefinitions(attributes)
+                .billingMode(BillingMode.PAY_PER_REQUEST));
+        dynamo.waiter().waitUntilTableExists(r -> r.tableName(tableName));
+    }
+
+    private static String username(int i) {
+        return "user" + i;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    /** Minimal Lambda context: generous time budget, logs to stdout. */
+    private static class BenchmarkContext implements Context {
+        private final LambdaLogger logger = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                System.out.println(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                System.out.println(new String(message));
+            }
+        };
+
+        @Override public String getAwsRequestId() { return "replay-benchmark"; }
+        @Override public String getLogGroupName() { return null; }
+        @Override public String getLogStreamName() { return null; }
+        @Override public String getFunctionName() { return "leetsync-ingestion-lambda-benchmark"; }
+        @Override public String getFunctionVersion() { return "$LATEST"; }
+        @Override public String getInvokedFunctionArn() { return null; }
+        @Override public CognitoIdentity getIdentity() { return null; }
+        @Override public ClientContext getClientContext() { return null; }
+        @Override public int getRemainingTimeInMillis() { return Integer.MAX_VALUE; }
+        @Override public int getMemoryLimitInMB() { return 256; }
+        @Override public LambdaLogger getLogger() { return logger; }
+    }
+}
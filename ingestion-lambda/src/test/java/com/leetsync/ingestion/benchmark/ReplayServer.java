@@ -0,0 +1,186 @@
+package com.leetsync.ingestion.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in for the LeetCode GraphQL endpoint. Answers both the single-user
+ * recentAcSubmissionList query and the aliased batch query (u0/l0, u1/l1, ...) from
+ * recordings made by ResponseRecorder, falling back to deterministic synthetic
+ * submissions for users without a recording.
+ *
+ * Latency (fixed + uniform jitter) and error injection (429/503 at a given rate)
+ * are configurable so retry, rate limiting and batching can be measured offline.
+ */
+public class ReplayServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_LIST_SIZE = 20;
+
+    private final HttpServer server;
+    private final Path recordingDir;
+    private final Map<String, ArrayNode> recordings = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong usersServed = new AtomicLong();
+    private final AtomicLong errorsInjected = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double errorRate;
+
+    /**
+     * @param port         0 for an ephemeral port
+     * @param recordingDir directory of username.json recordings, or null for synthetic data only
+     */
+    public ReplayServer(int port, Path recordingDir) throws IOException {
+        this.recordingDir = recordingDir;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // Injected latency sleeps, so every exchange gets its own virtual thread
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/graphql/", this::handle);
+        server.start();
+    }
+
+    public URI getGraphqlUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/graphql/");
+    }
+
+    public ReplayServer withLatency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        return this;
+    }
+
+    /** Fraction of requests answered with 429 or 503 instead of data. */
+    public ReplayServer withErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getUsersServed() {
+        return usersServed.get();
+    }
+
+    public long getErrorsInjected() {
+        return errorsInjected.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            sleep(latency.toMillis() + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1)));
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errorsInjected.incrementAndGet();
+                int status = ThreadLocalRandom.current().nextBoolean() ? 429 : 503;
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+
+            ObjectNode data = MAPPER.createObjectNode();
+            JsonNode variables = request.path("variables");
+            if (variables.has("username")) {
+                data.set("recentAcSubmissionList", submissions(variables.get("username").asText(),
+                        variables.path("limit").asInt(MAX_LIST_SIZE)));
+            } else {
+                for (Iterator<String> names = variables.fieldNames(); names.hasNext(); ) {
+                    String name = names.next();
+                    if (name.startsWith("u")) {
+                        String index = name.substring(1);
+                        data.set(name, submissions(variables.get(name).asText(),
+                                variables.path("l" + index).asInt(MAX_LIST_SIZE)));
+                    }
+                }
+            }
+
+            byte[] body = MAPPER.writeValueAsBytes(MAPPER.createObjectNode().set("data", data));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private ArrayNode submissions(String username, int limit) {
+        usersServed.incrementAndGet();
+        ArrayNode all = recordings.computeIfAbsent(username, this::load);
+        ArrayNode trimmed = MAPPER.createArrayNode();
+        for (int i = 0; i < Math.min(limit, all.size()); i++) {
+            trimmed.add(all.get(i));
+        }
+        return trimmed;
+    }
+
+    private ArrayNode load(String username) {
+        if (recordingDir != null) {
+            Path file = recordingDir.resolve(username + ".json");
+            if (Files.exists(file)) {
+                try {
+                    return (ArrayNode) MAPPER.readTree(file.toFile());
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unreadable recording " + file, e);
+                }
+            }
+        }
+        return synthetic(username);
+    }
+
+    /** Newest-first submissions derived from the username, so every run sees the same data. */
+    static ArrayNode synthetic(String username) {
+        long seed = username.hashCode() & 0xffffffffL;
+        ArrayNode list = MAPPER.createArrayNode();
+        long timestamp = 1_720_000_000L + seed % 1_000_000;
+        for (int i = 0; i < MAX_LIST_SIZE; i++) {
+            long problem = (seed + i * 37L) % 3000;
+            list.addObject()
+                    .put("title", "Problem " + problem)
+                    .put("titleSlug", "problem-" + problem)
+                    .put("timestamp", String.valueOf(timestamp))
+                    .put("runtime", (seed + i) % 200 + " ms")
+                    .put("memory", 15 + (seed + i) % 30 + "." + i % 10 + " MB");
+            timestamp -= 3_600 + (seed + i * 7919L) % 86_400;
+        }
+        return list;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.leetsync.ingestion.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetsync.common.service.LeetCodeClient;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Captures real recentAcSubmissionList responses as username.json files for ReplayServer.
+ * Requests go through LeetCodeClient, so the usual rate limit and retries apply.
+ *
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) \
+ *       com.leetsync.ingestion.benchmark.ResponseRecorder recordings/ alice bob carol
+ */
+public class ResponseRecorder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final URI GRAPHQL_URI = URI.create("https://leetcode.com/graphql/");
+    private static final String QUERY = "query recentAcSubmissions($username: String!, $limit: Int!) { "
+            + "recentAcSubmissionList(username: $username, limit: $limit) { title titleSlug timestamp runtime memory } }";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: ResponseRecorder <output-dir> <username>...");
+            System.exit(1);
+        }
+        Path outputDir = Files.createDirectories(Path.of(args[0]));
+        LeetCodeClient client = new LeetCodeClient();
+
+        for (int i = 1; i < args.length; i++) {
+            String username = args[i];
+            ObjectNode request = MAPPER.createObjectNode().put("query", QUERY);
+            request.putObject("variables").put("username", username).put("limit", 20);
+
+            HttpResponse<String> response = client.postJson(GRAPHQL_URI, request.toString());
+            JsonNode list = response.statusCode() == 200
+                    ? MAPPER.readTree(response.body()).path("data").path("recentAcSubmissionList")
+                    : null;
+            if (list == null || !list.isArray()) {
+                System.err.println("Skipping " + username + ": status " + response.statusCode());
+                continue;
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(outputDir.resolve(username + ".json").toFile(), list);
+            System.out.println("Recorded " + list.size() + " submissions for " + username);
+        }
+        System.out.println(client.metricsSummary());
+    }
+}
@@ -0,0 +1,113 @@
+package com.leetsync.ingestion.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.service.SubmissionDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming SubmissionDecoder with the previous JsonNode tree + regex parser
+ * on a 20-submission recentAcSubmissionList payload. Allocation rates come from the GC profiler.
+ *
+ * Run main() (or org.openjdk.jmh.Main) on the test classpath, e.g.
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main SubmissionParsing -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubmissionParsingBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private byte[] payload;
+    private String payloadString;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"data\":{\"recentAcSubmissionList\":[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"title\":\"Problem ").append(i)
+                    .append("\",\"titleSlug\":\"problem-").append(i)
+                    .append("\",\"timestamp\":\"").append(1720000000 + i * 97)
+                    .append("\",\"runtime\":\"").append(i * 3).append(" ms")
+                    .append("\",\"memory\":\"").append(16 + i % 7).append('.').append(i % 10).append(" MB\"}");
+        }
+        json.append("]}}");
+        payloadString = json.toString();
+        payload = payloadString.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<AcSubmission> streamingDecoder() throws IOException {
+        // Same shape as production: decode straight from the body InputStream
+        return SubmissionDecoder.decode(new ByteArrayInputStream(payload));
+    }
+
+    @Benchmark
+    public List<AcSubmission> treeAndRegex() throws IOException {
+        // Production previously read the body into a String first
+        return legacyParse(new String(payload, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The parser LeetCodeService used before the streaming decoder, kept as the baseline
+     */
+    static List<AcSubmission> legacyParse(String response) throws IOException {
+        JsonNode listNode = MAPPER.readTree(response).path("data").path("recentAcSubmissionList");
+        List<AcSubmission> submissions = new ArrayList<>();
+        for (JsonNode node : listNode) {
+            AcSubmission submission = new AcSubmission();
+            submission.setTitle(node.path("title").asText());
+            submission.setTitleSlug(node.path("titleSlug").asText());
+            submission.setTimestamp(node.path("timestamp").asLong());
+            submission.setRuntimeMs(legacyRuntime(node.path("runtime").asText()));
+            submission.setMemoryMb(legacyMemory(node.path("memory").asText()));
+            submissions.add(submission);
+        }
+        return submissions;
+    }
+
+    private static Integer legacyRuntime(String runtimeStr) {
+        if (runtimeStr == null || runtimeStr.trim().isEmpty()) {
+            return null;
+        }
+        String numStr = runtimeStr.replaceAll("[^0-9]", "");
+        return numStr.isEmpty() ? null : Integer.parseInt(numStr);
+    }
+
+    private static Double legacyMemory(String memoryStr) {
+        if (memoryStr == null || memoryStr.trim().isEmpty()) {
+            return null;
+        }
+        String numStr = memoryStr.replaceAll("[^0-9.]", "");
+        return numStr.isEmpty() ? null : Double.parseDouble(numStr);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SubmissionParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
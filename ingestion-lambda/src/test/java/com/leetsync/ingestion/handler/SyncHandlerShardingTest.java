@@ -0,0 +1,253 @@
+package com.leetsync.ingestion.handler;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.leetsync.ingestion.model.ShardProgress;
+import com.leetsync.ingestion.model.SyncRequest;
+import com.leetsync.ingestion.model.UserSyncState;
+import com.leetsync.ingestion.service.DynamoService;
+import com.leetsync.common.service.LeetCodeClient;
+import com.leetsync.ingestion.service.LeetCodeService;
+import com.leetsync.ingestion.service.ShardProgressService;
+import com.leetsync.ingestion.service.SubmissionBatcher;
+import com.leetsync.ingestion.service.SyncEngine;
+import com.leetsync.ingestion.service.SyncMetrics;
+import com.leetsync.ingestion.service.SyncScheduler;
+import com.leetsync.ingestion.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SyncHandlerShardingTest {
+
+    private LeetCodeService leetCodeService;
+    private UserService userService;
+    private InMemoryProgress progress;
+    private Context context;
+    private Set<String> synced;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        leetCodeService = mock(LeetCodeService.class);
+        when(leetCodeService.fetchRecentAcceptedSubmissions(anyString(), anyInt(), any())).thenReturn(List.of());
+        when(leetCodeService.getClient()).thenReturn(new LeetCodeClient());
+        userService = mock(UserService.class);
+        progress = new InMemoryProgress();
+        context = mock(Context.class);
+        when(context.getLogger()).thenReturn(mock(LambdaLogger.class));
+        when(context.getRemainingTimeInMillis()).thenReturn(300_000);
+
+        // Shard s holds users s-a, s-b (page 1) and s-c (page 2)
+        synced = ConcurrentHashMap.newKeySet();
+        doAnswer(inv -> {
+            int shard = inv.getArgument(0);
+            String startAfter = inv.getArgument(2);
+            UserService.PageHandler handler = inv.getArgument(4);
+            if (startAfter == null && !handler.onPage(List.of(user(shard + "-a"), user(shard + "-b")), shard + "-b")) {
+                return null;
+            }
+            handler.onPage(List.of(user(shard + "-c")), null);
+            return null;
+        }).when(userService).scanSegmentFrom(anyInt(), anyInt(), any(), anyInt(), any());
+    }
+
+    @Test
+    void coordinator_runsEveryShardInProcessAndCompactsTheFinishedRun() {
+        SyncHandler handler = handler(3);
+
+        String result = handler.handleRequest(new SyncRequest(), context);
+
+        assertTrue(result.startsWith("Dispatched 3 of 3 shards"), result);
+        assertEquals(Set.of("0-a", "0-b", "0-c", "1-a", "1-b", "1-c", "2-a", "2-b", "2-c"), synced);
+        assertEquals(Map.of("0/3", 3, "1/3", 3, "2/3", 3), progress.completions);
+        assertTrue(progress.items.isEmpty());
+    }
+
+    @Test
+    void coordinator_resumesInterruptedShardFromCheckpoint() {
+        progress.recordPage(0, 2, "run-1", null, 0);
+        progress.markCompleted(0, 2, "run-1", 3);
+        // The worker died after its checkpoint and its lease has run out
+        progress.items.put("1/2", new ShardProgress("run-1", "1-b", false, 2, System.currentTimeMillis() - 1));
+        SyncHandler handler = handler(2);
+
+        String result = handler.handleRequest(new SyncRequest(), context);
+
+        assertEquals("Dispatched 1 of 2 shards for run run-1", result);
+        assertEquals(Set.of("1-c"), synced);
+        assertEquals(3, progress.completions.get("1/2"));
+        assertTrue(progress.items.isEmpty());
+    }
+
+    @Test
+    void coordinator_leavesShardsWithALiveLeaseToTheirWorkers() {
+        // Shard 0's worker checkpointed recently and may still be running; shard 1's lease has expired
+        progress.recordPage(0, 2, "run-1", "0-b", 2);
+        progress.items.put("1/2", new ShardProgress("run-1", "1-b", false, 2, System.currentTimeMillis() - 1));
+        SyncHandler handler = handler(2);
+
+        String result = handler.handleRequest(new SyncRequest(), context);
+
+        assertEquals("Dispatched 1 of 2 shards for run run-1", result);
+        assertEquals(Set.of("1-c"), synced);
+        assertEquals("0-b", progress.load(0, 2).getLastEvaluatedUsername());
+        assertFalse(progress.completions.containsKey("0/2"));
+        // Not compacted: shard 0 is still unfinished
+        assertEquals(2, progress.items.size());
+    }
+
+    @Test
+    void coordinator_leasesEveryShardBeforeInvokingItsWorker() throws Exception {
+        List<ShardProgress> atInvoke = new ArrayList<>();
+        SyncHandler handler = new SyncHandler(leetCodeService, new SubmissionBatcher(leetCodeService, 1, Duration.ZERO),
+                mock(DynamoService.class), userService, new SyncEngine(2),
+                new SyncScheduler(Duration.ofHours(1), Duration.ofDays(2)), 1, 2, progress,
+                requests -> requests.forEach(request -> atInvoke.add(progress.load(request.getShard(), 2))));
+
+        handler.handleRequest(new SyncRequest(), context);
+
+        assertEquals(2, atInvoke.size());
+        long now = System.currentTimeMillis();
+        assertTrue(atInvoke.stream().allMatch(shard -> shard.isLeased(now)), atInvoke.toString());
+        // A second coordinator while the async workers run must not dispatch them again
+        assertTrue(handler.handleRequest(new SyncRequest(), context).startsWith("Dispatched 0 of 2 shards"));
+    }
+
+    @Test
+    void journaledRun_pausesNearTimeoutAndResumesOnNextInvocation() {
+        SyncHandler handler = new SyncHandler(leetCodeService, new SubmissionBatcher(leetCodeService, 1, Duration.ZERO),
+                mock(DynamoService.class), userService, new SyncEngine(2),
+                new SyncScheduler(Duration.ofHours(1), Duration.ofDays(2)), 2, 1, progress, null) {
+            @Override
+            int syncUser(UserSyncState user, SyncMetrics metrics) {
+                synced.add(user.getUsername());
+                return 0;
+            }
+        };
+        when(context.getRemainingTimeInMillis()).thenReturn(1_000);
+
+        handler.handleRequest(new SyncRequest(), context);
+
+        assertEquals(Set.of("0-a", "0-b", "1-a", "1-b"), synced);
+        String runId = progress.load(0, 2).getRunId();
+        assertEquals("0-b", progress.load(0, 2).getLastEvaluatedUsername());
+        assertEquals(runId, progress.load(1, 2).getRunId());
+
+        synced.clear();
+        when(context.getRemainingTimeInMillis()).thenReturn(300_000);
+        assertEquals("Dispatched 2 of 2 shards for run " + runId, handler.handleRequest(new SyncRequest(), context));
+
+        assertEquals(Set.of("0-c", "1-c"), synced);
+        assertTrue(progress.items.isEmpty());
+    }
+
+    @Test
+    void coordinator_compactsLeftoverCheckpointsOfAFinishedRunBeforeStartingANewOne() {
+        progress.markCompleted(0, 2, "run-1", 3);
+        progress.markCompleted(1, 2, "run-1", 3);
+        SyncHandler handler = handler(2);
+
+        String result = handler.handleRequest(new SyncRequest(), context);
+
+        assertTrue(result.startsWith("Dispatched 2 of 2 shards"), result);
+        assertFalse(result.endsWith("run-1"), result);
+        assertEquals(6, synced.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handleRequest_flushesBufferedSyncStateWhenTheRunFails() {
+        doAnswer(inv -> {
+            Consumer<List<UserSyncState>> pages = inv.getArgument(1);
+            pages.accept(List.of(user("alice")));
+            throw new IllegalStateException("scan failed");
+        }).when(userService).scanSyncStates(anyInt(), any());
+        List<UserSyncState> written = new ArrayList<>();
+        when(userService.updateSyncStates(any())).thenAnswer(inv -> {
+            written.addAll((Collection<UserSyncState>) inv.getArgument(0));
+            return List.of();
+        });
+        SyncHandler handler = new SyncHandler(leetCodeService, mock(DynamoService.class), userService, new SyncEngine(2), 1);
+
+        assertThrows(IllegalStateException.class, () -> handler.handleRequest(new SyncRequest(), context));
+
+        assertEquals(List.of("alice"), written.stream().map(UserSyncState::getUsername).toList());
+    }
+
+    private SyncHandler handler(int shards) {
+        SyncHandler handler = new SyncHandler(leetCodeService, new SubmissionBatcher(leetCodeService, 1, Duration.ZERO),
+                mock(DynamoService.class), userService, new SyncEngine(2),
+                new SyncScheduler(Duration.ofHours(1), Duration.ofDays(2)), 1, shards, progress, null) {
+            @Override
+            int syncUser(UserSyncState user, SyncMetrics metrics) {
+                synced.add(user.getUsername());
+                return 0;
+            }
+        };
+        return handler;
+    }
+
+    private static UserSyncState user(String username) {
+        return UserSyncState.initial(username);
+    }
+
+    private static class InMemoryProgress extends ShardProgressService {
+        private static final Duration LEASE = Duration.ofMinutes(5);
+        private final Map<String, ShardProgress> items = new ConcurrentHashMap<>();
+        private final Map<String, Integer> completions = new ConcurrentHashMap<>();
+
+        InMemoryProgress() {
+            super(null, "SyncProgress", LEASE);
+        }
+
+        private static long leaseFromNow() {
+            return System.currentTimeMillis() + LEASE.toMillis();
+        }
+
+        @Override
+        public ShardProgress load(int shard, int totalShards) {
+            return items.get(shard + "/" + totalShards);
+        }
+
+        @Override
+        public void recordDispatch(int shard, int totalShards, String runId, ShardProgress previous) {
+            boolean sameRun = previous != null && runId.equals(previous.getRunId());
+            items.put(shard + "/" + totalShards, new ShardProgress(runId, sameRun ? previous.getLastEvaluatedUsername() : null,
+                    false, sameRun ? previous.getUsersSynced() : 0, leaseFromNow()));
+        }
+
+        @Override
+        public void recordPage(int shard, int totalShards, String runId, String lastEvaluatedUsername, int usersSynced) {
+            items.put(shard + "/" + totalShards, new ShardProgress(runId, lastEvaluatedUsername, false, usersSynced,
+                    leaseFromNow()));
+        }
+
+        @Override
+        public void recordPause(int shard, int totalShards, String runId, String lastEvaluatedUsername, int usersSynced) {
+            items.put(shard + "/" + totalShards, new ShardProgress(runId, lastEvaluatedUsername, false, usersSynced));
+        }
+
+        @Override
+        public void markCompleted(int shard, int totalShards, String runId, int usersSynced) {
+            items.put(shard + "/" + totalShards, new ShardProgress(runId, null, true, usersSynced));
+            completions.put(shard + "/" + totalShards, usersSynced);
+        }
+
+        @Override
+        public void delete(int shard, int totalShards) {
+            items.remove(shard + "/" + totalShards);
+        }
+    }
+}
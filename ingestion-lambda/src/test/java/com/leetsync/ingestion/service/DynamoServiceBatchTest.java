@@ -0,0 +1,104 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.awssdk.services.dynamodb.paginators.QueryIterable;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exercises the batch path through a real enhanced client on top of a mocked low-level client
+ */
+class DynamoServiceBatchTest {
+
+    private DynamoDbClient mockClient;
+    private DynamoService service;
+
+    @BeforeEach
+    void setUp() {
+        mockClient = mock(DynamoDbClient.class);
+        when(mockClient.queryPaginator(any(QueryRequest.class)))
+                .thenAnswer(inv -> new QueryIterable(mockClient, inv.getArgument(0)));
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(mockClient)
+                .build();
+        service = new DynamoService(enhancedClient, "Submissions");
+    }
+
+    @Test
+    void storeNewSubmissions_writesOnlyMissingTimestamps() throws Exception {
+        when(mockClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(List.of(Map.of("timestamp", AttributeValue.fromN("100"))))
+                .build());
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        int written = service.storeNewSubmissions("testuser", List.of(
+                submission(100), submission(200), submission(300)));
+
+        assertEquals(2, written);
+        ArgumentCaptor<BatchWriteItemRequest> captor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(mockClient).batchWriteItem(captor.capture());
+        List<WriteRequest> writes = captor.getValue().requestItems().get("Submissions");
+        assertEquals(2, writes.size());
+        assertEquals("200", writes.get(0).putRequest().item().get("timestamp").n());
+        assertEquals("300", writes.get(1).putRequest().item().get("timestamp").n());
+
+        ArgumentCaptor<QueryRequest> queryCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(mockClient).query(queryCaptor.capture());
+        assertEquals("#AMZN_MAPPED_timestamp", queryCaptor.getValue().projectionExpression());
+    }
+
+    @Test
+    void storeNewSubmissions_retriesUnprocessedItems() throws Exception {
+        when(mockClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().items(List.of()).build());
+        AcSubmission throttled = submission(200);
+        WriteRequest unprocessed = WriteRequest.builder()
+                .putRequest(PutRequest.builder().item(Map.of(
+                        "username", AttributeValue.fromS("testuser"),
+                        "timestamp", AttributeValue.fromN("200"),
+                        "title", AttributeValue.fromS(throttled.getTitle()),
+                        "titleSlug", AttributeValue.fromS(throttled.getTitleSlug()))).build())
+                .build();
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder()
+                        .unprocessedItems(Map.of("Submissions", List.of(unprocessed)))
+                        .build())
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        int written = service.storeNewSubmissions("testuser", List.of(submission(100), throttled));
+
+        assertEquals(2, written);
+        verify(mockClient, times(2)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void storeNewSubmissions_skipsWritesWhenEverythingExists() throws Exception {
+        when(mockClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(List.of(Map.of("timestamp", AttributeValue.fromN("100"))))
+                .build());
+
+        assertEquals(0, service.storeNewSubmissions("testuser", List.of(submission(100))));
+        verify(mockClient, never()).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    private AcSubmission submission(long timestamp) {
+        return new AcSubmission("testuser", "Problem " + timestamp, "problem-" + timestamp, timestamp, 10, 20.0);
+    }
+}
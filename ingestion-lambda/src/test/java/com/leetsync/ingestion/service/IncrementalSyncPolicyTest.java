@@ -0,0 +1,54 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.model.UserSyncState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSyncPolicyTest {
+
+    private final IncrementalSyncPolicy policy = new IncrementalSyncPolicy();
+
+    @Test
+    void limitFor_usesMaxUntilUserHasWatermark() {
+        assertEquals(IncrementalSyncPolicy.MAX_LIMIT, policy.limitFor(UserSyncState.initial("newbie")));
+        assertEquals(8, policy.limitFor(new UserSyncState("regular", 1L, 1720000000L, 8)));
+    }
+
+    @Test
+    void newerThanWatermark_dropsAlreadyStoredSubmissions() {
+        UserSyncState state = new UserSyncState("testuser", 1L, 200L, 10);
+
+        List<AcSubmission> fresh = policy.newerThanWatermark(state, List.of(submission(100), submission(200), submission(300)));
+
+        assertEquals(1, fresh.size());
+        assertEquals(300L, fresh.get(0).getTimestamp());
+        assertEquals(300L, policy.nextWatermark(state.getWatermark(), fresh));
+        assertEquals(200L, policy.nextWatermark(state.getWatermark(), List.of()));
+    }
+
+    @Test
+    void nextLimit_shrinksForIdleUsersAndGrowsForActiveOnes() {
+        assertEquals(10, policy.nextLimit(20, 0));
+        assertEquals(IncrementalSyncPolicy.MIN_LIMIT, policy.nextLimit(IncrementalSyncPolicy.MIN_LIMIT, 0));
+        assertEquals(12, policy.nextLimit(5, 6));
+        assertEquals(IncrementalSyncPolicy.MAX_LIMIT, policy.nextLimit(10, 15));
+    }
+
+    @Test
+    void mayHaveGap_onlyWhenSmallPageIsEntirelyNew() {
+        UserSyncState state = new UserSyncState("testuser", 1L, 50L, 2);
+        List<AcSubmission> fetched = List.of(submission(100), submission(200));
+
+        assertTrue(policy.mayHaveGap(state, 2, fetched, fetched));
+        assertFalse(policy.mayHaveGap(state, 2, fetched, List.of(submission(200))));
+        assertFalse(policy.mayHaveGap(state, IncrementalSyncPolicy.MAX_LIMIT, fetched, fetched));
+    }
+
+    private AcSubmission submission(long timestamp) {
+        return new AcSubmission("testuser", "Problem", "problem", timestamp, 1, 1.0);
+    }
+}
@@ -1,9 +1,20 @@
 package com.leetsync.ingestion.service;
 
+import com.leetsync.common.service.LeetCodeClient;
 import com.leetsync.ingestion.model.AcSubmission;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.Test;
 
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -13,10 +24,22 @@ class LeetCodeServiceTest {
     private final LeetCodeService service = new LeetCodeService();
 
     @Test
-    void buildQueryJson_shouldContainUsernameAndLimit() {
-        String json = service.buildQueryJson("testuser", 3);
-        assertTrue(json.contains("\"username\": \"testuser\""));
-        assertTrue(json.contains("\"limit\": 3"));
+    void buildQueryJson_shouldContainUsernameAndLimit() throws Exception {
+        JsonNode request = new ObjectMapper().readTree(service.buildQueryJson("testuser", 3));
+        assertTrue(request.path("query").asText().contains("recentAcSubmissionList(username: $username, limit: $limit)"));
+        assertEquals("testuser", request.path("variables").path("username").asText());
+        assertEquals(3, request.path("variables").path("limit").asInt());
+    }
+
+    @Test
+    void buildQueryJson_escapesTheUsername() throws Exception {
+        String username = "evil\", \"limit\": 1000 }, \"x\": {\"";
+
+        JsonNode request = new ObjectMapper().readTree(service.buildQueryJson(username, 3));
+
+        assertEquals(username, request.path("variables").path("username").asText());
+        assertEquals(3, request.path("variables").path("limit").asInt());
+        assertEquals(2, request.path("variables").size());
     }
 
     @Test
@@ -82,4 +105,63 @@ class LeetCodeServiceTest {
         assertEquals(null, result.get(0).getRuntimeMs());
         assertEquals(null, result.get(0).getMemoryMb());
     }
+
+    @Test
+    void buildAliasedQueryJson_passesUsernamesAsVariables() throws Exception {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        limits.put("alice", 20);
+        limits.put("bo\"b", 5);
+
+        JsonNode request = new ObjectMapper().readTree(service.buildAliasedQueryJson(List.copyOf(limits.keySet()), limits));
+
+        String query = request.path("query").asText();
+        assertTrue(query.contains("u0: recentAcSubmissionList(username: $u0, limit: $l0)"));
+        assertTrue(query.contains("u1: recentAcSubmissionList(username: $u1, limit: $l1)"));
+        assertEquals("bo\"b", request.path("variables").path("u1").asText());
+        assertEquals(5, request.path("variables").path("l1").asInt());
+    }
+
+    @Test
+    void fetchRecentAcceptedSubmissions_splitsAliasesAndRetriesErroredOnesAlone() throws Exception {
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            bodies.add(body);
+            String response = body.contains("recentAcSubmissionsBatch")
+                    ? """
+                      {"data":{"u0":[{"title":"Two Sum","titleSlug":"two-sum","timestamp":"1720000000","runtime":"0 ms","memory":"19.1 MB"}],
+                               "u1":null,"u2":[]},
+                       "errors":[{"message":"timeout","path":["u1"]}]}
+                      """
+                    : """
+                      {"data":{"recentAcSubmissionList":[{"title":"3Sum","titleSlug":"3sum","timestamp":"1720000100","runtime":"5 ms","memory":"20 MB"}]}}
+                      """;
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            LeetCodeService batchService = new LeetCodeService(new LeetCodeClient(),
+                    URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/graphql/"));
+            Map<String, Integer> limits = new LinkedHashMap<>();
+            limits.put("alice", 20);
+            limits.put("bob", 20);
+            limits.put("carol", 20);
+
+            Map<String, List<AcSubmission>> result = batchService.fetchRecentAcceptedSubmissions(limits);
+
+            assertEquals(List.of("alice", "bob", "carol"), List.copyOf(result.keySet()));
+            assertEquals("two-sum", result.get("alice").get(0).getTitleSlug());
+            assertEquals("3sum", result.get("bob").get(0).getTitleSlug());
+            assertTrue(result.get("carol").isEmpty());
+            assertEquals(2, bodies.size());
+            assertTrue(bodies.get(1).contains("\"username\":\"bob\""));
+        } finally {
+            server.stop(0);
+        }
+    }
 }
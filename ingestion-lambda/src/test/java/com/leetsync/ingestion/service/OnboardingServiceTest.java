@@ -0,0 +1,90 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.model.UserSyncState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OnboardingServiceTest {
+
+    private LeetCodeService leetCodeService;
+    private DynamoService dynamoService;
+    private UserService userService;
+    private OnboardingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        leetCodeService = mock(LeetCodeService.class);
+        dynamoService = mock(DynamoService.class);
+        userService = mock(UserService.class);
+        when(dynamoService.storeNewSubmissions(anyString(), anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(1)).size());
+        service = new OnboardingService(leetCodeService, dynamoService, userService,
+                new SyncScheduler(Duration.ofMinutes(60), Duration.ofHours(48)));
+    }
+
+    @Test
+    void onboard_backfillsNewUsersTogetherAtMaxLimit() throws Exception {
+        when(userService.getSyncState("alice")).thenReturn(new UserSyncState("alice", 0, 0, 0));
+        when(userService.getSyncState("bob")).thenReturn(new UserSyncState("bob", 0, 0, 0));
+        when(leetCodeService.fetchRecentAcceptedSubmissions(anyMap())).thenReturn(Map.of(
+                "alice", List.of(submission("two-sum", 1_700_000_200L), submission("add-two-numbers", 1_700_000_100L)),
+                "bob", List.of()));
+
+        Set<String> failed = service.onboard(List.of("alice", "bob", "alice"));
+
+        assertTrue(failed.isEmpty());
+        verify(leetCodeService).fetchRecentAcceptedSubmissions(
+                Map.of("alice", IncrementalSyncPolicy.MAX_LIMIT, "bob", IncrementalSyncPolicy.MAX_LIMIT));
+        verify(leetCodeService, never()).fetchRecentAcceptedSubmissions(anyString(), anyInt());
+
+        ArgumentCaptor<UserSyncState> states = ArgumentCaptor.forClass(UserSyncState.class);
+        verify(userService, times(2)).updateSyncState(states.capture());
+        UserSyncState alice = states.getAllValues().get(0);
+        assertEquals("alice", alice.getUsername());
+        assertEquals(1_700_000_200L, alice.getWatermark());
+        assertTrue(alice.getNextSyncAt() > alice.getLastSync());
+    }
+
+    @Test
+    void onboard_skipsUsersAlreadySyncedOrDeleted() throws Exception {
+        when(userService.getSyncState("synced")).thenReturn(new UserSyncState("synced", 1L, 1_700_000_000L, 5));
+        when(userService.getSyncState("gone")).thenReturn(null);
+
+        assertTrue(service.onboard(List.of("synced", "gone")).isEmpty());
+
+        verifyNoInteractions(leetCodeService, dynamoService);
+        verify(userService, never()).updateSyncState(any());
+    }
+
+    @Test
+    void onboard_reportsUsersWhoseFetchOrWriteFailed() throws Exception {
+        when(userService.getSyncState(anyString())).thenAnswer(inv -> new UserSyncState(inv.getArgument(0), 0, 0, 0));
+        when(leetCodeService.fetchRecentAcceptedSubmissions(anyMap())).thenReturn(Map.of(
+                "alice", List.of(submission("two-sum", 1_700_000_200L)),
+                "bob", List.of(submission("two-sum", 1_700_000_300L))));
+        when(dynamoService.storeNewSubmissions(eq("bob"), anyList())).thenThrow(new IllegalStateException("throttled"));
+
+        assertEquals(Set.of("bob"), service.onboard(List.of("alice", "bob")));
+
+        when(leetCodeService.fetchRecentAcceptedSubmissions(anyMap())).thenThrow(new IOException("down"));
+        assertEquals(Set.of("alice", "bob"), service.onboard(List.of("alice", "bob")));
+    }
+
+    private AcSubmission submission(String slug, long timestamp) {
+        AcSubmission sub = new AcSubmission();
+        sub.setTitleSlug(slug);
+        sub.setTimestamp(timestamp);
+        return sub;
+    }
+}
@@ -0,0 +1,88 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.ShardProgress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Round-trips progress through a mocked low-level client that keeps the last item per shard
+ */
+class ShardProgressServiceTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final Map<AttributeValue, Map<String, AttributeValue>> table = new ConcurrentHashMap<>();
+    private ShardProgressService service;
+
+    @BeforeEach
+    void setUp() {
+        DynamoDbClient mockClient = mock(DynamoDbClient.class);
+        when(mockClient.putItem(any(PutItemRequest.class))).thenAnswer(inv -> {
+            PutItemRequest request = inv.getArgument(0);
+            table.put(request.item().get("shardId"), request.item());
+            return PutItemResponse.builder().build();
+        });
+        when(mockClient.getItem(any(GetItemRequest.class))).thenAnswer(inv -> {
+            GetItemRequest request = inv.getArgument(0);
+            return GetItemResponse.builder().item(table.get(request.key().get("shardId"))).build();
+        });
+        service = new ShardProgressService(mockClient, "SyncProgress", LEASE);
+    }
+
+    @Test
+    void recordDispatch_leasesTheShardAndKeepsItsCheckpointForTheSameRun() {
+        service.recordPause(1, 4, "run-1", "bob", 2);
+        long before = System.currentTimeMillis();
+
+        service.recordDispatch(1, 4, "run-1", service.load(1, 4));
+
+        ShardProgress progress = service.load(1, 4);
+        assertEquals("bob", progress.getLastEvaluatedUsername());
+        assertEquals(2, progress.getUsersSynced());
+        assertTrue(progress.getLeaseExpiresAt() >= before + LEASE.toMillis());
+        assertTrue(progress.isLeased(System.currentTimeMillis()));
+    }
+
+    @Test
+    void recordDispatch_startsANewRunFromTheBeginning() {
+        service.recordPause(1, 4, "run-1", "bob", 2);
+
+        service.recordDispatch(1, 4, "run-2", service.load(1, 4));
+
+        ShardProgress progress = service.load(1, 4);
+        assertEquals("run-2", progress.getRunId());
+        assertNull(progress.getLastEvaluatedUsername());
+        assertEquals(0, progress.getUsersSynced());
+    }
+
+    @Test
+    void recordPage_renewsTheLeaseWhilePauseAndCompletionReleaseIt() {
+        long now = System.currentTimeMillis();
+
+        service.recordPage(0, 2, "run-1", "alice", 1);
+        assertTrue(service.load(0, 2).isLeased(now));
+
+        service.recordPause(0, 2, "run-1", "alice", 1);
+        assertFalse(service.load(0, 2).isLeased(now));
+        assertEquals("alice", service.load(0, 2).getLastEvaluatedUsername());
+
+        service.recordPage(0, 2, "run-1", "bob", 2);
+        service.markCompleted(0, 2, "run-1", 3);
+        assertFalse(service.load(0, 2).isLeased(now));
+        assertTrue(service.load(0, 2).isCompleted());
+    }
+}
@@ -0,0 +1,139 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.model.SyncReport;
+import com.leetsync.ingestion.model.UserSyncState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SubmissionBatcherTest {
+
+    @Test
+    void fetch_coalescesConcurrentUsersIntoBatchesOfK() throws Exception {
+        LeetCodeService service = mock(LeetCodeService.class);
+        List<Map<String, Integer>> batches = new CopyOnWriteArrayList<>();
+        when(service.fetchRecentAcceptedSubmissions(anyMap(), any())).thenAnswer(inv -> {
+            Map<String, Integer> limits = new LinkedHashMap<>(inv.getArgument(0));
+            batches.add(limits);
+            Map<String, List<AcSubmission>> result = new LinkedHashMap<>();
+            limits.keySet().forEach(username -> result.put(username, List.of(submission(username))));
+            return result;
+        });
+        SubmissionBatcher batcher = new SubmissionBatcher(service, 5, Duration.ofMillis(50));
+        List<UserSyncState> users = IntStream.range(0, 12).mapToObj(i -> UserSyncState.initial("user" + i)).toList();
+
+        SyncReport report = new SyncEngine(12).syncAll(users, user -> {
+            List<AcSubmission> submissions = batcher.fetch(user.getUsername(), 20);
+            assertEquals(user.getUsername(), submissions.get(0).getTitleSlug());
+            return submissions.size();
+        });
+
+        assertEquals(0, report.getFailedUsers());
+        assertEquals(12, report.getTotalNewSubmissions());
+        assertEquals(12, batches.stream().mapToInt(Map::size).sum());
+        // Two full batches plus the remainder flushed by the linger timer
+        assertEquals(3, batches.size(), "batches: " + batches);
+        verify(service, never()).fetchRecentAcceptedSubmissions(anyString(), anyInt(), any());
+    }
+
+    @Test
+    void fetch_failsEveryCallerInAFailedBatch() throws Exception {
+        LeetCodeService service = mock(LeetCodeService.class);
+        when(service.fetchRecentAcceptedSubmissions(anyMap(), any())).thenThrow(new IOException("Status: 429"));
+        SubmissionBatcher batcher = new SubmissionBatcher(service, 10, Duration.ofMillis(5));
+
+        IOException error = assertThrows(IOException.class, () -> batcher.fetch("alice", 20));
+        assertEquals("Status: 429", error.getMessage());
+    }
+
+    @Test
+    void fetch_withBatchSizeOneCallsSingleUserQuery() throws Exception {
+        LeetCodeService service = mock(LeetCodeService.class);
+        when(service.fetchRecentAcceptedSubmissions(eq("alice"), eq(5), any())).thenReturn(List.of(submission("a")));
+
+        assertEquals(1, new SubmissionBatcher(service, 1, Duration.ZERO).fetch("alice", 5).size());
+        verify(service, never()).fetchRecentAcceptedSubmissions(anyMap(), any());
+    }
+
+    @Test
+    void fetch_splitsTheBytesOfASharedRequestAcrossItsCallers() throws Exception {
+        LeetCodeService service = mock(LeetCodeService.class);
+        when(service.fetchRecentAcceptedSubmissions(anyMap(), any())).thenAnswer(inv -> {
+            Map<String, Integer> limits = inv.getArgument(0);
+            LongConsumer onBytes = inv.getArgument(1);
+            // One response for the batch plus a single-user retry, as LeetCodeService reports them
+            onBytes.accept(1000);
+            onBytes.accept(1);
+            Map<String, List<AcSubmission>> result = new LinkedHashMap<>();
+            limits.keySet().forEach(username -> result.put(username, List.of(submission(username))));
+            return result;
+        });
+        SubmissionBatcher batcher = new SubmissionBatcher(service, 3, Duration.ofSeconds(5));
+        // Two runs sharing the batcher, like in-process shards
+        LongAdder runA = new LongAdder();
+        LongAdder runB = new LongAdder();
+        List<UserSyncState> users = IntStream.range(0, 3).mapToObj(i -> UserSyncState.initial("user" + i)).toList();
+
+        new SyncEngine(3).syncAll(users, user -> batcher.fetch(user.getUsername(), 20,
+                user.getUsername().equals("user0") ? runA::add : runB::add).size());
+
+        assertEquals(1001, runA.sum() + runB.sum());
+        assertTrue(runA.sum() >= 333 && runA.sum() <= 335, "run A got " + runA.sum());
+    }
+
+    @Test
+    void fetch_givesEveryCallerOfADuplicateUserItsShareOfTheBytes() throws Exception {
+        LeetCodeService service = mock(LeetCodeService.class);
+        when(service.fetchRecentAcceptedSubmissions(anyMap(), any())).thenAnswer(inv -> {
+            Map<String, Integer> limits = inv.getArgument(0);
+            LongConsumer onBytes = inv.getArgument(1);
+            onBytes.accept(900);
+            Map<String, List<AcSubmission>> result = new LinkedHashMap<>();
+            limits.keySet().forEach(username -> result.put(username, List.of(submission(username))));
+            return result;
+        });
+        // Never fills, so all three callers land in one linger window
+        SubmissionBatcher batcher = new SubmissionBatcher(service, 10, Duration.ofMillis(300));
+        LongAdder first = new LongAdder();
+        LongAdder second = new LongAdder();
+        LongAdder other = new LongAdder();
+
+        List<Thread> callers = List.of(
+                Thread.ofVirtual().start(() -> fetchQuietly(batcher, "alice", 5, first::add)),
+                Thread.ofVirtual().start(() -> fetchQuietly(batcher, "alice", 20, second::add)),
+                Thread.ofVirtual().start(() -> fetchQuietly(batcher, "bob", 20, other::add)));
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        verify(service, times(1)).fetchRecentAcceptedSubmissions(eq(Map.of("alice", 20, "bob", 20)), any());
+        assertEquals(300, first.sum());
+        assertEquals(300, second.sum());
+        assertEquals(300, other.sum());
+    }
+
+    private static void fetchQuietly(SubmissionBatcher batcher, String username, int limit, LongConsumer onBytes) {
+        try {
+            batcher.fetch(username, limit, onBytes);
+        } catch (IOException | InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static AcSubmission submission(String slug) {
+        return new AcSubmission(null, slug, slug, 1720000000L, 0, 19.1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionDecoderTest {
+
+    @Test
+    void decode_readsSubmissionsFromStreamAndSkipsUnknownFields() throws Exception {
+        String json = """
+            {"extensions":{"cost":[1,2]},"data":{"other":{"x":[1]},"recentAcSubmissionList":[
+              {"id":"9","title":"Two Sum","titleSlug":"two-sum","timestamp":"1720000000","runtime":"0 ms","memory":"19.1 MB","lang":{"name":"java"}},
+              {"title":"Add Two Numbers","titleSlug":"add-two-numbers","timestamp":1720000500,"runtime":null,"memory":null}
+            ]}}
+            """;
+
+        List<AcSubmission> result = SubmissionDecoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.size());
+        assertEquals("two-sum", result.get(0).getTitleSlug());
+        assertEquals(1720000000L, result.get(0).getTimestamp());
+        assertEquals(0, result.get(0).getRuntimeMs());
+        assertEquals(19.1, result.get(0).getMemoryMb());
+        assertEquals(1720000500L, result.get(1).getTimestamp());
+        assertNull(result.get(1).getRuntimeMs());
+        assertNull(result.get(1).getMemoryMb());
+    }
+
+    @Test
+    void decode_returnsEmptyListForGraphQlErrors() throws Exception {
+        String json = """
+            {"errors":[{"message":"User matching query does not exist."}],"data":{"recentAcSubmissionList":null}}
+            """;
+
+        assertTrue(SubmissionDecoder.decode(json).isEmpty());
+    }
+
+    @Test
+    void parseRuntime_matchesDigitExtraction() {
+        assertEquals(0, SubmissionDecoder.parseRuntime("0 ms"));
+        assertEquals(1234, SubmissionDecoder.parseRuntime("1,234 ms"));
+        assertNull(SubmissionDecoder.parseRuntime("N/A"));
+        assertNull(SubmissionDecoder.parseRuntime(""));
+        assertNull(SubmissionDecoder.parseRuntime("99999999999 ms"));
+    }
+
+    @Test
+    void parseMemory_matchesParseDoubleOnExtractedNumber() {
+        for (String memory : List.of("19.1 MB", "25.5 MB", "0.3 MB", "42 MB", "17.123456789 MB", "19. MB")) {
+            assertEquals(Double.parseDouble(memory.replaceAll("[^0-9.]", "")), SubmissionDecoder.parseMemory(memory), memory);
+        }
+        assertNull(SubmissionDecoder.parseMemory("N/A"));
+        assertNull(SubmissionDecoder.parseMemory("1.2.3 MB"));
+        assertNull(SubmissionDecoder.parseMemory(null));
+    }
+}
@@ -0,0 +1,108 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.SyncReport;
+import com.leetsync.ingestion.model.UserSyncResult;
+import com.leetsync.ingestion.model.UserSyncState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncEngineTest {
+
+    @Test
+    void syncAll_neverExceedsConcurrencyCap() {
+        SyncEngine engine = new SyncEngine(3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<UserSyncState> users = IntStream.range(0, 30).mapToObj(i -> UserSyncState.initial("user" + i)).toList();
+
+        SyncReport report = engine.syncAll(users, user -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return 1;
+        });
+
+        assertEquals(30, report.getTotalUsers());
+        assertEquals(30, report.getTotalNewSubmissions());
+        assertEquals(0, report.getFailedUsers());
+        assertTrue(maxInFlight.get() <= 3, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    void syncAll_sharesTheCapAcrossConcurrentCallsOnOneEngine() throws Exception {
+        // Like in-process shards: several runs on one engine must stay under one global cap
+        SyncEngine engine = new SyncEngine(3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<UserSyncState> users = IntStream.range(0, 20).mapToObj(i -> UserSyncState.initial("user" + i)).toList();
+        AtomicInteger synced = new AtomicInteger();
+
+        List<Thread> shards = IntStream.range(0, 4).mapToObj(shard -> Thread.ofVirtual().start(() -> {
+            SyncReport report = engine.syncAll(users, user -> {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                Thread.sleep(5);
+                inFlight.decrementAndGet();
+                return 1;
+            });
+            synced.addAndGet(report.getTotalUsers());
+        })).toList();
+        for (Thread shard : shards) {
+            shard.join();
+        }
+
+        assertEquals(80, synced.get());
+        assertTrue(maxInFlight.get() <= 3, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    void syncAll_isolatesPerUserFailures() {
+        SyncEngine engine = new SyncEngine(4);
+
+        List<UserSyncState> users = List.of(
+                UserSyncState.initial("alice"), UserSyncState.initial("broken"), UserSyncState.initial("carol"));
+
+        SyncReport report = engine.syncAll(users, user -> {
+            if (user.getUsername().equals("broken")) {
+                throw new IOException("LeetCode unavailable");
+            }
+            return 2;
+        });
+
+        assertEquals(3, report.getTotalUsers());
+        assertEquals(1, report.getFailedUsers());
+        assertEquals(4, report.getTotalNewSubmissions());
+
+        UserSyncResult failed = report.getResults().get(1);
+        assertEquals("broken", failed.getUsername());
+        assertFalse(failed.isSuccess());
+        assertEquals("LeetCode unavailable", failed.getError());
+    }
+
+    @Test
+    void syncAll_countsExceptionsWithoutAMessageAsFailures() {
+        SyncEngine engine = new SyncEngine(2);
+
+        SyncReport report = engine.syncAll(List.of(UserSyncState.initial("alice")), user -> {
+            throw new NullPointerException();
+        });
+
+        assertEquals(1, report.getFailedUsers());
+        UserSyncResult failed = report.getResults().get(0);
+        assertFalse(failed.isSuccess());
+        assertEquals(0, failed.getNewSubmissions());
+        assertEquals("NullPointerException", failed.getError());
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new SyncEngine(0));
+    }
+}
@@ -0,0 +1,71 @@
+package com.leetsync.ingestion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncMetricsTest {
+
+    @Test
+    void histogram_percentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(millis * 1_000_000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.getPercentileMillis(50), 500 * 0.04);
+        assertEquals(990, histogram.getPercentileMillis(99), 990 * 0.04);
+        assertEquals(1000.0, histogram.getPercentileMillis(100));
+        assertEquals(1000.0, histogram.getMaxMillis());
+        assertEquals(500.5, histogram.getMeanMillis(), 1e-9);
+    }
+
+    @Test
+    void histogram_bucketsCoverEveryValueContiguously() {
+        for (long micros : new long[]{0, 63, 64, 65, 127, 128, 1_000, 123_456_789L, Long.MAX_VALUE / 2}) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            assertTrue(LatencyHistogram.highestValueInBucket(index) >= micros, "upper bound for " + micros);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueInBucket(index - 1) < micros, "lower bound for " + micros);
+            }
+        }
+    }
+
+    @Test
+    void toEmf_declaresEveryMetricAndCarriesDimensions() throws Exception {
+        SyncMetrics metrics = new SyncMetrics();
+        metrics.recordUserSynced(20, 3);
+        metrics.recordUserSynced(5, 0);
+        metrics.recordUserFailed();
+        metrics.recordFailedSubmissions(2);
+        metrics.recordBytesReceived(4096);
+        metrics.recordPhase(SyncMetrics.Phase.FETCH, 120_000_000L);
+
+        JsonNode emf = new ObjectMapper().readTree(metrics.toEmf(Map.of("Mode", "single"), Map.of("runId", "r1")));
+
+        JsonNode directive = emf.path("_aws").path("CloudWatchMetrics").get(0);
+        assertEquals(SyncMetrics.NAMESPACE, directive.path("Namespace").asText());
+        assertEquals("Mode", directive.path("Dimensions").get(0).get(0).asText());
+        Set<String> declared = new HashSet<>();
+        directive.path("Metrics").forEach(m -> declared.add(m.path("Name").asText()));
+        for (String name : declared) {
+            assertTrue(emf.has(name), "missing value for " + name);
+        }
+        assertEquals("single", emf.path("Mode").asText());
+        assertEquals("r1", emf.path("runId").asText());
+        assertEquals(2, emf.path("UsersSynced").asLong());
+        assertEquals(1, emf.path("UsersFailed").asLong());
+        assertEquals(3, emf.path("NewSubmissions").asLong());
+        assertEquals(22, emf.path("DuplicateSubmissions").asLong());
+        assertEquals(2, emf.path("FailedSubmissions").asLong());
+        assertEquals(4096, emf.path("BytesReceived").asLong());
+        assertEquals(120.0, emf.path("FetchLatencyP50").asDouble(), 120 * 0.04);
+    }
+}
@@ -0,0 +1,65 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.AcSubmission;
+import com.leetsync.ingestion.model.UserSyncState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncSchedulerTest {
+
+    private static final long NOW = 1_720_000_000_000L;
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final SyncScheduler scheduler = new SyncScheduler(Duration.ofHours(1), Duration.ofDays(2));
+
+    @Test
+    void nextSyncAt_hotUsersComeDueSoonerThanDormantOnes() {
+        assertEquals(NOW + HOUR, scheduler.nextSyncAt(50, NOW));
+        assertEquals(NOW + Duration.ofDays(2).toMillis(), scheduler.nextSyncAt(0, NOW));
+
+        long daily = scheduler.nextSyncAt(1, NOW) - NOW;
+        assertTrue(daily > 12 * HOUR && daily < 24 * HOUR, "interval " + daily);
+    }
+
+    @Test
+    void nextVelocity_smoothsSubmissionsSeenInTheLastWeek() {
+        UserSyncState user = new UserSyncState("alice", 0, 1, 20, 0, 2.0);
+        List<AcSubmission> fetched = new ArrayList<>(IntStream.range(0, 14)
+                .mapToObj(i -> submission(NOW / 1000 - i * 3600L))
+                .toList());
+        fetched.add(submission(NOW / 1000 - Duration.ofDays(30).toSeconds()));
+
+        // 14 in the window -> 2/day sample, averaged with the previous 2/day
+        assertEquals(2.0, scheduler.nextVelocity(user, fetched, NOW), 1e-9);
+        assertEquals(1.0, scheduler.nextVelocity(user, List.of(), NOW), 1e-9);
+    }
+
+    @Test
+    void isDueAndPriority_skipFutureUsersAndPreferNewAndHotOnes() {
+        UserSyncState future = new UserSyncState("future", 0, 1, 20, NOW + HOUR, 0);
+        UserSyncState justDue = new UserSyncState("slack", 0, 1, 20, NOW + 60_000, 0);
+        UserSyncState cold = new UserSyncState("cold", 0, 1, 20, NOW - HOUR, 0.1);
+        UserSyncState hot = new UserSyncState("hot", 0, 1, 20, NOW - HOUR, 10);
+        UserSyncState fresh = UserSyncState.initial("new");
+
+        assertFalse(scheduler.isDue(future, NOW));
+        assertTrue(scheduler.isDue(justDue, NOW));
+        assertTrue(scheduler.isDue(fresh, NOW));
+
+        List<String> order = List.of(cold, hot, fresh).stream()
+                .sorted(scheduler.byPriority(NOW))
+                .map(UserSyncState::getUsername)
+                .toList();
+        assertEquals(List.of("new", "hot", "cold"), order);
+    }
+
+    private static AcSubmission submission(long timestamp) {
+        return new AcSubmission("alice", "t", "t", timestamp, 0, 1.0);
+    }
+}
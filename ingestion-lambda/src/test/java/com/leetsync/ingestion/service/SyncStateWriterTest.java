@@ -0,0 +1,119 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.UserSyncState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SyncStateWriterTest {
+
+    private UserService userService;
+    private List<List<UserSyncState>> batches;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        userService = mock(UserService.class);
+        // Written by the flusher thread
+        batches = Collections.synchronizedList(new ArrayList<>());
+        when(userService.updateSyncStates(any())).thenAnswer(inv -> {
+            batches.add(new ArrayList<>((Collection<UserSyncState>) inv.getArgument(0)));
+            return List.of();
+        });
+    }
+
+    @Test
+    void submit_writesOnceTheBufferFillsAndFlushWritesTheRest() {
+        SyncStateWriter writer = new SyncStateWriter(userService, 2);
+
+        writer.submit(state("alice", 10));
+        writer.submit(state("bob", 10));
+        writer.submit(state("carol", 10));
+        assertEquals(1, writer.getPendingCount());
+
+        writer.flush();
+
+        assertEquals(List.of("alice", "bob"), usernames(batches.get(0)));
+        assertEquals(List.of("carol"), usernames(batches.get(1)));
+        assertEquals(3, writer.getWrittenCount());
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    void submit_coalescesUpdatesForTheSameUserKeepingTheNewestWatermark() {
+        SyncStateWriter writer = new SyncStateWriter(userService, 10);
+
+        writer.submit(state("alice", 20));
+        writer.submit(state("alice", 15));
+        writer.flush();
+
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(20, batches.get(0).get(0).getWatermark());
+    }
+
+    @Test
+    void submit_handsAFullBatchOffWithoutWaitingForTheWrite() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        }).when(userService).updateSyncStates(any());
+        SyncStateWriter writer = new SyncStateWriter(userService, 1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> writer.submit(state("alice", 10)));
+        assertEquals(0, writer.getWrittenCount());
+
+        release.countDown();
+        writer.flush();
+
+        assertEquals(1, writer.getWrittenCount());
+    }
+
+    @Test
+    void flush_countsABatchWhoseWriteThrowsAsFailed() {
+        doThrow(new IllegalStateException("table gone")).when(userService).updateSyncStates(any());
+        SyncStateWriter writer = new SyncStateWriter(userService, 10);
+        writer.submit(state("alice", 10));
+        writer.submit(state("bob", 10));
+
+        writer.flush();
+
+        assertEquals(0, writer.getWrittenCount());
+        assertEquals(2, writer.getFailedCount());
+    }
+
+    @Test
+    void flush_countsFailedUpdatesWithoutThrowing() {
+        doAnswer(inv -> List.of(state("bob", 10))).when(userService).updateSyncStates(any());
+        SyncStateWriter writer = new SyncStateWriter(userService, 10);
+        writer.submit(state("alice", 10));
+        writer.submit(state("bob", 10));
+
+        writer.flush();
+
+        assertEquals(1, writer.getWrittenCount());
+        assertEquals(1, writer.getFailedCount());
+        writer.flush();
+        verify(userService, times(1)).updateSyncStates(any());
+    }
+
+    private static UserSyncState state(String username, long watermark) {
+        return new UserSyncState(username, 1L, watermark, 20);
+    }
+
+    private static List<String> usernames(List<UserSyncState> states) {
+        return states.stream().map(UserSyncState::getUsername).toList();
+    }
+}
@@ -0,0 +1,215 @@
+package com.leetsync.ingestion.service;
+
+import com.leetsync.ingestion.model.UserSyncState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.paginators.ScanIterable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private DynamoDbClient mockClient;
+    private UserService service;
+
+    @BeforeEach
+    void setUp() {
+        mockClient = mock(DynamoDbClient.class);
+        when(mockClient.scanPaginator(any(ScanRequest.class)))
+                .thenAnswer(inv -> new ScanIterable(mockClient, inv.getArgument(0)));
+        service = new UserService(mockClient, "Users");
+    }
+
+    @Test
+    void getAllUsernames_followsLastEvaluatedKey() {
+        when(mockClient.scan(any(ScanRequest.class)))
+                .thenReturn(page(null, Map.of("username", AttributeValue.fromS("cursor")), "alice", "bob"))
+                .thenReturn(page(null, null, "carol"));
+
+        assertEquals(List.of("alice", "bob", "carol"), service.getAllUsernames());
+        verify(mockClient, times(2)).scan(any(ScanRequest.class));
+    }
+
+    @Test
+    void scanSyncStates_pagesEverySegmentWithProjection() {
+        when(mockClient.scan(any(ScanRequest.class))).thenAnswer(inv -> {
+            ScanRequest request = inv.getArgument(0);
+            String prefix = "seg" + request.segment() + "-";
+            if (request.exclusiveStartKey().isEmpty()) {
+                return page(20L, Map.of("username", AttributeValue.fromS(prefix + "a")), prefix + "a");
+            }
+            return page(20L, null, prefix + "b");
+        });
+
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        service.scanSyncStates(3, page -> page.forEach(state -> {
+            assertEquals(20L, state.getWatermark());
+            seen.add(state.getUsername());
+        }));
+
+        assertEquals(Set.of("seg0-a", "seg0-b", "seg1-a", "seg1-b", "seg2-a", "seg2-b"), seen);
+        ArgumentCaptor<ScanRequest> captor = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(mockClient, times(6)).scan(captor.capture());
+        assertEquals(Set.of(0, 1, 2), captor.getAllValues().stream().map(ScanRequest::segment).collect(Collectors.toSet()));
+        assertTrue(captor.getAllValues().stream().allMatch(r -> r.totalSegments() == 3
+                && r.projectionExpression().equals("username, lastSync, watermark, syncLimit, nextSyncAt, velocity")));
+    }
+
+    @Test
+    void scanSegmentFrom_resumesAfterUsernameAndReportsResumeKeys() throws Exception {
+        when(mockClient.scan(any(ScanRequest.class)))
+                .thenReturn(page(null, Map.of("username", AttributeValue.fromS("carol")), "bob", "carol"))
+                .thenReturn(page(null, null, "dave"));
+
+        List<String> resumeKeys = new ArrayList<>();
+        List<String> seen = new ArrayList<>();
+        service.scanSegmentFrom(1, 2, "alice", 2, (page, lastEvaluated) -> {
+            page.forEach(state -> seen.add(state.getUsername()));
+            resumeKeys.add(lastEvaluated);
+            return true;
+        });
+
+        assertEquals(List.of("bob", "carol", "dave"), seen);
+        assertEquals(Arrays.asList("carol", null), resumeKeys);
+        ArgumentCaptor<ScanRequest> captor = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(mockClient, times(2)).scan(captor.capture());
+        ScanRequest first = captor.getAllValues().get(0);
+        assertEquals("alice", first.exclusiveStartKey().get("username").s());
+        assertEquals(1, first.segment());
+        assertEquals(2, first.totalSegments());
+        assertEquals(2, first.limit());
+        assertEquals("carol", captor.getAllValues().get(1).exclusiveStartKey().get("username").s());
+    }
+
+    @Test
+    void scanSegmentFrom_stopsWhenHandlerDeclinesMorePages() throws Exception {
+        when(mockClient.scan(any(ScanRequest.class)))
+                .thenReturn(page(null, Map.of("username", AttributeValue.fromS("bob")), "alice", "bob"));
+
+        List<String> seen = new ArrayList<>();
+        service.scanSegmentFrom(0, 1, null, 2, (page, lastEvaluated) -> {
+            page.forEach(state -> seen.add(state.getUsername()));
+            return false;
+        });
+
+        assertEquals(List.of("alice", "bob"), seen);
+        verify(mockClient, times(1)).scan(any(ScanRequest.class));
+    }
+
+    @Test
+    void updateSyncStates_writesConditionalTransactionsOfAtMostOneHundred() {
+        List<TransactWriteItemsRequest> transactions = new ArrayList<>();
+        when(mockClient.transactWriteItems(any(TransactWriteItemsRequest.class))).thenAnswer(inv -> {
+            transactions.add(inv.getArgument(0));
+            return TransactWriteItemsResponse.builder().build();
+        });
+        List<UserSyncState> states = IntStream.range(0, 150)
+                .mapToObj(i -> new UserSyncState("user" + i, 1L, 10L, 20))
+                .toList();
+
+        assertTrue(service.updateSyncStates(states).isEmpty());
+
+        assertEquals(List.of(100, 50), transactions.stream().map(t -> t.transactItems().size()).toList());
+        TransactWriteItem first = transactions.get(0).transactItems().get(0);
+        assertEquals("user0", first.update().key().get("username").s());
+        assertEquals("attribute_exists(username) AND (attribute_not_exists(watermark) OR watermark <= :watermark)",
+                first.update().conditionExpression());
+        assertEquals("10", first.update().expressionAttributeValues().get(":watermark").n());
+        verify(mockClient, never()).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    void updateSyncStates_skipsFailedConditionsAndRetriesTheRestOfACancelledTransaction() {
+        when(mockClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(TransactionCanceledException.builder().message("cancelled").cancellationReasons(
+                        CancellationReason.builder().code("None").build(),
+                        CancellationReason.builder().code("ConditionalCheckFailed").build(),
+                        CancellationReason.builder().code("None").build()).build());
+        List<String> updated = new ArrayList<>();
+        when(mockClient.updateItem(any(UpdateItemRequest.class))).thenAnswer(inv -> {
+            UpdateItemRequest request = inv.getArgument(0);
+            synchronized (updated) {
+                updated.add(request.key().get("username").s());
+            }
+            return UpdateItemResponse.builder().build();
+        });
+
+        List<UserSyncState> failed = service.updateSyncStates(List.of(
+                new UserSyncState("alice", 1L, 10L, 20),
+                new UserSyncState("bob", 1L, 10L, 20),
+                new UserSyncState("carol", 1L, 10L, 20)));
+
+        assertTrue(failed.isEmpty());
+        assertEquals(Set.of("alice", "carol"), Set.copyOf(updated));
+    }
+
+    @Test
+    void updateSyncStates_fallsBackToSingleUpdatesAndReportsThoseThatStillFail() {
+        when(mockClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(ProvisionedThroughputExceededException.builder().message("throttled").build());
+        when(mockClient.updateItem(any(UpdateItemRequest.class))).thenAnswer(inv -> {
+            UpdateItemRequest request = inv.getArgument(0);
+            return switch (request.key().get("username").s()) {
+                case "bob" -> throw ConditionalCheckFailedException.builder().message("newer").build();
+                case "carol" -> throw ProvisionedThroughputExceededException.builder().message("throttled").build();
+                default -> UpdateItemResponse.builder().build();
+            };
+        });
+
+        List<UserSyncState> failed = service.updateSyncStates(List.of(
+                new UserSyncState("alice", 1L, 10L, 20),
+                new UserSyncState("bob", 1L, 10L, 20),
+                new UserSyncState("carol", 1L, 10L, 20)));
+
+        assertEquals(List.of("carol"), failed.stream().map(UserSyncState::getUsername).toList());
+        verify(mockClient, times(3)).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    void toSyncState_defaultsMissingAttributesToZero() {
+        UserSyncState state = UserService.toSyncState(Map.of("username", AttributeValue.fromS("newbie")));
+
+        assertEquals("newbie", state.getUsername());
+        assertEquals(0L, state.getWatermark());
+        assertEquals(0, state.getSyncLimit());
+        assertFalse(state.hasWatermark());
+    }
+
+    private ScanResponse page(Long watermark, Map<String, AttributeValue> lastKey, String... usernames) {
+        List<Map<String, AttributeValue>> items = Arrays.stream(usernames)
+                .map(name -> watermark == null
+                        ? Map.of("username", AttributeValue.fromS(name))
+                        : Map.of("username", AttributeValue.fromS(name), "watermark", AttributeValue.fromN(String.valueOf(watermark))))
+                .toList();
+        ScanResponse.Builder builder = ScanResponse.builder().items(items);
+        if (lastKey != null) {
+            builder.lastEvaluatedKey(lastKey);
+        }
+        return builder.build();
+    }
+}
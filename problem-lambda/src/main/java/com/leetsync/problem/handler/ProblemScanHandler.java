@@ -2,33 +2,67 @@ package com.leetsync.problem.handler;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.leetsync.problem.model.EnrichmentReport;
+import com.leetsync.problem.model.ExistenceCheckReport;
 import com.leetsync.problem.model.Problem;
+import com.leetsync.common.service.CatalogSnapshotStore;
+import com.leetsync.common.service.FileCatalogSnapshotStore;
+import com.leetsync.common.service.LeetCodeClient;
+import com.leetsync.common.service.ProblemCatalogSnapshot;
+import com.leetsync.common.service.S3CatalogSnapshotStore;
+import com.leetsync.common.service.TagIndex;
 import com.leetsync.problem.service.LeetCodeProblemService;
 import com.leetsync.problem.service.ProblemDynamoService;
+import com.leetsync.problem.service.TagEnrichmentPipeline;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.s3.S3Client;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ProblemScanHandler implements RequestHandler<Void, String> {
 
+    private static final int DEFAULT_TAG_FETCH_CONCURRENCY = 8;
+    // Problems per aliased tag query; keeps each GraphQL request well under LeetCode's query size limits
+    private static final int DEFAULT_TAG_BATCH_SIZE = 25;
+    // Enriched problems waiting for the writer; four batches keeps it busy without buffering the catalog
+    private static final int ENRICHED_QUEUE_CAPACITY = 4 * ProblemDynamoService.BATCH_WRITE_SIZE;
+
+    // Scratch space for the previously published tag index, compared against each new build
+    private static final Path TAG_INDEX_CACHE_DIR = Path.of(System.getProperty("java.io.tmpdir"), "tag-index");
+
     private final LeetCodeProblemService leetCodeProblemService;
     private final ProblemDynamoService problemDynamoService;
+    private final TagEnrichmentPipeline enrichmentPipeline;
+    // Null when neither CATALOG_BUCKET nor CATALOG_SNAPSHOT_DIR is set
+    private final CatalogSnapshotStore snapshotStore;
 
     public ProblemScanHandler() {
         DynamoDbClient dynamoClient = DynamoDbClient.create();
         DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
                 .dynamoDbClient(dynamoClient)
                 .build();
-        this.leetCodeProblemService = new LeetCodeProblemService();
+        String graphqlUrl = System.getenv("LEETCODE_GRAPHQL_URL");
+        this.leetCodeProblemService = graphqlUrl == null || graphqlUrl.isBlank()
+                ? new LeetCodeProblemService()
+                : new LeetCodeProblemService(new LeetCodeClient(), URI.create(graphqlUrl));
         this.problemDynamoService = new ProblemDynamoService(
                 enhancedClient,
                 dynamoClient, 
-                System.getenv("PROBLEMS_TABLE_NAME")
+                System.getenv("PROBLEMS_TABLE_NAME"),
+                intFromEnv("EXISTENCE_CHECK_CONCURRENCY", ProblemDynamoService.DEFAULT_EXISTENCE_CHECK_CONCURRENCY)
         );
+        this.enrichmentPipeline = new TagEnrichmentPipeline(leetCodeProblemService, problemDynamoService,
+                intFromEnv("TAG_FETCH_CONCURRENCY", DEFAULT_TAG_FETCH_CONCURRENCY),
+                intFromEnv("TAG_BATCH_SIZE", DEFAULT_TAG_BATCH_SIZE), ENRICHED_QUEUE_CAPACITY);
+        this.snapshotStore = snapshotStoreFromEnv();
     }
 
     @Override
@@ -38,36 +72,46 @@ public class ProblemScanHandler implements RequestHandler<Void, String> {
             List<Problem> allProblems = leetCodeProblemService.fetchAllProblems();
             context.getLogger().log("Fetched " + allProblems.size() + " problems from LeetCode");
 
-            // 2. Batch check existing problems in DynamoDB (for logging only)
-            Set<String> existingTitleSlugs = problemDynamoService.getExistingTitleSlugs(
+            // 2. Batch check existing problems in DynamoDB, along with the hash of their stored stats
+            ExistenceCheckReport existence = problemDynamoService.checkExisting(
                 allProblems.stream().map(Problem::getTitleSlug).collect(Collectors.toSet())
             );
-            context.getLogger().log("Found " + existingTitleSlugs.size() + " existing problems in database");
+            Map<String, Long> storedStatsHashes = existence.getStoredStatsHashes();
+            Set<String> existingTitleSlugs = storedStatsHashes.keySet();
+            // Keys DynamoDB never answered for are assumed to exist and left for the next scan,
+            // rather than re-fetching their tags as if they were new
+            Set<String> unresolvedTitleSlugs = existence.getUnresolved();
+            context.getLogger().log(existence.summary());
             
             // 3. Filter to only NEW problems
             List<Problem> newProblems = allProblems.stream()
-                .filter(p -> !existingTitleSlugs.contains(p.getTitleSlug()))
+                .filter(p -> !existingTitleSlugs.contains(p.getTitleSlug()) && !unresolvedTitleSlugs.contains(p.getTitleSlug()))
                 .toList();
             context.getLogger().log("Processing " + newProblems.size() + " new problems");
 
-            int storedCount = 0;
-            for (Problem problem : newProblems) {
-                try {
-                    List<Problem.TopicTag> topicTags = leetCodeProblemService.fetchTopicTags(problem.getTitleSlug());
-                    problem.setTopicTags(topicTags);
-
-                    problemDynamoService.storeProblem(problem);
-                    storedCount++;
-                    
-                } catch (Exception e) {
-                    context.getLogger().log("Failed to process problem " + problem.getTitleSlug() + ": " + e.getMessage());
-                }
-            }
-            
-            String result = String.format("Problem scan completed. Total: %d, Existing: %d, Processed: %d, Stored: %d", 
-                    allProblems.size(), existingTitleSlugs.size(), newProblems.size(), storedCount);
+            // 3b. Existing problems whose stats or difficulty changed since they were stored
+            List<Problem> changedProblems = allProblems.stream()
+                .filter(p -> existingTitleSlugs.contains(p.getTitleSlug())
+                        && !Objects.equals(storedStatsHashes.get(p.getTitleSlug()), p.getStatsHash()))
+                .toList();
+            int refreshedCount = problemDynamoService.updateStats(changedProblems);
+            context.getLogger().log("Refreshed stats for " + refreshedCount + " of " + changedProblems.size()
+                    + " changed problems");
+
+            // 4. Fetch topic tags concurrently and store the enriched problems in batches
+            EnrichmentReport report = enrichmentPipeline.run(newProblems);
+            context.getLogger().log(report.summary());
+
+            // 5. Publish a compact snapshot of the full catalog for readers that would otherwise hit DynamoDB per item,
+            //    and the tag -> problems index derived from it
+            publishSnapshot(context);
+
+            String result = String.format("Problem scan completed. Total: %d, Existing: %d, Assumed: %d, Processed: %d, Stored: %d, Refreshed: %d", 
+                    allProblems.size(), existingTitleSlugs.size(), existence.getAssumed(), newProblems.size(),
+                    report.getStored(), refreshedCount);
             
             context.getLogger().log(result);
+            context.getLogger().log(leetCodeProblemService.getClient().metricsSummary());
             return result;
             
         } catch (IOException | InterruptedException e) {
@@ -76,4 +120,75 @@ public class ProblemScanHandler implements RequestHandler<Void, String> {
             throw new RuntimeException(error, e);
         }
     }
-}
\ No newline at end of file
+
+    private void publishSnapshot(Context context) {
+        if (snapshotStore == null) {
+            return;
+        }
+        List<Problem> catalog;
+        try {
+            catalog = problemDynamoService.scanAllProblems();
+            byte[] snapshot = ProblemCatalogSnapshot.encode(catalog, System.currentTimeMillis());
+            ProblemCatalogSnapshot.publish(snapshotStore, snapshot);
+            context.getLogger().log("Published catalog snapshot of " + catalog.size() + " problems ("
+                    + snapshot.length + " bytes)");
+        } catch (Exception e) {
+            // Consumers fall back to DynamoDB, so a failed publish must not fail the scan
+            context.getLogger().log("Failed to publish catalog snapshot: " + e.getMessage());
+            return;
+        }
+        publishTagIndex(catalog, context);
+    }
+
+    /**
+     * Rebuilds the tag index from the scanned catalog and publishes it only when some tag's postings changed,
+     * so readers keep their cached copy across scans that added nothing
+     */
+    private void publishTagIndex(List<Problem> catalog, Context context) {
+        try {
+            byte[] content = TagIndex.encode(catalog, System.currentTimeMillis());
+            TagIndex index = TagIndex.wrap(content);
+            TagIndex previous = null;
+            try {
+                previous = TagIndex.load(snapshotStore, TAG_INDEX_CACHE_DIR);
+            } catch (Exception e) {
+                // An unreadable previous index must not block publishing a fresh one
+                context.getLogger().log("Could not load previous tag index: " + e.getMessage());
+            }
+            Set<String> changedTags = index.changedTags(previous);
+            if (previous != null && changedTags.isEmpty()) {
+                context.getLogger().log("Tag index v" + previous.getVersion() + " is current; nothing to publish");
+                return;
+            }
+            TagIndex.publish(snapshotStore, content);
+            context.getLogger().log("Published tag index v" + index.getVersion() + " with " + index.getTagCount()
+                    + " tags (" + changedTags.size() + " changed: " + changedTags + ")");
+        } catch (Exception e) {
+            context.getLogger().log("Failed to publish tag index: " + e.getMessage());
+        }
+    }
+
+    private static CatalogSnapshotStore snapshotStoreFromEnv() {
+        String bucket = System.getenv("CATALOG_BUCKET");
+        if (bucket != null && !bucket.isBlank()) {
+            return new S3CatalogSnapshotStore(S3Client.create(), bucket);
+        }
+        String dir = System.getenv("CATALOG_SNAPSHOT_DIR");
+        if (dir != null && !dir.isBlank()) {
+            return new FileCatalogSnapshotStore(Path.of(dir));
+        }
+        return null;
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.leetsync.problem.model;
+
+/**
+ * Outcome of one tag enrichment run: how many problems made it through each stage and how fast
+ */
+public class EnrichmentReport {
+    private final int total;
+    private final int enriched;
+    private final int fetchFailures;
+    private final int stored;
+    private final int writeFailures;
+    private final int batches;
+    private final long elapsedNanos;
+
+    public EnrichmentReport(int total, int enriched, int fetchFailures, int stored, int writeFailures,
+                            int batches, long elapsedNanos) {
+        this.total = total;
+        this.enriched = enriched;
+        this.fetchFailures = fetchFailures;
+        this.stored = stored;
+        this.writeFailures = writeFailures;
+        this.batches = batches;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getEnriched() {
+        return enriched;
+    }
+
+    public int getFetchFailures() {
+        return fetchFailures;
+    }
+
+    public int getStored() {
+        return stored;
+    }
+
+    public int getWriteFailures() {
+        return writeFailures;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getProblemsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return stored / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public String summary() {
+        return String.format("Tag enrichment: %d problems, %d enriched (%d fetch failures), %d stored in %d batches "
+                        + "(%d write failures) in %d ms, %.2f problems/s",
+                total, enriched, fetchFailures, stored, batches, writeFailures, getElapsedMillis(), getProblemsPerSecond());
+    }
+}
@@ -0,0 +1,71 @@
+package com.leetsync.problem.model;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of one existence check: stored stats hashes for the keys DynamoDB answered for, and the keys it never
+ * answered for (still unprocessed after retries, or in a chunk that failed outright)
+ */
+public class ExistenceCheckReport {
+    private final int checked;
+    private final Map<String, Long> storedStatsHashes;
+    private final Set<String> unresolved;
+    private final int requests;
+    private final int retriedKeys;
+    private final long elapsedNanos;
+
+    public ExistenceCheckReport(int checked, Map<String, Long> storedStatsHashes, Set<String> unresolved,
+                                int requests, int retriedKeys, long elapsedNanos) {
+        this.checked = checked;
+        this.storedStatsHashes = storedStatsHashes;
+        this.unresolved = unresolved;
+        this.requests = requests;
+        this.retriedKeys = retriedKeys;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getChecked() {
+        return checked;
+    }
+
+    /**
+     * Stored statsHash per existing title slug; the value is null for rows written before hashes existed
+     */
+    public Map<String, Long> getStoredStatsHashes() {
+        return storedStatsHashes;
+    }
+
+    /**
+     * Keys whose existence is assumed rather than confirmed
+     */
+    public Set<String> getUnresolved() {
+        return unresolved;
+    }
+
+    public int getConfirmed() {
+        return checked - unresolved.size();
+    }
+
+    public int getAssumed() {
+        return unresolved.size();
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getRetriedKeys() {
+        return retriedKeys;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public String summary() {
+        return String.format("Existence check: %d keys, %d confirmed (%d existing), %d assumed; "
+                        + "%d BatchGetItem requests, %d keys retried, %d ms",
+                checked, getConfirmed(), storedStatsHashes.size(), getAssumed(), requests, retriedKeys, getElapsedMillis());
+    }
+}
@@ -1,5 +1,6 @@
 package com.leetsync.problem.model;
 
+import com.leetsync.common.model.CatalogProblem;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
@@ -11,7 +12,7 @@ import java.util.List;
  * This service owns this model and can evolve it independently
  */
 @DynamoDbBean
-public class Problem {
+public class Problem implements CatalogProblem {
     
     private Long questionId;
     private Integer frontendQuestionId;
@@ -22,9 +23,10 @@ public class Problem {
     private String difficulty;
     private Double acRate;
     private List<TopicTag> topicTags;
+    private Long statsHash;
     
     @DynamoDbBean
-    public static class TopicTag {
+    public static class TopicTag implements CatalogProblem.Tag {
         private String name;
         private String slug;
         
@@ -73,6 +75,25 @@ public class Problem {
         return (double) accepted / submitted * 100;
     }
 
+    /**
+     * 64-bit FNV-1a over the fields a stats refresh may change; acRate and difficulty derive from them
+     */
+    public long computeStatsHash() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, totalAccepted == null ? -1 : totalAccepted);
+        hash = mix(hash, totalSubmitted == null ? -1 : totalSubmitted);
+        hash = mix(hash, difficultyLevel == null ? -1 : difficultyLevel);
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
     @DynamoDbAttribute("questionId")
     public Long getQuestionId() { return questionId; }
     public void setQuestionId(Long questionId) { this.questionId = questionId; }
@@ -117,4 +138,8 @@ public class Problem {
     @DynamoDbAttribute("topicTags")
     public List<TopicTag> getTopicTags() { return topicTags; }
     public void setTopicTags(List<TopicTag> topicTags) { this.topicTags = topicTags; }
+
+    @DynamoDbAttribute("statsHash")
+    public Long getStatsHash() { return statsHash; }
+    public void setStatsHash(Long statsHash) { this.statsHash = statsHash; }
 }
\ No newline at end of file
@@ -1,114 +1,112 @@
 package com.leetsync.problem.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetsync.common.service.LeetCodeClient;
 import com.leetsync.problem.model.LeetCodeProblemsResponse;
 import com.leetsync.problem.model.Problem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class LeetCodeProblemService {
 
     private static final Logger log = LoggerFactory.getLogger(LeetCodeProblemService.class);
-    private static final String PROBLEMS_API_URL = "https://leetcode.com/api/problems/all/";
-    private static final String GRAPHQL_API_URL = "https://leetcode.com/graphql";
+    private static final URI PROBLEMS_API_URI = URI.create("https://leetcode.com/api/problems/all/");
+    private static final URI GRAPHQL_API_URI = URI.create("https://leetcode.com/graphql");
+
+    // ObjectMapper is thread-safe once configured; share it so Jackson's introspection cache stays warm
+    private static final ObjectMapper MAPPER = new ObjectMapper();
     
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final LeetCodeClient client;
+    private final URI problemsUri;
+    private final URI graphqlUri;
 
     public LeetCodeProblemService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
-        this.objectMapper = new ObjectMapper();
+        this(new LeetCodeClient(), GRAPHQL_API_URI);
+    }
+
+    public LeetCodeProblemService(LeetCodeClient client, URI graphqlUri) {
+        this(client, PROBLEMS_API_URI, graphqlUri);
+    }
+
+    public LeetCodeProblemService(LeetCodeClient client, URI problemsUri, URI graphqlUri) {
+        this.client = client;
+        this.problemsUri = problemsUri;
+        this.graphqlUri = graphqlUri;
+    }
+
+    public LeetCodeClient getClient() {
+        return client;
     }
 
     public List<Problem> fetchAllProblems() throws IOException, InterruptedException {
+        List<Problem> problems = new ArrayList<>();
+        fetchAllProblems(problems::add);
+        return problems;
+    }
+
+    /**
+     * Streams the catalog: each Problem is handed to sink while the body is still being read
+     *
+     * @return the number of problems emitted
+     */
+    public int fetchAllProblems(Consumer<Problem> sink) throws IOException, InterruptedException {
         log.info("Fetching all problems from LeetCode API");
         
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PROBLEMS_API_URL))
-                .timeout(Duration.ofSeconds(30))
+        HttpRequest request = client.newRequest(problemsUri)
                 .GET()
                 .build();
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() != 200) {
-            throw new IOException("Failed to fetch problems. Status: " + response.statusCode());
-        }
-
-        LeetCodeProblemsResponse problemsResponse = objectMapper.readValue(response.body(), LeetCodeProblemsResponse.class);
-        
-        log.info("Successfully fetched {} total problems", problemsResponse.getNumTotal());
-        
-        return convertToProblems(problemsResponse);
-    }
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Failed to fetch problems. Status: " + response.statusCode());
+            }
 
-    private List<Problem> convertToProblems(LeetCodeProblemsResponse response) {
-        List<Problem> problems = new ArrayList<>();
-        
-        for (LeetCodeProblemsResponse.StatStatusPair pair : response.getStatStatusPairs()) {
-            LeetCodeProblemsResponse.Stat stat = pair.getStat();
-            
-            Problem problem = new Problem(
-                    stat.getQuestionId(),
-                    stat.getFrontendQuestionId(),
-                    stat.getQuestionTitleSlug(),
-                    stat.getTotalAcs(),
-                    stat.getTotalSubmitted(),
-                    pair.getDifficulty() != null ? pair.getDifficulty().getLevel() : null
-            );
-            
-            problems.add(problem);
+            int count = ProblemCatalogDecoder.decode(body, sink);
+            // Drain trailing bytes so the connection goes back to the pool
+            body.transferTo(OutputStream.nullOutputStream());
+            log.info("Successfully fetched {} total problems", count);
+            return count;
         }
-        
-        log.info("Converted {} problems for processing", problems.size());
-        return problems;
     }
 
     public List<Problem.TopicTag> fetchTopicTags(String titleSlug) throws IOException, InterruptedException {
         log.info("Fetching topic tags for problem: {}", titleSlug);
         
-        String query = "query getQuestionDetail($titleSlug: String!) { " +
-                "question(titleSlug: $titleSlug) { " +
-                "topicTags { name slug } " +
-                "} " +
-                "}";
+        String requestBody = buildTopicTagsQuery(titleSlug);
         
-        String requestBody = String.format(
-                "{\"query\": \"%s\", \"variables\": {\"titleSlug\": \"%s\"}}",
-                query.replace("\"", "\\\""),
-                titleSlug
-        );
-        
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(GRAPHQL_API_URL))
-                .header("Content-Type", "application/json")
-                .timeout(Duration.ofSeconds(30))
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = client.postJson(graphqlUri, requestBody);
         
         if (response.statusCode() != 200) {
             throw new IOException("Failed to fetch topic tags. Status: " + response.statusCode());
         }
 
         LeetCodeProblemsResponse.TopicTagsResponse topicTagsResponse = 
-                objectMapper.readValue(response.body(), LeetCodeProblemsResponse.TopicTagsResponse.class);
+                MAPPER.readValue(response.body(), LeetCodeProblemsResponse.TopicTagsResponse.class);
         
+        if (topicTagsResponse.getData() == null) {
+            // GraphQL errors come back as 200 without data; don't mistake them for an untagged problem
+            throw new IOException("No topic tag data returned for problem: " + titleSlug);
+        }
+
         List<Problem.TopicTag> topicTags = new ArrayList<>();
-        if (topicTagsResponse.getData() != null && 
-            topicTagsResponse.getData().getQuestion() != null && 
+        if (topicTagsResponse.getData().getQuestion() != null && 
             topicTagsResponse.getData().getQuestion().getTopicTags() != null) {
             
             for (LeetCodeProblemsResponse.TopicTag tag : topicTagsResponse.getData().getQuestion().getTopicTags()) {
@@ -119,4 +117,82 @@ public class LeetCodeProblemService {
         log.info("Successfully fetched {} topic tags for problem: {}", topicTags.size(), titleSlug);
         return topicTags;
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches topic tags for several problems in one request by aliasing
+     * question(titleSlug:) per problem (q0: ..., q1: ...). Problems whose alias
+     * errors are re-fetched one by one. Keys follow the order of titleSlugs.
+     */
+    public Map<String, List<Problem.TopicTag>> fetchTopicTags(List<String> titleSlugs) throws IOException, InterruptedException {
+        if (titleSlugs.isEmpty()) {
+            return Map.of();
+        }
+        if (titleSlugs.size() == 1) {
+            return Map.of(titleSlugs.get(0), fetchTopicTags(titleSlugs.get(0)));
+        }
+        log.info("Fetching topic tags for {} problems in one request", titleSlugs.size());
+
+        HttpResponse<String> response = client.postJson(graphqlUri, buildAliasedTopicTagsQuery(titleSlugs));
+        if (response.statusCode() != 200) {
+            throw new IOException("Failed to fetch topic tags for " + titleSlugs.size() + " problems. Status: "
+                    + response.statusCode());
+        }
+
+        JsonNode root = MAPPER.readTree(response.body());
+        JsonNode data = root.path("data");
+        if (!data.isObject()) {
+            throw new IOException("No topic tag data returned for " + titleSlugs.size() + " problems");
+        }
+        Set<String> failedAliases = new HashSet<>();
+        for (JsonNode error : root.path("errors")) {
+            JsonNode path = error.path("path");
+            if (path.isArray() && !path.isEmpty()) {
+                failedAliases.add(path.get(0).asText());
+            }
+        }
+
+        Map<String, List<Problem.TopicTag>> result = new LinkedHashMap<>();
+        for (int i = 0; i < titleSlugs.size(); i++) {
+            String titleSlug = titleSlugs.get(i);
+            String alias = "q" + i;
+            if (failedAliases.contains(alias)) {
+                // One bad slug must not cost the rest of the batch
+                log.info("Aliased tag fetch failed for {}; retrying alone", titleSlug);
+                result.put(titleSlug, fetchTopicTags(titleSlug));
+                continue;
+            }
+            List<Problem.TopicTag> topicTags = new ArrayList<>();
+            for (JsonNode tag : data.path(alias).path("topicTags")) {
+                topicTags.add(new Problem.TopicTag(tag.path("name").asText(), tag.path("slug").asText()));
+            }
+            result.put(titleSlug, topicTags);
+        }
+        return result;
+    }
+
+    String buildTopicTagsQuery(String titleSlug) {
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("query", "query getQuestionDetail($titleSlug: String!) { question(titleSlug: $titleSlug) { topicTags { name slug } } }");
+        request.putObject("variables").put("titleSlug", titleSlug);
+        return request.toString();
+    }
+
+    String buildAliasedTopicTagsQuery(List<String> titleSlugs) {
+        StringBuilder params = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        ObjectNode variables = MAPPER.createObjectNode();
+        for (int i = 0; i < titleSlugs.size(); i++) {
+            if (i > 0) {
+                params.append(", ");
+            }
+            params.append("$s").append(i).append(": String!");
+            fields.append(" q").append(i).append(": question(titleSlug: $s").append(i).append(") { topicTags { name slug } }");
+            variables.put("s" + i, titleSlugs.get(i));
+        }
+
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("query", "query questionTopicTagsBatch(" + params + ") {" + fields + " }");
+        request.set("variables", variables);
+        return request.toString();
+    }
+}
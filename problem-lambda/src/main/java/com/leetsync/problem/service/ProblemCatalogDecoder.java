@@ -0,0 +1,131 @@
+package com.leetsync.problem.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.leetsync.problem.model.Problem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming decoder for the api/problems/all payload.
+ * Walks stat_status_pairs token by token and hands each Problem to a consumer as soon
+ * as its pair is read, so the multi-megabyte body never exists as a String or object graph.
+ */
+public final class ProblemCatalogDecoder {
+
+    // The caller owns the stream so it can drain it back into the connection pool
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    private ProblemCatalogDecoder() {}
+
+    /**
+     * @return the number of problems emitted
+     */
+    public static int decode(InputStream body, Consumer<Problem> sink) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return decode(parser, sink);
+        }
+    }
+
+    public static int decode(byte[] body, Consumer<Problem> sink) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return decode(parser, sink);
+        }
+    }
+
+    private static int decode(JsonParser parser, Consumer<Problem> sink) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object from api/problems/all");
+        }
+        int count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("stat_status_pairs".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    Problem problem = readPair(parser);
+                    if (problem != null) {
+                        sink.accept(problem);
+                        count++;
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return count;
+    }
+
+    private static Problem readPair(JsonParser parser) throws IOException {
+        Long questionId = null;
+        Integer frontendQuestionId = null;
+        String titleSlug = null;
+        Long totalAccepted = null;
+        Long totalSubmitted = null;
+        Integer difficultyLevel = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("stat".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String statField = parser.currentName();
+                    JsonToken statValue = parser.nextToken();
+                    switch (statField) {
+                        case "question_id" -> questionId = longValue(parser, statValue);
+                        case "frontend_question_id" -> {
+                            Long id = longValue(parser, statValue);
+                            frontendQuestionId = id == null ? null : id.intValue();
+                        }
+                        case "question__title_slug" -> titleSlug = statValue == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        case "total_acs" -> totalAccepted = longValue(parser, statValue);
+                        case "total_submitted" -> totalSubmitted = longValue(parser, statValue);
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else if ("difficulty".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String difficultyField = parser.currentName();
+                    JsonToken difficultyValue = parser.nextToken();
+                    if ("level".equals(difficultyField)) {
+                        Long level = longValue(parser, difficultyValue);
+                        difficultyLevel = level == null ? null : level.intValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (titleSlug == null) {
+            return null;
+        }
+        Problem problem = new Problem(questionId, frontendQuestionId, titleSlug, totalAccepted, totalSubmitted,
+                difficultyLevel);
+        problem.setStatsHash(problem.computeStatsHash());
+        return problem;
+    }
+
+    private static Long longValue(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_STRING -> {
+                try {
+                    yield Long.parseLong(parser.getText().trim());
+                } catch (NumberFormatException e) {
+                    yield null;
+                }
+            }
+            default -> {
+                parser.skipChildren();
+                yield null;
+            }
+        };
+    }
+}
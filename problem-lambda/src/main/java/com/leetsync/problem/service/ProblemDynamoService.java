@@ -1,17 +1,23 @@
 package com.leetsync.problem.service;
 
+import com.leetsync.problem.model.ExistenceCheckReport;
 import com.leetsync.problem.model.Problem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,17 +25,39 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 public class ProblemDynamoService {
 
     private static final Logger log = LoggerFactory.getLogger(ProblemDynamoService.class);
 
+    // DynamoDB BatchWriteItem accepts at most 25 put requests per call
+    public static final int BATCH_WRITE_SIZE = 25;
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 50;
+    // DynamoDB BatchGetItem accepts at most 100 keys per call
+    private static final int BATCH_GET_SIZE = 100;
+    public static final int DEFAULT_EXISTENCE_CHECK_CONCURRENCY = 4;
+
+    private final DynamoDbEnhancedClient enhancedClient;
     private final DynamoDbTable<Problem> table;
     private final DynamoDbClient dynamoDbClient;
     private final String tableName;
+    private final int existenceCheckConcurrency;
 
     public ProblemDynamoService(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient, String tableName) {
+        this(enhancedClient, dynamoDbClient, tableName, DEFAULT_EXISTENCE_CHECK_CONCURRENCY);
+    }
+
+    public ProblemDynamoService(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient, String tableName,
+                                int existenceCheckConcurrency) {
+        this.existenceCheckConcurrency = Math.max(1, existenceCheckConcurrency);
+        this.enhancedClient = enhancedClient;
         this.table = enhancedClient.table(tableName, TableSchema.fromBean(Problem.class));
         this.dynamoDbClient = dynamoDbClient;
         this.tableName = tableName;
@@ -54,72 +82,142 @@ public class ProblemDynamoService {
     }
 
     public Set<String> getExistingTitleSlugs(Set<String> titleSlugs) {
-        Set<String> existingTitleSlugs = new HashSet<>();
-        
+        return getStoredStatsHashes(titleSlugs).keySet();
+    }
+
+    /**
+     * Stored statsHash per existing title slug; the value is null for rows written before hashes existed
+     */
+    public Map<String, Long> getStoredStatsHashes(Set<String> titleSlugs) {
+        return checkExisting(titleSlugs).getStoredStatsHashes();
+    }
+
+    /**
+     * Looks up the given title slugs with BatchGetItem, at most {@code existenceCheckConcurrency} chunks in flight.
+     * Unprocessed keys are retried with backoff; keys DynamoDB never answers for are reported as unresolved
+     * instead of being mistaken for missing rows.
+     */
+    public ExistenceCheckReport checkExisting(Set<String> titleSlugs) {
+        long start = System.nanoTime();
         if (titleSlugs == null || titleSlugs.isEmpty()) {
-            return existingTitleSlugs;
+            return new ExistenceCheckReport(0, Map.of(), Set.of(), 0, 0, 0);
         }
-        
-        // Convert Set to List for batch processing
+
         List<String> titleSlugsList = new ArrayList<>(titleSlugs);
-        
-        // DynamoDB BatchGetItem has a limit of 100 items per request
-        int batchSize = 100;
-        for (int i = 0; i < titleSlugsList.size(); i += batchSize) {
-            int endIndex = Math.min(i + batchSize, titleSlugsList.size());
-            List<String> batch = titleSlugsList.subList(i, endIndex);
-            
+        List<Future<ChunkResult>> results = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(existenceCheckConcurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < titleSlugsList.size(); i += BATCH_GET_SIZE) {
+                List<String> chunk = titleSlugsList.subList(i, Math.min(i + BATCH_GET_SIZE, titleSlugsList.size()));
+                results.add(executor.submit(() -> {
+                    inFlight.acquire();
+                    try {
+                        return getChunkStatsHashes(chunk);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+
+        Map<String, Long> storedStatsHashes = new HashMap<>();
+        Set<String> unresolved = new HashSet<>();
+        int requests = 0;
+        int retriedKeys = 0;
+        for (int i = 0; i < results.size(); i++) {
+            List<String> chunk = titleSlugsList.subList(i * BATCH_GET_SIZE,
+                    Math.min((i + 1) * BATCH_GET_SIZE, titleSlugsList.size()));
             try {
-                Set<String> batchExisting = getBatchExistingTitleSlugs(batch);
-                existingTitleSlugs.addAll(batchExisting);
-            } catch (Exception e) {
-                log.error("Failed to check existing title slugs for batch: {}", e.getMessage());
+                ChunkResult result = results.get(i).get();
+                storedStatsHashes.putAll(result.found);
+                unresolved.addAll(result.unresolved);
+                requests += result.requests;
+                retriedKeys += result.retriedKeys;
+            } catch (ExecutionException e) {
+                log.error("Failed to check existing title slugs for batch of {}: {}", chunk.size(), e.getCause().getMessage());
+                unresolved.addAll(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unresolved.addAll(chunk);
             }
         }
-        
-        log.info("Found {} existing title slugs out of {} checked", existingTitleSlugs.size(), titleSlugs.size());
-        return existingTitleSlugs;
+
+        ExistenceCheckReport report = new ExistenceCheckReport(titleSlugs.size(), storedStatsHashes, unresolved,
+                requests, retriedKeys, System.nanoTime() - start);
+        log.info(report.summary());
+        return report;
     }
 
-    private Set<String> getBatchExistingTitleSlugs(List<String> titleSlugs) {
-        Set<String> existingTitleSlugs = new HashSet<>();
-        
-        // Create keys for batch get request
-        List<Map<String, AttributeValue>> keys = titleSlugs.stream()
-                .map(titleSlug -> {
-                    Map<String, AttributeValue> key = new HashMap<>();
-                    key.put("titleSlug", AttributeValue.fromS(titleSlug));
-                    return key;
-                })
+    private ChunkResult getChunkStatsHashes(List<String> titleSlugs) throws InterruptedException {
+        ChunkResult result = new ChunkResult();
+        List<Map<String, AttributeValue>> pending = titleSlugs.stream()
+                .map(titleSlug -> Map.of("titleSlug", AttributeValue.fromS(titleSlug)))
                 .collect(Collectors.toList());
-        
-        KeysAndAttributes keysAndAttributes = KeysAndAttributes.builder()
-                .keys(keys)
-                .projectionExpression("titleSlug")
-                .build();
-        
-        BatchGetItemRequest batchGetRequest = BatchGetItemRequest.builder()
-                .requestItems(Map.of(tableName, keysAndAttributes))
-                .build();
-        
-        try {
-            BatchGetItemResponse response = dynamoDbClient.batchGetItem(batchGetRequest);
-            
-            if (response.responses().containsKey(tableName)) {
-                for (Map<String, AttributeValue> item : response.responses().get(tableName)) {
-                    AttributeValue titleSlugValue = item.get("titleSlug");
-                    if (titleSlugValue != null) {
-                        existingTitleSlugs.add(titleSlugValue.s());
-                    }
+
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                result.retriedKeys += pending.size();
+                Thread.sleep(BASE_BACKOFF_MS << (attempt - 2));
+            }
+
+            KeysAndAttributes keysAndAttributes = KeysAndAttributes.builder()
+                    .keys(pending)
+                    .projectionExpression("titleSlug, statsHash")
+                    .build();
+            BatchGetItemRequest batchGetRequest = BatchGetItemRequest.builder()
+                    .requestItems(Map.of(tableName, keysAndAttributes))
+                    .build();
+
+            BatchGetItemResponse response;
+            try {
+                result.requests++;
+                response = dynamoDbClient.batchGetItem(batchGetRequest);
+            } catch (DynamoDbException e) {
+                // Throttling surfaces here once the SDK's own retries are spent; the whole chunk stays pending
+                log.warn("BatchGetItem failed for {} keys (attempt {}/{}): {}",
+                        pending.size(), attempt, MAX_BATCH_ATTEMPTS, e.getMessage());
+                continue;
+            }
+
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(tableName, List.of())) {
+                AttributeValue titleSlugValue = item.get("titleSlug");
+                if (titleSlugValue != null) {
+                    AttributeValue statsHash = item.get("statsHash");
+                    result.found.put(titleSlugValue.s(), statsHash == null ? null : Long.parseLong(statsHash.n()));
                 }
             }
-            
-            log.debug("Retrieved {} existing title slugs from batch of {}", existingTitleSlugs.size(), titleSlugs.size());
-        } catch (DynamoDbException e) {
-            log.error("DynamoDB error while checking existing title slugs: {}", e.getMessage());
+
+            KeysAndAttributes unprocessed = response.unprocessedKeys().get(tableName);
+            pending = unprocessed == null ? List.of() : unprocessed.keys();
+            if (!pending.isEmpty()) {
+                log.debug("BatchGetItem left {} of {} keys unprocessed (attempt {}/{})",
+                        pending.size(), titleSlugs.size(), attempt, MAX_BATCH_ATTEMPTS);
+            }
         }
-        
-        return existingTitleSlugs;
+
+        for (Map<String, AttributeValue> key : pending) {
+            result.unresolved.add(key.get("titleSlug").s());
+        }
+        log.debug("Retrieved {} existing title slugs from batch of {} ({} unresolved)",
+                result.found.size(), titleSlugs.size(), result.unresolved.size());
+        return result;
+    }
+
+    private static final class ChunkResult {
+        private final Map<String, Long> found = new HashMap<>();
+        private final List<String> unresolved = new ArrayList<>();
+        private int requests;
+        private int retriedKeys;
+    }
+
+    /**
+     * Reads every stored problem, tags included; the catalog is a few thousand rows
+     */
+    public List<Problem> scanAllProblems() {
+        List<Problem> problems = new ArrayList<>();
+        table.scan().items().forEach(problems::add);
+        log.info("Scanned {} problems from {}", problems.size(), tableName);
+        return problems;
     }
 
     public boolean storeProblem(Problem problem) {
@@ -136,4 +234,108 @@ public class ProblemDynamoService {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes up to BATCH_WRITE_SIZE problems with one BatchWriteItem call,
+     * retrying unprocessed items with exponential backoff.
+     *
+     * @return number of problems written
+     * @throws IllegalStateException if items remain unprocessed after all retries
+     */
+    public int storeProblemBatch(List<Problem> batch) throws InterruptedException {
+        List<Problem> pending = batch.stream()
+                .filter(problem -> problem.getTitleSlug() != null)
+                .toList();
+        int total = pending.size();
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            WriteBatch.Builder<Problem> writeBatch = WriteBatch.builder(Problem.class)
+                    .mappedTableResource(table);
+            pending.forEach(writeBatch::addPutItem);
+
+            BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                    .writeBatches(writeBatch.build())
+                    .build());
+
+            List<Problem> unprocessed = result.unprocessedPutItemsForTable(table);
+            if (unprocessed.isEmpty()) {
+                return total;
+            }
+            log.warn("BatchWriteItem left {} of {} problems unprocessed (attempt {}/{})",
+                    unprocessed.size(), pending.size(), attempt, MAX_BATCH_ATTEMPTS);
+            pending = unprocessed;
+            if (attempt < MAX_BATCH_ATTEMPTS) {
+                Thread.sleep(BASE_BACKOFF_MS << (attempt - 1));
+            }
+        }
+        if (pending.isEmpty()) {
+            return total;
+        }
+        throw new IllegalStateException("Giving up on " + pending.size() + " unprocessed problems after "
+                + MAX_BATCH_ATTEMPTS + " attempts");
+    }
+
+    /**
+     * Rewrites only the statistics of existing problems (tags are left alone).
+     * DynamoDB has no batch form of UpdateItem, so each chunk of updates is sent concurrently.
+     *
+     * @return number of problems updated
+     */
+    public int updateStats(List<Problem> problems) {
+        int updated = 0;
+        for (int i = 0; i < problems.size(); i += BATCH_WRITE_SIZE) {
+            List<Problem> chunk = problems.subList(i, Math.min(i + BATCH_WRITE_SIZE, problems.size()));
+            List<Future<Boolean>> results = new ArrayList<>(chunk.size());
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Problem problem : chunk) {
+                    results.add(executor.submit(() -> updateStats(problem)));
+                }
+            }
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get()) {
+                        updated++;
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Failed to update problem stats: {}", e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return updated;
+                }
+            }
+        }
+        log.info("Updated stats for {} out of {} changed problems", updated, problems.size());
+        return updated;
+    }
+
+    private boolean updateStats(Problem problem) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":totalAccepted", numberOrNull(problem.getTotalAccepted()));
+        values.put(":totalSubmitted", numberOrNull(problem.getTotalSubmitted()));
+        values.put(":acRate", numberOrNull(problem.getAcRate()));
+        values.put(":difficultyLevel", numberOrNull(problem.getDifficultyLevel()));
+        values.put(":difficulty", problem.getDifficulty() == null
+                ? AttributeValue.fromNul(true)
+                : AttributeValue.fromS(problem.getDifficulty()));
+        values.put(":statsHash", AttributeValue.fromN(String.valueOf(problem.computeStatsHash())));
+
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of("titleSlug", AttributeValue.fromS(problem.getTitleSlug())))
+                    .updateExpression("SET totalAccepted = :totalAccepted, totalSubmitted = :totalSubmitted, "
+                            + "acRate = :acRate, difficultyLevel = :difficultyLevel, difficulty = :difficulty, "
+                            + "statsHash = :statsHash")
+                    .conditionExpression("attribute_exists(titleSlug)")
+                    .expressionAttributeValues(values)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.info("Skipped stats update for {}: problem no longer stored", problem.getTitleSlug());
+            return false;
+        }
+    }
+
+    private static AttributeValue numberOrNull(Number value) {
+        return value == null ? AttributeValue.fromNul(true) : AttributeValue.fromN(String.valueOf(value));
+    }
+}
@@ -0,0 +1,162 @@
+package com.leetsync.problem.service;
+
+import com.leetsync.problem.model.EnrichmentReport;
+import com.leetsync.problem.model.Problem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Two-stage pipeline for new problems: topic tags are fetched tagBatchSize problems per
+ * aliased GraphQL request on virtual threads with bounded concurrency, and a single writer groups the enriched problems into
+ * BatchWriteItem calls. The bounded hand-off queue is the backpressure: when the
+ * writer falls behind, fetchers wait instead of piling up enriched problems. If the writer
+ * dies, fetchers stop handing off and the run fails with the writer's error.
+ */
+public class TagEnrichmentPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(TagEnrichmentPipeline.class);
+    private static final int PROGRESS_INTERVAL = 250;
+    // How often a blocked hand-off checks whether the writer is still there to drain the queue
+    private static final long HAND_OFF_CHECK_MS = 100;
+
+    // Marks the end of the fetch stage for the writer
+    private static final Problem END = new Problem();
+
+    private final LeetCodeProblemService leetCodeProblemService;
+    private final ProblemDynamoService problemDynamoService;
+    private final int fetchConcurrency;
+    private final int tagBatchSize;
+    private final int queueCapacity;
+
+    public TagEnrichmentPipeline(LeetCodeProblemService leetCodeProblemService, ProblemDynamoService problemDynamoService,
+                                 int fetchConcurrency, int tagBatchSize, int queueCapacity) {
+        if (fetchConcurrency < 1 || tagBatchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("fetchConcurrency, tagBatchSize and queueCapacity must be at least 1");
+        }
+        this.leetCodeProblemService = leetCodeProblemService;
+        this.problemDynamoService = problemDynamoService;
+        this.fetchConcurrency = fetchConcurrency;
+        this.tagBatchSize = tagBatchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public EnrichmentReport run(List<Problem> problems) throws InterruptedException {
+        long start = System.nanoTime();
+        BlockingQueue<Problem> enrichedQueue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger enriched = new AtomicInteger();
+        AtomicInteger fetchFailures = new AtomicInteger();
+        Semaphore permits = new Semaphore(fetchConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<int[]> writer = executor.submit(() -> writeAll(enrichedQueue, problems.size(), start));
+
+            // A writer that is done before END has failed; stop fetching for it
+            for (int i = 0; i < problems.size() && !writer.isDone(); i += tagBatchSize) {
+                List<Problem> chunk = problems.subList(i, Math.min(i + tagBatchSize, problems.size()));
+                permits.acquire();
+                executor.submit(() -> {
+                    int handedOff = 0;
+                    try {
+                        Map<String, List<Problem.TopicTag>> tagsBySlug = leetCodeProblemService.fetchTopicTags(
+                                chunk.stream().map(Problem::getTitleSlug).toList());
+                        for (Problem problem : chunk) {
+                            problem.setTopicTags(tagsBySlug.getOrDefault(problem.getTitleSlug(), List.of()));
+                            if (!handOff(enrichedQueue, problem, writer)) {
+                                break;
+                            }
+                            handedOff++;
+                            enriched.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        log.warn("Failed to fetch topic tags for {} problems starting at {}: {}",
+                                chunk.size(), chunk.get(0).getTitleSlug(), e.getMessage());
+                    } finally {
+                        // Whatever never reached the writer stays missing from the table for the next scan
+                        fetchFailures.addAndGet(chunk.size() - handedOff);
+                        permits.release();
+                    }
+                    return null;
+                });
+            }
+
+            // Every fetch has released its permit once all of them are back
+            permits.acquire(fetchConcurrency);
+            handOff(enrichedQueue, END, writer);
+
+            int[] written = writer.get();
+            return new EnrichmentReport(problems.size(), enriched.get(), fetchFailures.get(),
+                    written[0], written[1], written[2], System.nanoTime() - start);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Problem writer failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queues problem for the writer, waiting while the queue is full.
+     *
+     * @return false if the writer stopped before taking it
+     */
+    private static boolean handOff(BlockingQueue<Problem> enrichedQueue, Problem problem, Future<?> writer)
+            throws InterruptedException {
+        while (!enrichedQueue.offer(problem, HAND_OFF_CHECK_MS, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {stored, write failures, batches}
+     */
+    private int[] writeAll(BlockingQueue<Problem> enrichedQueue, int total, long start) throws InterruptedException {
+        List<Problem> batch = new ArrayList<>(ProblemDynamoService.BATCH_WRITE_SIZE);
+        int[] counts = new int[3];
+        int nextProgress = PROGRESS_INTERVAL;
+        while (true) {
+            Problem problem = enrichedQueue.take();
+            if (problem != END) {
+                batch.add(problem);
+            }
+            if (batch.size() == ProblemDynamoService.BATCH_WRITE_SIZE || (problem == END && !batch.isEmpty())) {
+                flush(batch, counts);
+                if (counts[0] + counts[1] >= nextProgress) {
+                    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                    log.info("Enrichment progress: {}/{} problems written ({} failed), {} problems/s",
+                            counts[0], total, counts[1], String.format("%.1f", counts[0] / seconds));
+                    nextProgress += PROGRESS_INTERVAL;
+                }
+            }
+            if (problem == END) {
+                return counts;
+            }
+        }
+    }
+
+    private void flush(List<Problem> batch, int[] counts) throws InterruptedException {
+        try {
+            counts[0] += problemDynamoService.storeProblemBatch(batch);
+        } catch (RuntimeException e) {
+            // The problems stay missing from the table, so the next scan picks them up again
+            counts[1] += batch.size();
+            log.error("Failed to store batch of {} problems: {}", batch.size(), e.getMessage());
+        }
+        counts[2]++;
+        batch.clear();
+    }
+}
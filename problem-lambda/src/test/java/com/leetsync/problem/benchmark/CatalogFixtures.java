@@ -0,0 +1,116 @@
+package com.leetsync.problem.benchmark;
+
+import com.leetsync.problem.model.Problem;
+import com.leetsync.problem.service.ProblemCatalogDecoder;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inputs shared by the problem benchmarks: the api/problems/all payload and DynamoDB Local.
+ *
+ * The payload is the recording at -Dproblems.payload=path/to/all.json when set
+ * (curl -o all.json https://leetcode.com/api/problems/all/), otherwise a synthetic catalog of the same shape.
+ */
+final class CatalogFixtures {
+
+    static final int SYNTHETIC_PROBLEMS = 3500;
+
+    // Roughly the spread of LeetCode's tag vocabulary; 0-4 tags per problem
+    private static final String[] TAGS = {
+            "Array", "String", "Hash Table", "Dynamic Programming", "Math", "Sorting", "Greedy",
+            "Depth-First Search", "Binary Search", "Database", "Breadth-First Search", "Tree", "Matrix",
+            "Two Pointers", "Bit Manipulation", "Stack", "Heap (Priority Queue)", "Graph", "Design",
+            "Prefix Sum", "Simulation", "Backtracking", "Counting", "Sliding Window", "Union Find",
+            "Linked List", "Ordered Set", "Monotonic Stack", "Trie", "Recursion"
+    };
+
+    private CatalogFixtures() {
+    }
+
+    static byte[] catalogPayload() throws IOException {
+        String recorded = System.getProperty("problems.payload");
+        return recorded != null
+                ? Files.readAllBytes(Path.of(recorded))
+                : syntheticCatalog(SYNTHETIC_PROBLEMS).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The catalog as the scan handler holds it after tag enrichment
+     */
+    static List<Problem> enrichedProblems() throws IOException {
+        List<Problem> problems = new ArrayList<>();
+        ProblemCatalogDecoder.decode(catalogPayload(), problems::add);
+        for (int i = 0; i < problems.size(); i++) {
+            List<Problem.TopicTag> tags = new ArrayList<>();
+            for (int k = 0; k < i % 5; k++) {
+                String name = TAGS[(i * 7 + k * 13) % TAGS.length];
+                tags.add(new Problem.TopicTag(name, name.toLowerCase().replaceAll("[^a-z]+", "-")));
+            }
+            problems.get(i).setTopicTags(tags);
+        }
+        return problems;
+    }
+
+    static String syntheticCatalog(int size) {
+        StringBuilder json = new StringBuilder(size * 420);
+        json.append("{\"user_name\":\"\",\"num_solved\":0,\"num_total\":").append(size)
+                .append(",\"ac_easy\":0,\"ac_medium\":0,\"ac_hard\":0,\"stat_status_pairs\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"stat\":{\"question_id\":").append(i + 1)
+                    .append(",\"question__article__live\":null,\"question__article__slug\":null")
+                    .append(",\"question__article__has_video_solution\":null")
+                    .append(",\"question__title\":\"Synthetic Problem ").append(i)
+                    .append("\",\"question__title_slug\":\"synthetic-problem-").append(i)
+                    .append("\",\"question__hide\":false,\"total_acs\":").append(1_000_000L + i * 7919L)
+                    .append(",\"total_submitted\":").append(2_000_000L + i * 15_485L)
+                    .append(",\"frontend_question_id\":").append(i + 1)
+                    .append(",\"is_new_question\":false},\"status\":null,\"difficulty\":{\"level\":").append(i % 3 + 1)
+                    .append("},\"paid_only\":").append(i % 5 == 0)
+                    .append(",\"is_favor\":false,\"frequency\":0,\"progress\":0}");
+        }
+        json.append("],\"frequency_high\":0,\"frequency_mid\":0,\"category_slug\":\"all\"}");
+        return json.toString();
+    }
+
+    /**
+     * Client for DynamoDB Local (docker run -p 8000:8000 amazon/dynamodb-local) at DYNAMODB_ENDPOINT
+     */
+    static DynamoDbClient dynamoLocal() {
+        String endpoint = System.getenv("DYNAMODB_ENDPOINT");
+        if (endpoint == null || endpoint.isBlank()) {
+            throw new IllegalStateException("Set DYNAMODB_ENDPOINT (e.g. http://localhost:8000) to run DynamoDB benchmarks");
+        }
+        return DynamoDbClient.builder().endpointOverride(URI.create(endpoint)).build();
+    }
+
+    static void recreateProblemsTable(DynamoDbClient dynamo, String tableName) {
+        try {
+            dynamo.deleteTable(r -> r.tableName(tableName));
+            dynamo.waiter().waitUntilTableNotExists(r -> r.tableName(tableName));
+        } catch (ResourceNotFoundException e) {
+            // First run
+        }
+        dynamo.createTable(r -> r.tableName(tableName)
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("titleSlug").attributeType(ScalarAttributeType.S).build())
+                .keySchema(KeySchemaElement.builder().attributeName("titleSlug").keyType(KeyType.HASH).build()));
+        dynamo.waiter().waitUntilTableExists(r -> r.tableName(tableName));
+    }
+}
@@ -0,0 +1,70 @@
+package com.leetsync.problem.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Runs the whole problem-catalog suite (parse, fetch, schema, and the DynamoDB stages when DYNAMODB_ENDPOINT
+ * is set) with the GC profiler, writes JMH's JSON to target/jmh-problem-benchmarks.json and prints
+ * throughput next to allocation per operation for each benchmark.
+ *
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) com.leetsync.problem.benchmark.ProblemBenchmarks
+ *
+ * Pass -Dproblems.payload=all.json to run on a recorded catalog instead of the synthetic one.
+ */
+public final class ProblemBenchmarks {
+
+    private ProblemBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(ProblemCatalogParsingBenchmark.class.getSimpleName())
+                .include(ProblemFetchBenchmark.class.getSimpleName())
+                .include(ProblemSchemaBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-problem-benchmarks.json");
+        String payload = System.getProperty("problems.payload");
+        if (payload != null) {
+            options.jvmArgsAppend("-Dproblems.payload=" + payload);
+        }
+        if (System.getenv("DYNAMODB_ENDPOINT") != null) {
+            options.include(ProblemDynamoBenchmark.class.getSimpleName());
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        System.out.printf("%n%-60s %16s %18s %14s%n", "Benchmark", "Score", "Alloc B/op", "Alloc MB/s");
+        for (RunResult result : results) {
+            Result<?> primary = result.getPrimaryResult();
+            String params = result.getParams().getParamsKeys().stream()
+                    .map(key -> key + "=" + result.getParams().getParam(key))
+                    .reduce((a, b) -> a + "," + b)
+                    .map(p -> " [" + p + "]")
+                    .orElse("");
+            String name = result.getParams().getBenchmark().replace(ProblemBenchmarks.class.getPackageName() + ".", "");
+            System.out.printf("%-60s %10.3f %-5s %18.0f %14.1f%n", name + params,
+                    primary.getScore(), primary.getScoreUnit(),
+                    secondary(result, "gc.alloc.rate.norm"), secondary(result, "gc.alloc.rate"));
+        }
+    }
+
+    private static double secondary(RunResult result, String label) {
+        Result<?> value = result.getSecondaryResults().get(label);
+        if (value == null) {
+            // Older JMH versions prefix profiler results with a middle dot
+            value = result.getSecondaryResults().get("·" + label);
+        }
+        return value == null ? Double.NaN : value.getScore();
+    }
+}
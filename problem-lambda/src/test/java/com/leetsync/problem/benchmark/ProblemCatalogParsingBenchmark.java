@@ -0,0 +1,89 @@
+package com.leetsync.problem.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetsync.problem.model.LeetCodeProblemsResponse;
+import com.leetsync.problem.model.Problem;
+import com.leetsync.problem.service.ProblemCatalogDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming ProblemCatalogDecoder with the previous String + LeetCodeProblemsResponse
+ * binding + copy into Problems on an api/problems/all payload. Allocation per op comes from the GC profiler.
+ *
+ * Uses a recorded payload when -Dproblems.payload=path/to/all.json is set
+ * (curl -o all.json https://leetcode.com/api/problems/all/), otherwise a synthetic
+ * catalog of the same shape and size.
+ *
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main ProblemCatalogParsing -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProblemCatalogParsingBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = CatalogFixtures.catalogPayload();
+    }
+
+    @Benchmark
+    public List<Problem> streamingDecoder() throws IOException {
+        // Same shape as production: decode straight from the body InputStream
+        List<Problem> problems = new ArrayList<>();
+        ProblemCatalogDecoder.decode(new ByteArrayInputStream(payload), problems::add);
+        return problems;
+    }
+
+    @Benchmark
+    public List<Problem> bindAndCopy() throws IOException {
+        // Production previously read the body into a String first
+        return legacyParse(new String(payload, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The path LeetCodeProblemService used before the streaming decoder, kept as the baseline
+     */
+    static List<Problem> legacyParse(String body) throws IOException {
+        LeetCodeProblemsResponse response = MAPPER.readValue(body, LeetCodeProblemsResponse.class);
+        List<Problem> problems = new ArrayList<>();
+        for (LeetCodeProblemsResponse.StatStatusPair pair : response.getStatStatusPairs()) {
+            LeetCodeProblemsResponse.Stat stat = pair.getStat();
+            problems.add(new Problem(
+                    stat.getQuestionId(),
+                    stat.getFrontendQuestionId(),
+                    stat.getQuestionTitleSlug(),
+                    stat.getTotalAcs(),
+                    stat.getTotalSubmitted(),
+                    pair.getDifficulty() != null ? pair.getDifficulty().getLevel() : null));
+        }
+        return problems;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProblemCatalogParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
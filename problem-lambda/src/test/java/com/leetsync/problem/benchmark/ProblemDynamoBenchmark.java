@@ -0,0 +1,95 @@
+package com.leetsync.problem.benchmark;
+
+import com.leetsync.problem.model.ExistenceCheckReport;
+import com.leetsync.problem.model.Problem;
+import com.leetsync.problem.service.ProblemDynamoService;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Diff and write stages against DynamoDB Local: the BatchGetItem existence check over the whole catalog
+ * (half of it stored) at several in-flight limits, and one 25-item BatchWriteItem.
+ *
+ *   docker run -p 8000:8000 amazon/dynamodb-local
+ *   DYNAMODB_ENDPOINT=http://localhost:8000 AWS_REGION=us-west-2 AWS_ACCESS_KEY_ID=x AWS_SECRET_ACCESS_KEY=x \
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main ProblemDynamo -prof gc
+ *
+ * DynamoDB Local neither throttles nor charges capacity, so numbers show client-side cost and
+ * request fan-out, not production latency.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class ProblemDynamoBenchmark {
+
+    private static final String TABLE_NAME = "ProblemsBenchmark";
+
+    private DynamoDbClient dynamo;
+    private ProblemDynamoService service;
+    private List<Problem> problems;
+    private Set<String> titleSlugs;
+    private int nextBatch;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        dynamo = CatalogFixtures.dynamoLocal();
+        CatalogFixtures.recreateProblemsTable(dynamo, TABLE_NAME);
+        service = new ProblemDynamoService(DynamoDbEnhancedClient.builder().dynamoDbClient(dynamo).build(),
+                dynamo, TABLE_NAME);
+
+        problems = CatalogFixtures.enrichedProblems();
+        titleSlugs = problems.stream().map(Problem::getTitleSlug).collect(Collectors.toSet());
+        // Every other problem exists, so the diff sees both hits and misses in each chunk
+        List<Problem> stored = java.util.stream.IntStream.range(0, problems.size())
+                .filter(i -> i % 2 == 0)
+                .mapToObj(problems::get)
+                .toList();
+        for (int i = 0; i < stored.size(); i += ProblemDynamoService.BATCH_WRITE_SIZE) {
+            service.storeProblemBatch(stored.subList(i, Math.min(i + ProblemDynamoService.BATCH_WRITE_SIZE, stored.size())));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dynamo.close();
+    }
+
+    /**
+     * The in-flight limit only matters to the existence check, so it lives in its own state
+     */
+    @State(Scope.Benchmark)
+    public static class ExistenceCheck {
+        @Param({"1", "4", "16"})
+        public int existenceCheckConcurrency;
+
+        private ProblemDynamoService service;
+
+        @Setup
+        public void setUp(ProblemDynamoBenchmark catalog) {
+            service = new ProblemDynamoService(DynamoDbEnhancedClient.builder().dynamoDbClient(catalog.dynamo).build(),
+                    catalog.dynamo, TABLE_NAME, existenceCheckConcurrency);
+        }
+    }
+
+    @Benchmark
+    public ExistenceCheckReport checkExisting(ExistenceCheck state) {
+        return state.service.checkExisting(titleSlugs);
+    }
+
+    @Benchmark
+    public int storeProblemBatch() throws InterruptedException {
+        int batches = problems.size() / ProblemDynamoService.BATCH_WRITE_SIZE;
+        int from = (nextBatch++ % batches) * ProblemDynamoService.BATCH_WRITE_SIZE;
+        return service.storeProblemBatch(problems.subList(from, from + ProblemDynamoService.BATCH_WRITE_SIZE));
+    }
+}
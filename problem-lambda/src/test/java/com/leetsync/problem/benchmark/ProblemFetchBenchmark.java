@@ -0,0 +1,58 @@
+package com.leetsync.problem.benchmark;
+
+import com.leetsync.problem.model.Problem;
+import com.leetsync.common.service.LeetCodeClient;
+import com.leetsync.problem.service.LeetCodeProblemService;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetch stage: LeetCodeProblemService.fetchAllProblems over loopback HTTP, served from the recorded
+ * (or synthetic) api/problems/all payload. Covers the pooled client, body streaming and decoding.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class ProblemFetchBenchmark {
+
+    private HttpServer server;
+    private LeetCodeProblemService service;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] payload = CatalogFixtures.catalogPayload();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/problems/all/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(payload);
+            }
+        });
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        service = new LeetCodeProblemService(new LeetCodeClient(), URI.create(base + "/api/problems/all/"),
+                URI.create(base + "/graphql"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public List<Problem> fetchAllProblems() throws IOException, InterruptedException {
+        return service.fetchAllProblems();
+    }
+}
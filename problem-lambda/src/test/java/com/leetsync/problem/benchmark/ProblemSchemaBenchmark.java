@@ -0,0 +1,70 @@
+package com.leetsync.problem.benchmark;
+
+import com.leetsync.problem.model.Problem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean-schema marshalling of Problem, per full catalog: converting every problem to and from an attribute map
+ * as the batch writer and the enhanced client's reads do, plus the one-off cost of TableSchema.fromBean.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemSchemaBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        private TableSchema<Problem> schema;
+        private List<Problem> problems;
+        private List<Map<String, AttributeValue>> items;
+
+        @Setup
+        public void setUp() throws IOException {
+            schema = TableSchema.fromBean(Problem.class);
+            problems = CatalogFixtures.enrichedProblems();
+            items = new ArrayList<>(problems.size());
+            for (Problem problem : problems) {
+                items.add(schema.itemToMap(problem, true));
+            }
+        }
+    }
+
+    /**
+     * fromBean caches schemas per class, so only the first call in a JVM pays for introspection;
+     * measure that call alone in fresh forks, as a Lambda cold start sees it
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public TableSchema<Problem> fromBean() {
+        return TableSchema.fromBean(Problem.class);
+    }
+
+    @Benchmark
+    public void itemToMap(Catalog catalog, Blackhole blackhole) {
+        for (Problem problem : catalog.problems) {
+            blackhole.consume(catalog.schema.itemToMap(problem, true));
+        }
+    }
+
+    @Benchmark
+    public void mapToItem(Catalog catalog, Blackhole blackhole) {
+        for (Map<String, AttributeValue> item : catalog.items) {
+            blackhole.consume(catalog.schema.mapToItem(item));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.leetsync.problem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetsync.common.service.CircuitBreaker;
+import com.leetsync.common.service.LeetCodeClient;
+import com.leetsync.common.service.RateLimiter;
+import com.leetsync.problem.model.Problem;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeetCodeProblemServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private volatile String batchResponse;
+    private LeetCodeProblemService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Aliased queries get batchResponse; single-slug queries get one tag named after the slug
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql", exchange -> {
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            requests.add(request);
+            String response = request.path("query").asText().startsWith("query questionTopicTagsBatch")
+                    ? batchResponse
+                    : "{\"data\":{\"question\":{\"topicTags\":[{\"name\":\"Retried\",\"slug\":\""
+                            + request.path("variables").path("titleSlug").asText() + "\"}]}}}";
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                new RateLimiter(1000, 1, 1000), new CircuitBreaker(100, Duration.ofSeconds(30)), 1, Duration.ofMillis(1));
+        service = new LeetCodeProblemService(client, URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/graphql"));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchTopicTags_splitsAliasesAndRetriesErroredSlugsAlone() throws Exception {
+        batchResponse = """
+                {"data":{"q0":{"topicTags":[{"name":"Array","slug":"array"},{"name":"Hash Table","slug":"hash-table"}]},
+                         "q1":null,
+                         "q2":{"topicTags":[]}},
+                 "errors":[{"message":"timeout","path":["q1","topicTags"]}]}
+                """;
+
+        Map<String, List<Problem.TopicTag>> tags = service.fetchTopicTags(List.of("two-sum", "3sum", "untagged"));
+
+        assertEquals(List.of("two-sum", "3sum", "untagged"), List.copyOf(tags.keySet()));
+        assertEquals(List.of("array", "hash-table"), tags.get("two-sum").stream().map(Problem.TopicTag::getSlug).toList());
+        assertEquals("Retried", tags.get("3sum").get(0).getName());
+        assertTrue(tags.get("untagged").isEmpty());
+
+        assertEquals(2, requests.size());
+        JsonNode batch = requests.get(0);
+        assertTrue(batch.path("query").asText().contains("q1: question(titleSlug: $s1)"));
+        assertEquals("3sum", batch.path("variables").path("s1").asText());
+        assertEquals("3sum", requests.get(1).path("variables").path("titleSlug").asText());
+    }
+
+    @Test
+    void fetchTopicTags_withOneSlugSkipsTheAliasedQuery() throws Exception {
+        Map<String, List<Problem.TopicTag>> tags = service.fetchTopicTags(List.of("two-sum"));
+
+        assertEquals("two-sum", tags.get("two-sum").get(0).getSlug());
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).path("query").asText().startsWith("query getQuestionDetail"));
+    }
+
+    @Test
+    void fetchTopicTags_failsTheBatchOnANon200Status() {
+        status = 500;
+        batchResponse = "{}";
+
+        IOException error = assertThrows(IOException.class, () -> service.fetchTopicTags(List.of("two-sum", "3sum")));
+        assertTrue(error.getMessage().contains("Status: 500"), error.getMessage());
+    }
+
+    @Test
+    void fetchTopicTags_failsTheBatchWhenNoDataCameBack() {
+        batchResponse = "{\"errors\":[{\"message\":\"rate limited\"}]}";
+
+        assertThrows(IOException.class, () -> service.fetchTopicTags(List.of("two-sum", "3sum")));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void buildTopicTagsQuery_escapesTheTitleSlug() throws Exception {
+        String titleSlug = "two-sum\"}, \"x\": {\"";
+
+        JsonNode request = MAPPER.readTree(service.buildTopicTagsQuery(titleSlug));
+
+        assertEquals(titleSlug, request.path("variables").path("titleSlug").asText());
+        assertEquals(1, request.path("variables").size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.leetsync.problem.service;
+
+import com.leetsync.problem.model.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemCatalogDecoderTest {
+
+    private static final String CATALOG = """
+            {"user_name":"","num_solved":0,
+             "ac_easy":0,
+             "stat_status_pairs":[
+               {"stat":{"question_id":1,"question__title":"Two Sum","question__title_slug":"two-sum",
+                        "question__hide":false,"total_acs":1200,"total_submitted":2000,
+                        "frontend_question_id":1,"is_new_question":false},
+                "status":null,"difficulty":{"level":1},"paid_only":false,"is_favor":false,"frequency":0,"progress":0},
+               {"difficulty":{"level":3},
+                "extra":{"nested":[{"question__title_slug":"decoy"}]},
+                "stat":{"question_id":"4","frontend_question_id":"4","question__title_slug":"median-of-two-sorted-arrays",
+                        "total_acs":"300","total_submitted":null}},
+               {"stat":{"question_id":9,"question__title":"No slug"},"difficulty":{"level":2}},
+               {"stat":{"question_id":10,"question__title_slug":"regular-expression-matching",
+                        "total_acs":[1,2],"total_submitted":"n/a"},"difficulty":{"level":{"value":3}}}
+             ],
+             "frequency_high":0}
+            """;
+
+    @Test
+    void decode_readsEveryPairWithASlugInOrder() throws Exception {
+        List<Problem> problems = decode(CATALOG);
+
+        assertEquals(List.of("two-sum", "median-of-two-sorted-arrays", "regular-expression-matching"),
+                problems.stream().map(Problem::getTitleSlug).toList());
+
+        Problem twoSum = problems.get(0);
+        assertEquals(1L, twoSum.getQuestionId());
+        assertEquals(1, twoSum.getFrontendQuestionId());
+        assertEquals(1200L, twoSum.getTotalAccepted());
+        assertEquals(2000L, twoSum.getTotalSubmitted());
+        assertEquals(1, twoSum.getDifficultyLevel());
+        assertEquals("Easy", twoSum.getDifficulty());
+        assertEquals(60.0, twoSum.getAcRate(), 1e-9);
+        assertEquals(twoSum.computeStatsHash(), twoSum.getStatsHash());
+    }
+
+    @Test
+    void decode_acceptsNumbersAsStringsAndFieldsInAnyOrder() throws Exception {
+        Problem median = decode(CATALOG).get(1);
+
+        assertEquals(4L, median.getQuestionId());
+        assertEquals(4, median.getFrontendQuestionId());
+        assertEquals(300L, median.getTotalAccepted());
+        assertNull(median.getTotalSubmitted());
+        assertEquals("Hard", median.getDifficulty());
+    }
+
+    @Test
+    void decode_treatsMalformedValuesAsMissingWithoutLosingItsPlace() throws Exception {
+        Problem regex = decode(CATALOG).get(2);
+
+        assertEquals(10L, regex.getQuestionId());
+        assertNull(regex.getTotalAccepted());
+        assertNull(regex.getTotalSubmitted());
+        assertNull(regex.getDifficultyLevel());
+    }
+
+    @Test
+    void decode_fromAStreamMatchesTheByteArrayAndLeavesTheStreamOpen() throws Exception {
+        byte[] body = (CATALOG + "   ").getBytes(StandardCharsets.UTF_8);
+        List<Problem> fromStream = new ArrayList<>();
+        ByteArrayInputStream in = new ByteArrayInputStream(body) {
+            @Override
+            public void close() {
+                fail("the caller owns the stream");
+            }
+        };
+
+        assertEquals(3, ProblemCatalogDecoder.decode(in, fromStream::add));
+
+        assertEquals(decode(CATALOG).stream().map(Problem::computeStatsHash).toList(),
+                fromStream.stream().map(Problem::computeStatsHash).toList());
+    }
+
+    @Test
+    void decode_withoutPairsEmitsNothing() throws Exception {
+        assertTrue(decode("{\"user_name\":\"\",\"stat_status_pairs\":[]}").isEmpty());
+        assertTrue(decode("{\"stat_status_pairs\":null}").isEmpty());
+    }
+
+    @Test
+    void decode_rejectsANonObjectBody() {
+        assertThrows(IOException.class, () -> decode("[]"));
+    }
+
+    private static List<Problem> decode(String json) throws IOException {
+        List<Problem> problems = new ArrayList<>();
+        int count = ProblemCatalogDecoder.decode(json.getBytes(StandardCharsets.UTF_8), problems::add);
+        assertEquals(problems.size(), count);
+        return problems;
+    }
+}
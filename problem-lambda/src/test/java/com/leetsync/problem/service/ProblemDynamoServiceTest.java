@@ -0,0 +1,262 @@
+package com.leetsync.problem.service;
+
+import com.leetsync.problem.model.ExistenceCheckReport;
+import com.leetsync.problem.model.Problem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exercises the batch paths through a real enhanced client on top of a mocked low-level client
+ */
+class ProblemDynamoServiceTest {
+
+    private static final String TABLE_NAME = "Problems";
+
+    private DynamoDbClient mockClient;
+    private ProblemDynamoService service;
+
+    @BeforeEach
+    void setUp() {
+        mockClient = mock(DynamoDbClient.class);
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(mockClient)
+                .build();
+        service = new ProblemDynamoService(enhancedClient, mockClient, TABLE_NAME);
+    }
+
+    @Test
+    void storeProblemBatch_retriesUnprocessedItemsOnly() throws Exception {
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder()
+                        .unprocessedItems(Map.of(TABLE_NAME, List.of(unprocessedPut("3sum"))))
+                        .build())
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        int written = service.storeProblemBatch(List.of(problem(1L, "two-sum"), problem(15L, "3sum")));
+
+        assertEquals(2, written);
+        ArgumentCaptor<BatchWriteItemRequest> captor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(mockClient, times(2)).batchWriteItem(captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).requestItems().get(TABLE_NAME).size());
+        List<WriteRequest> retried = captor.getAllValues().get(1).requestItems().get(TABLE_NAME);
+        assertEquals(1, retried.size());
+        assertEquals("3sum", retried.get(0).putRequest().item().get("titleSlug").s());
+    }
+
+    @Test
+    void storeProblemBatch_givesUpWhenItemsStayUnprocessed() {
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder()
+                        .unprocessedItems(Map.of(TABLE_NAME, List.of(unprocessedPut("3sum"))))
+                        .build());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> service.storeProblemBatch(List.of(problem(15L, "3sum"))));
+
+        assertTrue(error.getMessage().startsWith("Giving up on 1 unprocessed problems"), error.getMessage());
+        verify(mockClient, times(5)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void storeProblemBatch_skipsProblemsWithoutATitleSlug() throws Exception {
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        assertEquals(1, service.storeProblemBatch(List.of(problem(1L, "two-sum"), problem(2L, null))));
+    }
+
+    @Test
+    void updateStats_sendsAConditionalUpdateCarryingTheNewStatsHash() {
+        when(mockClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+        Problem twoSum = new Problem(1L, 1, "two-sum", 1200L, 2000L, 2);
+        Problem unrated = new Problem(2L, 2, "unrated", null, null, null);
+
+        assertEquals(2, service.updateStats(List.of(twoSum, unrated)));
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(mockClient, times(2)).updateItem(captor.capture());
+        Map<String, UpdateItemRequest> bySlug = new HashMap<>();
+        captor.getAllValues().forEach(request -> bySlug.put(request.key().get("titleSlug").s(), request));
+
+        UpdateItemRequest update = bySlug.get("two-sum");
+        assertEquals(TABLE_NAME, update.tableName());
+        assertEquals("attribute_exists(titleSlug)", update.conditionExpression());
+        assertFalse(update.updateExpression().contains("topicTags"), "tags are never touched by a stats refresh");
+        Map<String, AttributeValue> values = update.expressionAttributeValues();
+        assertEquals("1200", values.get(":totalAccepted").n());
+        assertEquals("Medium", values.get(":difficulty").s());
+        assertEquals(String.valueOf(twoSum.computeStatsHash()), values.get(":statsHash").n());
+
+        Map<String, AttributeValue> unratedValues = bySlug.get("unrated").expressionAttributeValues();
+        assertTrue(unratedValues.get(":totalAccepted").nul());
+        assertTrue(unratedValues.get(":difficulty").nul());
+        assertEquals(String.valueOf(unrated.computeStatsHash()), unratedValues.get(":statsHash").n());
+    }
+
+    @Test
+    void updateStats_countsOnlyProblemsThatWereStillThereAndWritable() {
+        when(mockClient.updateItem(any(UpdateItemRequest.class))).thenAnswer(inv -> {
+            String titleSlug = inv.<UpdateItemRequest>getArgument(0).key().get("titleSlug").s();
+            if (titleSlug.equals("deleted")) {
+                throw ConditionalCheckFailedException.builder().message("gone").build();
+            }
+            if (titleSlug.equals("throttled")) {
+                throw DynamoDbException.builder().message("throttled").build();
+            }
+            return UpdateItemResponse.builder().build();
+        });
+        List<Problem> problems = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            problems.add(problem((long) i, "problem-" + i));
+        }
+        problems.add(problem(100L, "deleted"));
+        problems.add(problem(101L, "throttled"));
+
+        assertEquals(30, service.updateStats(problems));
+        verify(mockClient, times(32)).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    void computeStatsHash_changesWithStatsAndDifficultyOnly() {
+        Problem stored = new Problem(1L, 1, "two-sum", 1200L, 2000L, 1);
+        Problem same = new Problem(1L, 1, "two-sum", 1200L, 2000L, 1);
+        same.setTopicTags(List.of(new Problem.TopicTag("Array", "array")));
+        same.setAcRate(99.0);
+
+        assertEquals(stored.computeStatsHash(), same.computeStatsHash());
+        assertNotEquals(stored.computeStatsHash(), new Problem(1L, 1, "two-sum", 1201L, 2000L, 1).computeStatsHash());
+        assertNotEquals(stored.computeStatsHash(), new Problem(1L, 1, "two-sum", 1200L, 2001L, 1).computeStatsHash());
+        assertNotEquals(stored.computeStatsHash(), new Problem(1L, 1, "two-sum", 1200L, 2000L, 2).computeStatsHash());
+        // Swapped totals must not collide
+        assertNotEquals(new Problem(1L, 1, "a", 5L, 7L, 1).computeStatsHash(), new Problem(1L, 1, "a", 7L, 5L, 1).computeStatsHash());
+        // A missing total differs from zero
+        assertNotEquals(new Problem(1L, 1, "a", null, 7L, 1).computeStatsHash(), new Problem(1L, 1, "a", 0L, 7L, 1).computeStatsHash());
+    }
+
+    @Test
+    void checkExisting_retriesUnprocessedKeysAndReadsStoredStatsHashes() {
+        when(mockClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(TABLE_NAME, List.of(
+                                Map.of("titleSlug", AttributeValue.fromS("two-sum"), "statsHash", AttributeValue.fromN("42")),
+                                Map.of("titleSlug", AttributeValue.fromS("legacy")))))
+                        .unprocessedKeys(Map.of(TABLE_NAME, keys("3sum")))
+                        .build())
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(TABLE_NAME, List.of(
+                                Map.of("titleSlug", AttributeValue.fromS("3sum"), "statsHash", AttributeValue.fromN("7")))))
+                        .build());
+
+        ExistenceCheckReport report = service.checkExisting(new LinkedHashSet<>(List.of("two-sum", "legacy", "3sum", "new-problem")));
+
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("two-sum", 42L);
+        expected.put("legacy", null);
+        expected.put("3sum", 7L);
+        assertEquals(expected, report.getStoredStatsHashes());
+        assertTrue(report.getUnresolved().isEmpty());
+        assertEquals(4, report.getConfirmed());
+        assertEquals(2, report.getRequests());
+        assertEquals(1, report.getRetriedKeys());
+
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(mockClient, times(2)).batchGetItem(captor.capture());
+        KeysAndAttributes first = captor.getAllValues().get(0).requestItems().get(TABLE_NAME);
+        assertEquals(4, first.keys().size());
+        assertEquals("titleSlug, statsHash", first.projectionExpression());
+        assertEquals(keys("3sum").keys(), captor.getAllValues().get(1).requestItems().get(TABLE_NAME).keys());
+    }
+
+    @Test
+    void checkExisting_reportsKeysDynamoNeverAnsweredAsUnresolved() {
+        when(mockClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenThrow(DynamoDbException.builder().message("throttled").build())
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(TABLE_NAME, List.of(Map.of("titleSlug", AttributeValue.fromS("two-sum")))))
+                        .unprocessedKeys(Map.of(TABLE_NAME, keys("3sum")))
+                        .build())
+                .thenReturn(BatchGetItemResponse.builder()
+                        .unprocessedKeys(Map.of(TABLE_NAME, keys("3sum")))
+                        .build());
+
+        ExistenceCheckReport report = service.checkExisting(new LinkedHashSet<>(List.of("two-sum", "3sum")));
+
+        assertEquals(Set.of("two-sum"), report.getStoredStatsHashes().keySet());
+        assertEquals(Set.of("3sum"), report.getUnresolved());
+        assertEquals(1, report.getAssumed());
+        // One throttled call, then four more attempts for the key left pending
+        assertEquals(5, report.getRequests());
+        assertEquals(2 + 1 + 1 + 1, report.getRetriedKeys());
+    }
+
+    @Test
+    void checkExisting_splitsKeysIntoChunksOfOneHundred() {
+        when(mockClient.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(BatchGetItemResponse.builder().build());
+        Set<String> titleSlugs = new LinkedHashSet<>();
+        for (int i = 0; i < 250; i++) {
+            titleSlugs.add("problem-" + i);
+        }
+
+        ExistenceCheckReport report = service.checkExisting(titleSlugs);
+
+        assertTrue(report.getStoredStatsHashes().isEmpty());
+        assertTrue(report.getUnresolved().isEmpty());
+        assertEquals(3, report.getRequests());
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(mockClient, times(3)).batchGetItem(captor.capture());
+        assertEquals(List.of(50, 100, 100), captor.getAllValues().stream()
+                .map(request -> request.requestItems().get(TABLE_NAME).keys().size())
+                .sorted()
+                .toList());
+    }
+
+    @Test
+    void checkExisting_withNoKeysSendsNothing() {
+        assertEquals(0, service.checkExisting(Set.of()).getChecked());
+        verify(mockClient, never()).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    private static KeysAndAttributes keys(String... titleSlugs) {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        for (String titleSlug : titleSlugs) {
+            keys.add(Map.of("titleSlug", AttributeValue.fromS(titleSlug)));
+        }
+        return KeysAndAttributes.builder().keys(keys).build();
+    }
+
+    private static Problem problem(Long questionId, String titleSlug) {
+        return new Problem(questionId, questionId.intValue(), titleSlug, 10L, 20L, 1);
+    }
+
+    private static WriteRequest unprocessedPut(String titleSlug) {
+        return WriteRequest.builder()
+                .putRequest(PutRequest.builder().item(Map.of("titleSlug", AttributeValue.fromS(titleSlug))).build())
+                .build();
+    }
+}
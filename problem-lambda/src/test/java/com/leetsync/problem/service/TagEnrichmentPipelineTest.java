@@ -0,0 +1,154 @@
+package com.leetsync.problem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetsync.common.service.CircuitBreaker;
+import com.leetsync.common.service.LeetCodeClient;
+import com.leetsync.common.service.RateLimiter;
+import com.leetsync.problem.model.EnrichmentReport;
+import com.leetsync.problem.model.Problem;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the pipeline against a fake GraphQL endpoint and a real enhanced client on top of a mocked low-level client
+ */
+class TagEnrichmentPipelineTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private DynamoDbClient mockClient;
+    private TagEnrichmentPipeline pipeline;
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Answers every aliased tag query with one tag per problem; a batch containing "poison" fails
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql", exchange -> {
+            JsonNode variables = MAPPER.readTree(exchange.getRequestBody()).path("variables");
+            ObjectNode data = MAPPER.createObjectNode();
+            boolean poisoned = false;
+            for (Iterator<Map.Entry<String, JsonNode>> it = variables.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> variable = it.next();
+                String titleSlug = variable.getValue().asText();
+                poisoned |= titleSlug.contains("poison");
+                data.putObject("q" + variable.getKey().substring(1)).putArray("topicTags").addObject()
+                        .put("name", "Tag " + titleSlug).put("slug", "tag-" + titleSlug);
+            }
+            byte[] body = (poisoned ? "{}" : "{\"data\":" + data + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(poisoned ? 500 : 200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        LeetCodeClient client = new LeetCodeClient(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                new RateLimiter(1000, 1, 1000), new CircuitBreaker(100, Duration.ofSeconds(30)), 1, Duration.ofMillis(1));
+        LeetCodeProblemService leetCodeProblemService = new LeetCodeProblemService(client,
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/graphql"));
+
+        mockClient = mock(DynamoDbClient.class);
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(inv -> {
+            BatchWriteItemRequest request = inv.getArgument(0);
+            for (WriteRequest write : request.requestItems().get("Problems")) {
+                assertEquals("tag-" + write.putRequest().item().get("titleSlug").s(),
+                        write.putRequest().item().get("topicTags").l().get(0).m().get("slug").s());
+                stored.add(write.putRequest().item().get("titleSlug").s());
+            }
+            return BatchWriteItemResponse.builder().build();
+        });
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(mockClient)
+                .build();
+        ProblemDynamoService problemDynamoService = new ProblemDynamoService(enhancedClient, mockClient, "Problems");
+
+        pipeline = new TagEnrichmentPipeline(leetCodeProblemService, problemDynamoService, 3, 10, 5);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void run_enrichesAndStoresEveryProblemInFullBatches() throws Exception {
+        List<Problem> problems = problems(60);
+
+        EnrichmentReport report = pipeline.run(problems);
+
+        assertEquals(60, report.getTotal());
+        assertEquals(60, report.getEnriched());
+        assertEquals(0, report.getFetchFailures());
+        assertEquals(60, report.getStored());
+        assertEquals(0, report.getWriteFailures());
+        // 25 + 25 + 10
+        assertEquals(3, report.getBatches());
+        assertEquals(60, stored.size());
+        verify(mockClient, times(3)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void run_countsAFailedTagFetchAgainstItsWholeChunk() throws Exception {
+        List<Problem> problems = problems(30);
+        problems.get(12).setTitleSlug("poison-12");
+
+        EnrichmentReport report = pipeline.run(problems);
+
+        assertEquals(20, report.getEnriched());
+        assertEquals(10, report.getFetchFailures());
+        assertEquals(20, report.getStored());
+        assertFalse(stored.contains("poison-12"));
+        assertFalse(stored.contains("problem-10"));
+    }
+
+    @Test
+    void run_failsInsteadOfHangingWhenTheWriterDies() {
+        // Not a RuntimeException, so it escapes the writer's per-batch handling
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenThrow(new AssertionError("writer died"));
+        List<Problem> problems = problems(200);
+
+        IllegalStateException error = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.run(problems)));
+
+        assertEquals("writer died", error.getCause().getMessage());
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new TagEnrichmentPipeline(null, null, 0, 10, 5));
+        assertThrows(IllegalArgumentException.class, () -> new TagEnrichmentPipeline(null, null, 3, 10, 0));
+    }
+
+    private static List<Problem> problems(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Problem((long) i, i, "problem-" + i, 10L, 20L, 1 + i % 3))
+                .collect(Collectors.toList());
+    }
+}
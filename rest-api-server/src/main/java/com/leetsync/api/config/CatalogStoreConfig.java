@@ -0,0 +1,28 @@
+package com.leetsync.api.config;
+
+import com.leetsync.common.service.CatalogSnapshotStore;
+import com.leetsync.common.service.FileCatalogSnapshotStore;
+import com.leetsync.common.service.S3CatalogSnapshotStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.file.Path;
+
+@Configuration
+public class CatalogStoreConfig {
+
+    /** S3 when CATALOG_BUCKET is set, otherwise the directory in CATALOG_SNAPSHOT_DIR (./catalog by default) for local runs. */
+    @Bean
+    public CatalogSnapshotStore catalogSnapshotStore() {
+        String bucket = System.getenv("CATALOG_BUCKET");
+        if (bucket == null || bucket.isBlank()) {
+            String dir = System.getenv("CATALOG_SNAPSHOT_DIR");
+            return new FileCatalogSnapshotStore(Path.of(dir == null || dir.isBlank() ? "catalog" : dir));
+        }
+        return new S3CatalogSnapshotStore(S3Client.builder()
+                .region(Region.US_WEST_2)
+                .build(), bucket);
+    }
+}
@@ -0,0 +1,67 @@
+package com.leetsync.api.config;
+
+import com.leetsync.api.service.InMemoryOnboardingQueue;
+import com.leetsync.api.service.LambdaInvokeOnboardingSync;
+import com.leetsync.api.service.OnboardingQueue;
+import com.leetsync.api.service.OnboardingSync;
+import com.leetsync.api.service.SqsOnboardingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class OnboardingQueueConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(OnboardingQueueConfig.class);
+
+    // Same batch size and window as the onboarding function's SQS event source
+    private static final int LOCAL_BATCH_SIZE = 10;
+    private static final Duration LOCAL_DRAIN_INTERVAL = Duration.ofSeconds(5);
+    private static final int DEFAULT_LOCAL_CAPACITY = 1000;
+
+    /**
+     * SQS when ONBOARDING_QUEUE_URL is set. Otherwise an in-memory queue for local runs, drained into the
+     * onboarding Lambda at ONBOARDING_INVOKE_URL (e.g. sam local start-lambda); without one, drained batches
+     * are left to the regular sync schedule. Spring closes the in-memory queue, stopping its drainer, on shutdown.
+     */
+    @Bean
+    public OnboardingQueue onboardingQueue() {
+        String queueUrl = System.getenv("ONBOARDING_QUEUE_URL");
+        if (queueUrl == null || queueUrl.isBlank()) {
+            InMemoryOnboardingQueue queue = new InMemoryOnboardingQueue(
+                    intFromEnv("ONBOARDING_QUEUE_CAPACITY", DEFAULT_LOCAL_CAPACITY), localOnboardingSync(), LOCAL_BATCH_SIZE);
+            queue.start(LOCAL_DRAIN_INTERVAL);
+            return queue;
+        }
+        return new SqsOnboardingQueue(SqsClient.builder()
+                .region(Region.US_WEST_2)
+                .build(), queueUrl);
+    }
+
+    private static OnboardingSync localOnboardingSync() {
+        String invokeUrl = System.getenv("ONBOARDING_INVOKE_URL");
+        if (invokeUrl == null || invokeUrl.isBlank()) {
+            return usernames -> log.info("No ONBOARDING_INVOKE_URL; leaving {} to the regular sync schedule", usernames);
+        }
+        return new LambdaInvokeOnboardingSync(HttpClient.newHttpClient(), URI.create(invokeUrl));
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
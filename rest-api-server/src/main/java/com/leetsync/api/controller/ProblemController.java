@@ -0,0 +1,60 @@
+package com.leetsync.api.controller;
+
+import com.leetsync.api.dto.TagProblemsResponse;
+import com.leetsync.api.dto.TagSummaryResponse;
+import com.leetsync.api.service.TagIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for problem catalog lookups
+ * Served from the tag index published by the problem scan, not the Problems table
+ */
+@RestController
+@RequestMapping("/problems")
+public class ProblemController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProblemController.class);
+    private final TagIndexService tagIndexService;
+
+    public ProblemController(TagIndexService tagIndexService) {
+        this.tagIndexService = tagIndexService;
+    }
+
+    /**
+     * GET /api/problems/tags
+     * Returns every tag with its problem count per difficulty
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagSummaryResponse>> getTags() {
+        return ResponseEntity.ok(tagIndexService.getTags());
+    }
+
+    /**
+     * GET /api/problems/tags/{tagSlug}?difficulty=Medium
+     * Returns the problems carrying the tag, optionally at one difficulty, in questionId order
+     */
+    @GetMapping("/tags/{tagSlug}")
+    public ResponseEntity<TagProblemsResponse> getProblemsByTag(@PathVariable String tagSlug,
+                                                                @RequestParam(required = false) String difficulty) {
+        Integer difficultyLevel = null;
+        if (difficulty != null) {
+            difficultyLevel = TagIndexService.parseDifficulty(difficulty);
+            if (difficultyLevel == null) {
+                logger.warn("Invalid difficulty provided for tag {}: {}", tagSlug, difficulty);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return tagIndexService.getProblems(tagSlug, difficultyLevel)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,63 @@
+package com.leetsync.api.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for the problems carrying one tag, optionally at one difficulty
+ */
+public class TagProblemsResponse {
+
+    private String tag;
+    private String name;
+    private String difficulty;
+    private int count;
+    private List<ProblemRef> problems;
+    private long indexVersion;
+
+    public TagProblemsResponse() {}
+
+    public TagProblemsResponse(String tag, String name, String difficulty, List<ProblemRef> problems, long indexVersion) {
+        this.tag = tag;
+        this.name = name;
+        this.difficulty = difficulty;
+        this.count = problems.size();
+        this.problems = problems;
+        this.indexVersion = indexVersion;
+    }
+
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDifficulty() { return difficulty; }
+    public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public List<ProblemRef> getProblems() { return problems; }
+    public void setProblems(List<ProblemRef> problems) { this.problems = problems; }
+
+    public long getIndexVersion() { return indexVersion; }
+    public void setIndexVersion(long indexVersion) { this.indexVersion = indexVersion; }
+
+    public static class ProblemRef {
+        private int questionId;
+        private String titleSlug;
+
+        public ProblemRef() {}
+
+        public ProblemRef(int questionId, String titleSlug) {
+            this.questionId = questionId;
+            this.titleSlug = titleSlug;
+        }
+
+        public int getQuestionId() { return questionId; }
+        public void setQuestionId(int questionId) { this.questionId = questionId; }
+
+        public String getTitleSlug() { return titleSlug; }
+        public void setTitleSlug(String titleSlug) { this.titleSlug = titleSlug; }
+    }
+}
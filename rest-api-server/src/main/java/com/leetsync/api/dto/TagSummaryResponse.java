@@ -0,0 +1,38 @@
+package com.leetsync.api.dto;
+
+/**
+ * Response DTO for one tag in the tag index: problem counts per difficulty
+ */
+public class TagSummaryResponse {
+
+    private String tag;
+    private String name;
+    private int easy;
+    private int medium;
+    private int hard;
+
+    public TagSummaryResponse() {}
+
+    public TagSummaryResponse(String tag, String name, int easy, int medium, int hard) {
+        this.tag = tag;
+        this.name = name;
+        this.easy = easy;
+        this.medium = medium;
+        this.hard = hard;
+    }
+
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getEasy() { return easy; }
+    public void setEasy(int easy) { this.easy = easy; }
+
+    public int getMedium() { return medium; }
+    public void setMedium(int medium) { this.medium = medium; }
+
+    public int getHard() { return hard; }
+    public void setHard(int hard) { this.hard = hard; }
+}
@@ -0,0 +1,108 @@
+package com.leetsync.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the SQS onboarding queue and the Lambda that consumes it.
+ * Pending usernames are deduplicated, so re-creating a user before it is drained enqueues it once.
+ * Once started, a drainer hands up to batchSize users at a time to the onboarding sync, like the
+ * SQS event source does. The queue is bounded: enqueue fails when it is full, which
+ * UserService tolerates; the regular sync schedule picks those users up instead.
+ */
+public class InMemoryOnboardingQueue implements OnboardingQueue, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOnboardingQueue.class);
+
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final int capacity;
+    private final OnboardingSync onboardingSync;
+    private final int batchSize;
+    private ScheduledExecutorService drainer;
+
+    public InMemoryOnboardingQueue(int capacity, OnboardingSync onboardingSync, int batchSize) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("capacity and batchSize must be at least 1, got "
+                    + capacity + " and " + batchSize);
+        }
+        this.capacity = capacity;
+        this.onboardingSync = onboardingSync;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public synchronized void enqueue(String username) {
+        if (pending.size() >= capacity && !pending.contains(username)) {
+            throw new IllegalStateException("Onboarding queue is full (" + capacity + " users)");
+        }
+        pending.add(username);
+    }
+
+    /** Removes and returns up to maxUsers pending usernames in arrival order. */
+    public synchronized List<String> drain(int maxUsers) {
+        List<String> batch = new ArrayList<>();
+        var it = pending.iterator();
+        while (it.hasNext() && batch.size() < maxUsers) {
+            batch.add(it.next());
+            it.remove();
+        }
+        return batch;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /** Drains the queue every interval on a background thread until closed. */
+    public synchronized void start(Duration interval) {
+        if (drainer != null) {
+            return;
+        }
+        drainer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("onboarding-drainer")
+                .daemon(true)
+                .factory());
+        drainer.scheduleWithFixedDelay(this::drainAll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands everything pending to the onboarding sync in batches of batchSize.
+     * A failed batch is dropped, not retried: its users keep no watermark and the regular schedule backfills them.
+     *
+     * @return the number of users handed over
+     */
+    public int drainAll() {
+        int drained = 0;
+        for (List<String> batch = drain(batchSize); !batch.isEmpty(); batch = drain(batchSize)) {
+            drained += batch.size();
+            try {
+                onboardingSync.onboard(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while onboarding {}", batch);
+                return drained;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to onboard {}; the regular sync schedule will pick them up", batch, e);
+            }
+        }
+        return drained;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+            drainer = null;
+        }
+    }
+}
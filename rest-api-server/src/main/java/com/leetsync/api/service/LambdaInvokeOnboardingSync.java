@@ -0,0 +1,67 @@
+package com.leetsync.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a local onboarding batch by invoking the ingestion OnboardingHandler through a Lambda
+ * invoke endpoint (sam local start-lambda, or the runtime interface emulator) with the same
+ * SQS event shape the deployed queue delivers.
+ */
+public class LambdaInvokeOnboardingSync implements OnboardingSync {
+
+    private static final Logger log = LoggerFactory.getLogger(LambdaInvokeOnboardingSync.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // The deployed onboarding function times out after a minute
+    private static final Duration INVOKE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final HttpClient httpClient;
+    private final URI invokeUri;
+
+    public LambdaInvokeOnboardingSync(HttpClient httpClient, URI invokeUri) {
+        this.httpClient = httpClient;
+        this.invokeUri = invokeUri;
+    }
+
+    @Override
+    public void onboard(List<String> usernames) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(invokeUri)
+                .timeout(INVOKE_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(sqsEvent(usernames)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Onboarding invoke returned HTTP " + response.statusCode() + ": " + response.body());
+        }
+
+        // Message IDs are the users' positions in the batch
+        for (JsonNode failure : MAPPER.readTree(response.body()).path("batchItemFailures")) {
+            String messageId = failure.path("itemIdentifier").asText();
+            log.warn("Onboarding failed for {}", usernames.get(Integer.parseInt(messageId)));
+        }
+    }
+
+    static String sqsEvent(List<String> usernames) throws IOException {
+        ObjectNode event = MAPPER.createObjectNode();
+        ArrayNode records = event.putArray("Records");
+        for (int i = 0; i < usernames.size(); i++) {
+            records.addObject()
+                    .put("messageId", String.valueOf(i))
+                    .put("body", MAPPER.writeValueAsString(Map.of("username", usernames.get(i))));
+        }
+        return MAPPER.writeValueAsString(event);
+    }
+}
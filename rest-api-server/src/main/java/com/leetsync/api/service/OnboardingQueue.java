@@ -0,0 +1,9 @@
+package com.leetsync.api.service;
+
+/**
+ * Hands newly created users to the ingestion pipeline for an immediate backfill.
+ */
+public interface OnboardingQueue {
+
+    void enqueue(String username);
+}
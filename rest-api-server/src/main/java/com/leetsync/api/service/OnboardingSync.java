@@ -0,0 +1,12 @@
+package com.leetsync.api.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs the onboarding backfill for a batch of users, the job the onboarding Lambda does for SQS batches.
+ */
+public interface OnboardingSync {
+
+    void onboard(List<String> usernames) throws IOException, InterruptedException;
+}
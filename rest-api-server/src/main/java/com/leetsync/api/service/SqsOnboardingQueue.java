@@ -0,0 +1,33 @@
+package com.leetsync.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.Map;
+
+public class SqsOnboardingQueue implements OnboardingQueue {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final SqsClient sqsClient;
+    private final String queueUrl;
+
+    public SqsOnboardingQueue(SqsClient sqsClient, String queueUrl) {
+        this.sqsClient = sqsClient;
+        this.queueUrl = queueUrl;
+    }
+
+    @Override
+    public void enqueue(String username) {
+        try {
+            sqsClient.sendMessage(SendMessageRequest.builder()
+                    .queueUrl(queueUrl)
+                    .messageBody(MAPPER.writeValueAsString(Map.of("username", username)))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize onboarding message for " + username, e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.leetsync.api.service;
+
+import com.leetsync.api.dto.TagProblemsResponse;
+import com.leetsync.api.dto.TagSummaryResponse;
+import com.leetsync.common.service.CatalogSnapshotStore;
+import com.leetsync.common.service.SnapshotRefresher;
+import com.leetsync.common.service.TagIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves tag -> problem lookups from the tag index the problem scan publishes.
+ * The index is memory-mapped from a local copy; LATEST is re-checked at most every refresh interval.
+ */
+@Service
+public class TagIndexService {
+
+    private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(10);
+    private static final Path DEFAULT_CACHE_DIR = Path.of(System.getProperty("java.io.tmpdir"), "tag-index");
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    private final SnapshotRefresher<TagIndex> index;
+
+    @Autowired
+    public TagIndexService(CatalogSnapshotStore store) {
+        this(store, DEFAULT_REFRESH_INTERVAL, DEFAULT_CACHE_DIR);
+    }
+
+    TagIndexService(CatalogSnapshotStore store, Duration refreshInterval, Path cacheDir) {
+        this.index = new SnapshotRefresher<>("tag index", () -> TagIndex.load(store, cacheDir), refreshInterval);
+    }
+
+    public List<TagSummaryResponse> getTags() {
+        TagIndex current = index.current();
+        if (current == null) {
+            return List.of();
+        }
+        List<TagSummaryResponse> tags = new ArrayList<>(current.getTagCount());
+        for (String slug : current.getTagSlugs()) {
+            tags.add(new TagSummaryResponse(slug, current.getTagName(slug),
+                    current.getProblemCount(slug, 1), current.getProblemCount(slug, 2), current.getProblemCount(slug, 3)));
+        }
+        return tags;
+    }
+
+    /**
+     * @param difficultyLevel 1-3, or null for every difficulty
+     * @return empty when the tag is unknown or no index has been published
+     */
+    public Optional<TagProblemsResponse> getProblems(String tagSlug, Integer difficultyLevel) {
+        TagIndex current = index.current();
+        if (current == null || !current.hasTag(tagSlug)) {
+            return Optional.empty();
+        }
+        int[] ids = difficultyLevel == null
+                ? current.getProblemIds(tagSlug)
+                : current.getProblemIds(tagSlug, difficultyLevel);
+        List<TagProblemsResponse.ProblemRef> problems = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            problems.add(new TagProblemsResponse.ProblemRef(id, current.getTitleSlug(id)));
+        }
+        return Optional.of(new TagProblemsResponse(tagSlug, current.getTagName(tagSlug),
+                difficultyLevel == null ? null : DIFFICULTIES[difficultyLevel - 1], problems, current.getVersion()));
+    }
+
+    /**
+     * Accepts "easy"/"medium"/"hard" in any case, or the level 1-3
+     *
+     * @return the level, or null when the value is not a difficulty
+     */
+    public static Integer parseDifficulty(String difficulty) {
+        for (int level = 1; level <= DIFFICULTIES.length; level++) {
+            if (DIFFICULTIES[level - 1].equalsIgnoreCase(difficulty) || String.valueOf(level).equals(difficulty)) {
+                return level;
+            }
+        }
+        return null;
+    }
+}
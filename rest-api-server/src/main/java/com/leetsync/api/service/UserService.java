@@ -3,6 +3,8 @@ package com.leetsync.api.service;
 import com.leetsync.api.repository.AcSubmissionRepository;
 import com.leetsync.api.repository.UserRepository;
 import com.leetsync.api.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,12 +13,17 @@ import java.util.Optional;
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
     private final AcSubmissionRepository acSubmissionRepository;
+    private final OnboardingQueue onboardingQueue;
 
-    public UserService(UserRepository userRepository, AcSubmissionRepository acSubmissionRepository) {
+    public UserService(UserRepository userRepository, AcSubmissionRepository acSubmissionRepository,
+                       OnboardingQueue onboardingQueue) {
         this.userRepository = userRepository;
         this.acSubmissionRepository = acSubmissionRepository;
+        this.onboardingQueue = onboardingQueue;
     }
 
     public List<User> getAllUsers() {
@@ -30,7 +37,14 @@ public class UserService {
     public User createUser(String username) {
         long now = System.currentTimeMillis();
         User user = new User(username, now, 0);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        try {
+            onboardingQueue.enqueue(username);
+        } catch (RuntimeException e) {
+            // The user is stored either way; the regular sync schedule will pick them up
+            log.warn("Failed to enqueue onboarding for {}", username, e);
+        }
+        return saved;
     }
 
     public void deleteUser(String username) {
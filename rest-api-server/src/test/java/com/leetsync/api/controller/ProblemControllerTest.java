@@ -0,0 +1,82 @@
+package com.leetsync.api.controller;
+
+import com.leetsync.api.dto.TagProblemsResponse;
+import com.leetsync.api.dto.TagSummaryResponse;
+import com.leetsync.api.service.TagIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProblemControllerTest {
+
+    private TagIndexService tagIndexService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        tagIndexService = mock(TagIndexService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProblemController(tagIndexService)).build();
+    }
+
+    @Test
+    void getTags_returnsEveryTag() throws Exception {
+        when(tagIndexService.getTags()).thenReturn(List.of(new TagSummaryResponse("array", "Array", 2, 1, 0)));
+
+        mockMvc.perform(get("/problems/tags"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tag").value("array"))
+                .andExpect(jsonPath("$[0].medium").value(1));
+    }
+
+    @Test
+    void getProblemsByTag_passesTheParsedDifficulty() throws Exception {
+        TagProblemsResponse response = new TagProblemsResponse("array", "Array", "Medium",
+                List.of(new TagProblemsResponse.ProblemRef(15, "3sum")), 4L);
+        when(tagIndexService.getProblems("array", 2)).thenReturn(Optional.of(response));
+
+        mockMvc.perform(get("/problems/tags/array").param("difficulty", "medium"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.difficulty").value("Medium"))
+                .andExpect(jsonPath("$.problems[0].titleSlug").value("3sum"));
+    }
+
+    @Test
+    void getProblemsByTag_withoutDifficultyAsksForEveryLevel() throws Exception {
+        when(tagIndexService.getProblems("array", null)).thenReturn(Optional.of(
+                new TagProblemsResponse("array", "Array", null, List.of(), 4L)));
+
+        mockMvc.perform(get("/problems/tags/array"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    @Test
+    void getProblemsByTag_unknownTagIsNotFound() throws Exception {
+        when(tagIndexService.getProblems("graph", null)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/problems/tags/graph"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getProblemsByTag_invalidDifficultyIsBadRequest() throws Exception {
+        mockMvc.perform(get("/problems/tags/array").param("difficulty", "extreme"))
+                .andExpect(status().isBadRequest());
+
+        verify(tagIndexService, never()).getProblems(anyString(), any());
+    }
+}
@@ -0,0 +1,79 @@
+package com.leetsync.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOnboardingQueueTest {
+
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void drainAll_handsEveryPendingUserToTheSyncInBatches() {
+        InMemoryOnboardingQueue queue = new InMemoryOnboardingQueue(10, batches::add, 2);
+        queue.enqueue("alice");
+        queue.enqueue("bob");
+        queue.enqueue("alice");
+        queue.enqueue("carol");
+
+        assertEquals(3, queue.drainAll());
+
+        assertEquals(List.of(List.of("alice", "bob"), List.of("carol")), batches);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void enqueue_rejectsNewUsersOnceFullButAcceptsOnesAlreadyPending() {
+        InMemoryOnboardingQueue queue = new InMemoryOnboardingQueue(2, batches::add, 10);
+        queue.enqueue("alice");
+        queue.enqueue("bob");
+
+        assertThrows(IllegalStateException.class, () -> queue.enqueue("carol"));
+        queue.enqueue("alice");
+        assertEquals(2, queue.size());
+
+        queue.drainAll();
+        queue.enqueue("carol");
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void drainAll_dropsAFailedBatchAndKeepsGoing() {
+        InMemoryOnboardingQueue queue = new InMemoryOnboardingQueue(10, usernames -> {
+            if (usernames.contains("alice")) {
+                throw new IOException("invoke failed");
+            }
+            batches.add(usernames);
+        }, 1);
+        queue.enqueue("alice");
+        queue.enqueue("bob");
+
+        assertEquals(2, queue.drainAll());
+
+        assertEquals(List.of(List.of("bob")), batches);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void start_drainsInTheBackgroundUntilClosed() throws Exception {
+        CountDownLatch onboarded = new CountDownLatch(1);
+        try (InMemoryOnboardingQueue queue = new InMemoryOnboardingQueue(10, usernames -> {
+            batches.add(usernames);
+            onboarded.countDown();
+        }, 10)) {
+            queue.start(Duration.ofMillis(10));
+            queue.enqueue("alice");
+
+            assertTrue(onboarded.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(List.of("alice")), batches);
+    }
+}
@@ -0,0 +1,72 @@
+package com.leetsync.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Invokes a fake Lambda invoke endpoint standing in for the local onboarding function
+ */
+class LambdaInvokeOnboardingSyncTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private final AtomicReference<JsonNode> received = new AtomicReference<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private LambdaInvokeOnboardingSync sync;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/2015-03-31/functions/onboarding/invocations", exchange -> {
+            received.set(MAPPER.readTree(exchange.getRequestBody()));
+            byte[] body = "{\"batchItemFailures\":[{\"itemIdentifier\":\"1\"}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        sync = new LambdaInvokeOnboardingSync(HttpClient.newHttpClient(), URI.create(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/2015-03-31/functions/onboarding/invocations"));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void onboard_sendsTheBatchAsAnSqsEvent() throws Exception {
+        sync.onboard(List.of("alice", "bob"));
+
+        JsonNode records = received.get().get("Records");
+        assertEquals(2, records.size());
+        assertEquals("0", records.get(0).get("messageId").asText());
+        assertEquals("alice", MAPPER.readTree(records.get(0).get("body").asText()).get("username").asText());
+        assertEquals("bob", MAPPER.readTree(records.get(1).get("body").asText()).get("username").asText());
+    }
+
+    @Test
+    void onboard_failsOnAnErrorStatus() {
+        status.set(502);
+
+        assertThrows(IOException.class, () -> sync.onboard(List.of("alice")));
+    }
+}
@@ -0,0 +1,41 @@
+package com.leetsync.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SqsOnboardingQueueTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-west-2.amazonaws.com/123456789012/leetsync-onboarding";
+
+    @Test
+    void enqueue_sendsTheUsernameMessageTheOnboardingHandlerReads() throws Exception {
+        SqsClient sqsClient = mock(SqsClient.class);
+        SqsOnboardingQueue queue = new SqsOnboardingQueue(sqsClient, QUEUE_URL);
+
+        queue.enqueue("alice \"the\" coder");
+
+        ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(captor.capture());
+        assertEquals(QUEUE_URL, captor.getValue().queueUrl());
+        assertEquals("alice \"the\" coder",
+                new ObjectMapper().readTree(captor.getValue().messageBody()).get("username").asText());
+    }
+
+    @Test
+    void enqueue_letsSendFailuresReachTheCaller() {
+        SqsClient sqsClient = mock(SqsClient.class);
+        when(sqsClient.sendMessage(any(SendMessageRequest.class)))
+                .thenThrow(SqsException.builder().message("throttled").build());
+        SqsOnboardingQueue queue = new SqsOnboardingQueue(sqsClient, QUEUE_URL);
+
+        assertThrows(SqsException.class, () -> queue.enqueue("alice"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.leetsync.api.service;
+
+import com.leetsync.api.dto.TagProblemsResponse;
+import com.leetsync.api.dto.TagSummaryResponse;
+import com.leetsync.common.model.CatalogProblem;
+import com.leetsync.common.service.FileCatalogSnapshotStore;
+import com.leetsync.common.service.TagIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagIndexServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileCatalogSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileCatalogSnapshotStore(tempDir.resolve("bucket"));
+    }
+
+    @Test
+    void missingLatest_servesNothingUntilAnIndexIsPublished() throws Exception {
+        TagIndexService service = service(Duration.ZERO);
+
+        assertTrue(service.getTags().isEmpty());
+        assertTrue(service.getProblems("array", null).isEmpty());
+
+        TagIndex.publish(store, TagIndex.encode(catalog(), 1L));
+
+        assertEquals(2, service.getTags().size());
+        assertTrue(service.getProblems("array", null).isPresent());
+    }
+
+    @Test
+    void getTags_reportsCountsPerDifficulty() throws Exception {
+        TagIndex.publish(store, TagIndex.encode(catalog(), 1L));
+
+        List<TagSummaryResponse> tags = service(Duration.ofMinutes(10)).getTags();
+
+        assertEquals(List.of("array", "hash-table"), tags.stream().map(TagSummaryResponse::getTag).toList());
+        TagSummaryResponse array = tags.get(0);
+        assertEquals("Array", array.getName());
+        assertEquals(2, array.getEasy());
+        assertEquals(1, array.getMedium());
+        assertEquals(0, array.getHard());
+    }
+
+    @Test
+    void getProblems_filtersByDifficultyAndResolvesSlugs() throws Exception {
+        TagIndex.publish(store, TagIndex.encode(catalog(), 4L));
+        TagIndexService service = service(Duration.ofMinutes(10));
+
+        TagProblemsResponse all = service.getProblems("array", null).orElseThrow();
+        assertNull(all.getDifficulty());
+        assertEquals(List.of(1, 15, 217), all.getProblems().stream().map(TagProblemsResponse.ProblemRef::getQuestionId).toList());
+        assertEquals(4L, all.getIndexVersion());
+
+        TagProblemsResponse medium = service.getProblems("array", 2).orElseThrow();
+        assertEquals("Medium", medium.getDifficulty());
+        assertEquals(1, medium.getCount());
+        assertEquals("3sum", medium.getProblems().get(0).getTitleSlug());
+
+        assertEquals(0, service.getProblems("array", 3).orElseThrow().getCount());
+    }
+
+    @Test
+    void getProblems_unknownTagIsEmpty() throws Exception {
+        TagIndex.publish(store, TagIndex.encode(catalog(), 1L));
+
+        assertTrue(service(Duration.ofMinutes(10)).getProblems("graph", null).isEmpty());
+    }
+
+    @Test
+    void refresh_picksUpANewIndexOnlyAfterTheInterval() throws Exception {
+        TagIndex.publish(store, TagIndex.encode(catalog(), 1L));
+        TagIndexService cached = service(Duration.ofMinutes(10));
+        TagIndexService refreshing = service(Duration.ZERO);
+        assertEquals(1L, cached.getProblems("array", null).orElseThrow().getIndexVersion());
+        assertEquals(1L, refreshing.getProblems("array", null).orElseThrow().getIndexVersion());
+
+        List<CatalogProblem> next = new ArrayList<>(catalog());
+        next.add(problem(20L, "valid-parentheses", 1, "stack"));
+        TagIndex.publish(store, TagIndex.encode(next, 2L));
+
+        assertEquals(1L, cached.getProblems("array", null).orElseThrow().getIndexVersion());
+        assertTrue(cached.getProblems("stack", null).isEmpty());
+        assertEquals(2L, refreshing.getProblems("array", null).orElseThrow().getIndexVersion());
+        assertTrue(refreshing.getProblems("stack", null).isPresent());
+    }
+
+    @Test
+    void parseDifficulty_acceptsNamesAndLevels() {
+        assertEquals(1, TagIndexService.parseDifficulty("easy"));
+        assertEquals(2, TagIndexService.parseDifficulty("Medium"));
+        assertEquals(3, TagIndexService.parseDifficulty("3"));
+        assertNull(TagIndexService.parseDifficulty("extreme"));
+        assertNull(TagIndexService.parseDifficulty("0"));
+    }
+
+    private TagIndexService service(Duration refreshInterval) {
+        return new TagIndexService(store, refreshInterval, tempDir.resolve("cache"));
+    }
+
+    private static List<CatalogProblem> catalog() {
+        return List.of(
+                problem(1L, "two-sum", 1, "array", "hash-table"),
+                problem(15L, "3sum", 2, "array"),
+                problem(217L, "contains-duplicate", 1, "array", "hash-table"));
+    }
+
+    private static CatalogProblem problem(long questionId, String titleSlug, int difficultyLevel, String... tagSlugs) {
+        List<CatalogProblem.Tag> tags = new ArrayList<>();
+        for (String slug : tagSlugs) {
+            String name = slug.equals("hash-table") ? "Hash Table" : Character.toUpperCase(slug.charAt(0)) + slug.substring(1);
+            tags.add(new CatalogProblem.Tag() {
+                @Override
+                public String getName() { return name; }
+
+                @Override
+                public String getSlug() { return slug; }
+            });
+        }
+        return new CatalogProblem() {
+            @Override
+            public Long getQuestionId() { return questionId; }
+
+            @Override
+            public Integer getFrontendQuestionId() { return (int) questionId; }
+
+            @Override
+            public String getTitleSlug() { return titleSlug; }
+
+            @Override
+            public Long getTotalAccepted() { return null; }
+
+            @Override
+            public Long getTotalSubmitted() { return null; }
+
+            @Override
+            public Integer getDifficultyLevel() { return difficultyLevel; }
+
+            @Override
+            public Double getAcRate() { return null; }
+
+            @Override
+            public List<CatalogProblem.Tag> getTopicTags() { return tags; }
+        };
+    }
+}
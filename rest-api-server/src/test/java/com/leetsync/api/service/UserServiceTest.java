@@ -0,0 +1,55 @@
+package com.leetsync.api.service;
+
+import com.leetsync.api.model.User;
+import com.leetsync.api.repository.AcSubmissionRepository;
+import com.leetsync.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private UserRepository userRepository;
+    private OnboardingQueue onboardingQueue;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        onboardingQueue = mock(OnboardingQueue.class);
+        userService = new UserService(userRepository, mock(AcSubmissionRepository.class), onboardingQueue);
+    }
+
+    @Test
+    void createUser_storesTheUserThenQueuesItForOnboarding() {
+        User created = userService.createUser("alice");
+
+        assertEquals("alice", created.getUsername());
+        var order = inOrder(userRepository, onboardingQueue);
+        order.verify(userRepository).save(any(User.class));
+        order.verify(onboardingQueue).enqueue("alice");
+    }
+
+    @Test
+    void createUser_succeedsWhenTheOnboardingQueueRejectsTheUser() {
+        doThrow(new IllegalStateException("Onboarding queue is full")).when(onboardingQueue).enqueue("alice");
+
+        User created = userService.createUser("alice");
+
+        assertEquals("alice", created.getUsername());
+        verify(userRepository).save(any(User.class));
+    }
+
+    @Test
+    void createUser_doesNotQueueAUserThatFailedToStore() {
+        when(userRepository.save(any(User.class))).thenThrow(new IllegalStateException("table gone"));
+
+        assertThrows(IllegalStateException.class, () -> userService.createUser("alice"));
+
+        verify(onboardingQueue, never()).enqueue(any());
+    }
+}